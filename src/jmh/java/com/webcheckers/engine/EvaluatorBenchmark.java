@@ -0,0 +1,107 @@
+package com.webcheckers.engine;
+
+import com.webcheckers.model.Board;
+import com.webcheckers.model.ModelBenchmark;
+import com.webcheckers.model.MoveList;
+import com.webcheckers.model.Piece;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of the evaluation, in evaluations per second: scoring a
+ * leaf from the running totals, following a move there and back as the
+ * search does, and adding the totals up from scratch for comparison.
+ *
+ * Each benchmark runs against an opening, a midgame and a King-heavy
+ * endgame position, with the default weights and with mobility weighted
+ * (which is worked out at the leaf). Run them with
+ * "mvn -Pjmh compile exec:exec@jmh -Djmh.include=EvaluatorBenchmark".
+ *
+ * @authors
+ *      Summer DiStefano
+ *      Frank Abbey
+ *      Raisa Hossain
+ *      Stephen Bosonac
+ *
+ * @version 5/8/2020
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EvaluatorBenchmark {
+
+    /** The ModelBenchmark position to run against */
+    @Param({"opening", "midgame", "endgame"})
+    public String fixture;
+
+    @Param({"default", "mobility"})
+    public String weights;
+
+    private Board board;
+    private Piece.PieceColor side;
+    private DefaultEvaluator evaluator;
+    private int move;
+    private int captured;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        board = ModelBenchmark.fixtureBoard(fixture);
+        side = board.getActiveColor();
+
+        EvaluationWeights chosen = EvaluationWeights.DEFAULT;
+        if(weights.equals("mobility")) {
+            int[] manSquares = new int[EvaluationWeights.SQUARES];
+            int[] kingSquares = new int[EvaluationWeights.SQUARES];
+            for(int square = 0; square < EvaluationWeights.SQUARES; square++) {
+                manSquares[square] = chosen.getManSquare(square);
+                kingSquares[square] = chosen.getKingSquare(square);
+            }
+            chosen = new EvaluationWeights(chosen.getMan(), chosen.getKing(), 4, manSquares, kingSquares);
+        }
+        evaluator = new DefaultEvaluator(chosen);
+        evaluator.reset(board);
+
+        MoveList moves = new MoveList();
+        board.generateMoves(side, moves);
+        move = moves.get(0);
+        captured = moves.getCaptured(0);
+    }
+
+    @Benchmark
+    public int evaluate() {
+        return evaluator.evaluate(board, side);
+    }
+
+    @Benchmark
+    public int makeEvaluateUnmake() {
+        evaluator.makeMove(board, move, captured);
+        long undo = board.makeMove(move, captured);
+        int score = evaluator.evaluate(board, side);
+        board.unmakeMove(move, undo);
+        evaluator.unmakeMove();
+        return score;
+    }
+
+    @Benchmark
+    public int evaluateFromScratch() {
+        evaluator.reset(board);
+        return evaluator.evaluate(board, side);
+    }
+
+}
@@ -0,0 +1,179 @@
+package com.webcheckers.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of the model calls made on every request: move
+ * generation, jump detection, copying and flipping the Board, and
+ * validating, making, backing up and submitting Moves of a Turn.
+ *
+ * Each benchmark runs against an opening, a midgame and a King-heavy
+ * endgame position. Run them all with "mvn -Pjmh compile exec:exec@jmh";
+ * the GC profiler adds the bytes allocated per call.
+ *
+ * @authors
+ *      Summer DiStefano
+ *      Frank Abbey
+ *      Raisa Hossain
+ *      Stephen Bosonac
+ *
+ * @version 4/30/2020
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ModelBenchmark {
+
+    /** Positions the benchmarks run against, in FEN (see Board.fromFen) */
+    private static final String OPENING = "B:W21-32:B1-12";
+    private static final String MIDGAME = "B:W17,19,21,22,24,26,27,29,31:B1,2,3,6,7,9,10,12,14";
+    private static final String ENDGAME = "W:WK3,K7,K14,22,K27:BK10,K17,K19,K25,13";
+
+    @Param({"opening", "midgame", "endgame"})
+    public String fixture;
+
+    private Board board;
+    private Piece.PieceColor side;
+    private CheckersGame game;
+    private Turn turn;
+    private BoardView boardView;
+
+    /** The first hop of a legal Move, and a Move that is never legal */
+    private Position legalStart;
+    private Position legalEnd;
+    private Position illegalStart;
+    private Position illegalEnd;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        board = fixtureBoard(fixture);
+        side = board.getActiveColor();
+        game = new CheckersGame(new Player("red"), new Player("white"), board.copyBoard());
+        turn = game.getTurn();
+        boardView = new BoardView(board);
+
+        MoveList moves = new MoveList();
+        board.generateMoves(side, moves);
+        int move = moves.get(0);
+        legalStart = Bitboards.position(Move.startSquare(move));
+        legalEnd = Bitboards.position(Move.isCapture(move)
+                ? Move.pathSquare(moves.getPath(0), 0) : Move.endSquare(move));
+        //moving the same Piece two rows sideways is never allowed
+        illegalStart = legalStart;
+        illegalEnd = new Position(legalStart.getRow(), (legalStart.getCell() + 2) % Bitboards.DIM);
+    }
+
+    /**
+     * Build the position a fixture parameter names; the other benchmarks
+     * run against the same positions
+     *
+     * @param fixture - "opening", "midgame" or "endgame"
+     * @return Board - a new Board in that position
+     */
+    public static Board fixtureBoard(String fixture) {
+        switch(fixture) {
+            case "opening":
+                return Board.fromFen(OPENING);
+            case "midgame":
+                return Board.fromFen(MIDGAME);
+            default:
+                return Board.fromFen(ENDGAME);
+        }
+    }
+
+    @Benchmark
+    public List<Move> getAvailableMoves() {
+        return board.getAvailableMoves(side);
+    }
+
+    @Benchmark
+    public boolean jumpMoveAvailable() {
+        return board.jumpMoveAvailable(side, null);
+    }
+
+    @Benchmark
+    public Board copyBoard() {
+        return board.copyBoard();
+    }
+
+    @Benchmark
+    public Object validateLegalMove() {
+        Object message = turn.validateMove(new Move(legalStart, legalEnd));
+        turn.backUpMove();
+        return message;
+    }
+
+    @Benchmark
+    public Object validateIllegalMove() {
+        return turn.validateMove(new Move(illegalStart, illegalEnd));
+    }
+
+    @Benchmark
+    public Board makeAndBackUpMove() {
+        Move move = new Move(legalStart, legalEnd);
+        move.setPieceColor(side);
+        turn.makeMove(move);
+        turn.backUpMove();
+        return turn.getCurrentBoard();
+    }
+
+    @Benchmark
+    public BoardView flip() {
+        boardView.flip();
+        return boardView;
+    }
+
+    /**
+     * Submitting a Turn changes the game, so every call gets a new game
+     * with a Move already made
+     */
+    @State(Scope.Thread)
+    public static class SubmitState {
+
+        @Param({"opening", "midgame", "endgame"})
+        public String fixture;
+
+        private Board board;
+        private CheckersGame game;
+
+        @Setup(Level.Trial)
+        public void setUpBoard() {
+            board = fixtureBoard(fixture);
+        }
+
+        @Setup(Level.Invocation)
+        public void setUpTurn() {
+            game = new CheckersGame(new Player("red"), new Player("white"), board.copyBoard());
+            MoveList moves = new MoveList();
+            board.generateMoves(board.getActiveColor(), moves);
+            int move = moves.get(0);
+            Move first = new Move(Bitboards.position(Move.startSquare(move)), Bitboards.position(
+                    Move.isCapture(move) ? Move.pathSquare(moves.getPath(0), 0) : Move.endSquare(move)));
+            game.getTurn().validateMove(first);
+        }
+    }
+
+    @Benchmark
+    public Object submitTurn(SubmitState state) {
+        return state.game.submitTurn();
+    }
+
+}
@@ -0,0 +1,314 @@
+package com.webcheckers.ui;
+
+import com.google.gson.Gson;
+import com.webcheckers.appl.GameCenter;
+import com.webcheckers.appl.PlayerLobby;
+import com.webcheckers.model.CheckersGame;
+import com.webcheckers.model.Move;
+import com.webcheckers.model.Player;
+import com.webcheckers.model.Position;
+import com.webcheckers.model.Turn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import spark.Request;
+import spark.Response;
+import spark.TemplateEngine;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of each Route in com.webcheckers.ui, called directly with stub
+ * Requests, Responses and Sessions (see {@link RouteStubs}) so that only
+ * the handler's own cost is measured, without Jetty or sockets. Views
+ * are rendered with FreeMarker, as they are when serving pages.
+ *
+ * The routes share one populated GameCenter and PlayerLobby: a lobby of
+ * signed in Players and a game in progress between two of them. Calls
+ * that change that state are undone between calls.
+ *
+ * Sample time mode reports the p50 and p99 latency of every route, and
+ * the GC profiler the bytes allocated per call. Run with
+ * "mvn -Pjmh compile exec:exec@jmh -Djmh.include=RouteBenchmark".
+ *
+ * @authors
+ *      Summer DiStefano
+ *      Frank Abbey
+ *      Raisa Hossain
+ *      Stephen Bosonac
+ *
+ * @version 4/30/2020
+ *
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RouteBenchmark {
+
+    private static final int LOBBY_SIZE = 20;
+
+    /** The first Move of the game, as the red Player's browser sends it (flipped) */
+    private static final String RED_FIRST_MOVE =
+            "{\"start\":{\"row\":5,\"cell\":5},\"end\":{\"row\":4,\"cell\":4}}";
+
+    private TemplateEngine templateEngine;
+    private Gson gson;
+    private GameCenter gameCenter;
+    private PlayerLobby playerLobby;
+    private Player red;
+    private Player white;
+    private CheckersGame game;
+
+    private RouteStubs.StubSession signedOut;
+    private RouteStubs.StubSession redSession;
+    private RouteStubs.StubSession whiteSession;
+
+    private GetHomeRoute getHomeRoute;
+    private GetSignInRoute getSignInRoute;
+    private PostSignInRoute postSignInRoute;
+    private PostSignOutRoute postSignOutRoute;
+    private GetGameRoute getGameRoute;
+    private PostValidateMoveRoute postValidateMoveRoute;
+    private PostCheckTurnRoute postCheckTurnRoute;
+    private PostSubmitTurnRoute postSubmitTurnRoute;
+    private PostBackupMoveRoute postBackupMoveRoute;
+    private PostResignGameRoute postResignGameRoute;
+    private PostExitGameRoute postExitGameRoute;
+
+    /** Numbers the Players signed in and out by the lobby benchmarks */
+    private int churnCount;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        templateEngine = RouteStubs.templateEngine();
+        gson = new Gson();
+        gameCenter = new GameCenter();
+        playerLobby = new PlayerLobby();
+
+        for(int i = 0; i < LOBBY_SIZE; i++)
+            playerLobby.addPlayer(new Player("player" + i));
+        red = playerLobby.getPlayer("player0");
+        white = playerLobby.getPlayer("player1");
+        game = new CheckersGame(red, white);
+        gameCenter.addGame(game);
+
+        signedOut = new RouteStubs.StubSession();
+        redSession = signedIn(red);
+        whiteSession = signedIn(white);
+
+        getHomeRoute = new GetHomeRoute(templateEngine, gameCenter);
+        getSignInRoute = new GetSignInRoute(templateEngine);
+        postSignInRoute = new PostSignInRoute(templateEngine);
+        postSignOutRoute = new PostSignOutRoute(gameCenter, templateEngine);
+        getGameRoute = new GetGameRoute(templateEngine, gameCenter, gson);
+        postValidateMoveRoute = new PostValidateMoveRoute(gameCenter, gson);
+        postCheckTurnRoute = new PostCheckTurnRoute(gameCenter, gson);
+        postSubmitTurnRoute = new PostSubmitTurnRoute(gameCenter);
+        postBackupMoveRoute = new PostBackupMoveRoute(gameCenter);
+        postResignGameRoute = new PostResignGameRoute(gameCenter);
+        postExitGameRoute = new PostExitGameRoute(gameCenter);
+    }
+
+    private RouteStubs.StubSession signedIn(Player player) {
+        RouteStubs.StubSession session = new RouteStubs.StubSession();
+        session.attributes.put(GetHomeRoute.PLAYER_KEY, player);
+        session.attributes.put(GetHomeRoute.PLAYER_LOBBY_KEY, playerLobby);
+        return session;
+    }
+
+    private static Request request(RouteStubs.StubSession session, String... queryParams) {
+        return RouteStubs.request(session, queryParams);
+    }
+
+    private static Response response() {
+        return RouteStubs.response();
+    }
+
+    @Benchmark
+    public Object getHomeSignedOut() throws Exception {
+        return getHomeRoute.handle(request(signedOut), response());
+    }
+
+    @Benchmark
+    public Object getHomeSignedIn() throws Exception {
+        return getHomeRoute.handle(request(whiteSession), response());
+    }
+
+    @Benchmark
+    public Object getSignIn() throws Exception {
+        return getSignInRoute.handle(request(signedOut), response());
+    }
+
+    @Benchmark
+    public Object getGameRed() throws Exception {
+        return getGameRoute.handle(request(redSession), response());
+    }
+
+    @Benchmark
+    public Object getGameWhite() throws Exception {
+        return getGameRoute.handle(request(whiteSession), response());
+    }
+
+    @Benchmark
+    public Object postCheckTurn() throws Exception {
+        return postCheckTurnRoute.handle(request(whiteSession), response());
+    }
+
+    @Benchmark
+    public Object postExitGame() throws Exception {
+        return postExitGameRoute.handle(request(redSession), response());
+    }
+
+    /*
+     * Routes that change the game or the lobby. Each has a State that sets
+     * up or undoes the change around every call, outside the measurement.
+     */
+
+    /**
+     * Takes back whatever Move the last call made
+     */
+    @State(Scope.Thread)
+    public static class MoveTakenBack {
+
+        @TearDown(Level.Invocation)
+        public void tearDown(RouteBenchmark benchmark) {
+            Turn turn = benchmark.game.getTurn();
+            while(turn.getState() != Turn.State.EMPTY_TURN)
+                turn.backUpMove();
+        }
+    }
+
+    @Benchmark
+    public Object postValidateMove(MoveTakenBack undo) throws Exception {
+        return postValidateMoveRoute.handle(request(redSession, "actionData", RED_FIRST_MOVE), response());
+    }
+
+    /**
+     * Makes a Move for the next call to take back
+     */
+    @State(Scope.Thread)
+    public static class MoveMade {
+
+        @Setup(Level.Invocation)
+        public void setUp(RouteBenchmark benchmark) {
+            benchmark.game.getTurn().validateMove(firstMove());
+        }
+    }
+
+    @Benchmark
+    public Object postBackupMove(MoveMade made) throws Exception {
+        return postBackupMoveRoute.handle(request(redSession), response());
+    }
+
+    /**
+     * Replaces the game with a new one, with the red Player's first Move
+     * made, before every call
+     */
+    @State(Scope.Thread)
+    public static class FreshGame {
+
+        @Setup(Level.Invocation)
+        public void setUp(RouteBenchmark benchmark) {
+            benchmark.gameCenter.removeGame(benchmark.game);
+            benchmark.game = new CheckersGame(benchmark.red, benchmark.white);
+            benchmark.gameCenter.addGame(benchmark.game);
+            benchmark.game.getTurn().validateMove(firstMove());
+        }
+    }
+
+    @Benchmark
+    public Object postSubmitTurn(FreshGame fresh) throws Exception {
+        return postSubmitTurnRoute.handle(request(redSession), response());
+    }
+
+    /**
+     * Replaces the game with a new one, where nobody has moved yet, before
+     * every call
+     */
+    @State(Scope.Thread)
+    public static class UnplayedGame {
+
+        @Setup(Level.Invocation)
+        public void setUp(RouteBenchmark benchmark) {
+            benchmark.gameCenter.removeGame(benchmark.game);
+            benchmark.game = new CheckersGame(benchmark.red, benchmark.white);
+            benchmark.gameCenter.addGame(benchmark.game);
+        }
+    }
+
+    @Benchmark
+    public Object postResignGame(UnplayedGame unplayed) throws Exception {
+        return postResignGameRoute.handle(request(redSession), response());
+    }
+
+    /**
+     * A new browser session for a new Player name; the Player is signed
+     * out again after the call
+     */
+    @State(Scope.Thread)
+    public static class SignInSession {
+
+        private String username;
+        private RouteStubs.StubSession session;
+
+        @Setup(Level.Invocation)
+        public void setUp(RouteBenchmark benchmark) {
+            username = "churn" + benchmark.churnCount++;
+            session = new RouteStubs.StubSession();
+        }
+
+        @TearDown(Level.Invocation)
+        public void tearDown() {
+            PlayerLobby lobby = (PlayerLobby) session.attributes.get(GetHomeRoute.PLAYER_LOBBY_KEY);
+            if(lobby != null)
+                lobby.removePlayer(lobby.getPlayer(username));
+        }
+    }
+
+    @Benchmark
+    public Object postSignIn(SignInSession signIn) throws Exception {
+        return postSignInRoute.handle(
+                request(signIn.session, PostSignInRoute.USERNAME_PARAM, signIn.username), response());
+    }
+
+    /**
+     * A signed in Player's session, ready to be signed out
+     */
+    @State(Scope.Thread)
+    public static class SignOutSession {
+
+        private RouteStubs.StubSession session;
+
+        @Setup(Level.Invocation)
+        public void setUp(RouteBenchmark benchmark) {
+            Player player = new Player("churn" + benchmark.churnCount++);
+            benchmark.playerLobby.addPlayer(player);
+            session = benchmark.signedIn(player);
+        }
+    }
+
+    @Benchmark
+    public Object postSignOut(SignOutSession signOut) throws Exception {
+        return postSignOutRoute.handle(request(signOut.session), response());
+    }
+
+    /**
+     * The first Move of the game in board coordinates
+     */
+    private static Move firstMove() {
+        return new Move(new Position(2, 5), new Position(3, 4));
+    }
+
+}
@@ -0,0 +1,198 @@
+package com.webcheckers.ui;
+
+import freemarker.cache.ClassTemplateLoader;
+import freemarker.cache.MultiTemplateLoader;
+import freemarker.cache.TemplateLoader;
+import freemarker.template.Configuration;
+import spark.Request;
+import spark.RequestResponseFactory;
+import spark.Response;
+import spark.TemplateEngine;
+import spark.template.freemarker.FreeMarkerEngine;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.io.Reader;
+import java.io.StringReader;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stand-ins for the servlet request, response and session behind Spark's
+ * Request, Response and Session, so Routes can be called directly without
+ * Jetty or a socket. Only what the Routes use does anything: session
+ * attributes, query parameters, and the response status and redirect.
+ * Every other servlet call returns null, 0 or false.
+ *
+ * Also the application's FreeMarker engine, loading the same templates,
+ * except that any template missing from the classpath renders as nothing
+ * instead of failing the call.
+ *
+ * @authors
+ *      Summer DiStefano
+ *      Frank Abbey
+ *      Raisa Hossain
+ *      Stephen Bosonac
+ *
+ * @version 4/30/2020
+ *
+ */
+final class RouteStubs {
+
+    private RouteStubs() {
+    }
+
+    /**
+     * A browser session: its attributes live as long as this object
+     */
+    static class StubSession {
+
+        final Map<String, Object> attributes = new HashMap<>();
+        final HttpSession raw = proxy(HttpSession.class, (method, args) -> {
+            switch(method.getName()) {
+                case "getAttribute":
+                    return attributes.get((String) args[0]);
+                case "setAttribute":
+                    if(args[1] == null)
+                        attributes.remove((String) args[0]);
+                    else
+                        attributes.put((String) args[0], args[1]);
+                    return null;
+                case "removeAttribute":
+                    attributes.remove((String) args[0]);
+                    return null;
+                case "getId":
+                    return "stub-session";
+                default:
+                    return null;
+            }
+        });
+    }
+
+    /**
+     * Build a Spark Request for one call to a Route
+     *
+     * @param session - the session the request belongs to
+     * @param queryParams - query or form parameters, name then value
+     * @return Request
+     */
+    static Request request(StubSession session, String... queryParams) {
+        Map<String, String> params = new HashMap<>();
+        for(int i = 0; i + 1 < queryParams.length; i += 2)
+            params.put(queryParams[i], queryParams[i + 1]);
+        Map<String, Object> attributes = new HashMap<>();
+
+        HttpServletRequest raw = proxy(HttpServletRequest.class, (method, args) -> {
+            switch(method.getName()) {
+                case "getSession":
+                    return session.raw;
+                case "getParameter":
+                    return params.get((String) args[0]);
+                case "getAttribute":
+                    return attributes.get((String) args[0]);
+                case "setAttribute":
+                    attributes.put((String) args[0], args[1]);
+                    return null;
+                case "getMethod":
+                    return "POST";
+                default:
+                    return null;
+            }
+        });
+        return RequestResponseFactory.create(raw);
+    }
+
+    /**
+     * Build a Spark Response that records a redirect and nothing else
+     *
+     * @return Response
+     */
+    static Response response() {
+        HttpServletResponse raw = proxy(HttpServletResponse.class, (method, args) -> null);
+        return RequestResponseFactory.create(raw);
+    }
+
+    /**
+     * Build a FreeMarker engine like the one Application uses
+     *
+     * @return TemplateEngine
+     */
+    static TemplateEngine templateEngine() {
+        Configuration configuration = new Configuration(Configuration.VERSION_2_3_23);
+        //there are no localized templates, and the empty loader would claim them all
+        configuration.setLocalizedLookup(false);
+        configuration.setTemplateLoader(new MultiTemplateLoader(new TemplateLoader[] {
+                new ClassTemplateLoader(FreeMarkerEngine.class, ""),
+                new EmptyTemplateLoader()
+        }));
+        return new FreeMarkerEngine(configuration);
+    }
+
+    /**
+     * Finds every template, each one empty
+     */
+    private static class EmptyTemplateLoader implements TemplateLoader {
+
+        @Override
+        public Object findTemplateSource(String name) {
+            return name;
+        }
+
+        @Override
+        public long getLastModified(Object templateSource) {
+            return 0;
+        }
+
+        @Override
+        public Reader getReader(Object templateSource, String encoding) {
+            return new StringReader("");
+        }
+
+        @Override
+        public void closeTemplateSource(Object templateSource) {
+        }
+    }
+
+    private interface Handler {
+        Object invoke(Method method, Object[] args);
+    }
+
+    /**
+     * Implement a servlet interface with a handler, answering the calls
+     * the handler leaves alone with the type's zero value
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(RouteStubs.class.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    if(method.getDeclaringClass() == Object.class) {
+                        switch(method.getName()) {
+                            case "equals":
+                                return proxy == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            default:
+                                return type.getSimpleName() + " stub";
+                        }
+                    }
+                    Object result = handler.invoke(method, args);
+                    if(result == null && method.getReturnType().isPrimitive())
+                        return zero(method.getReturnType());
+                    return result;
+                });
+    }
+
+    private static Object zero(Class<?> type) {
+        if(type == boolean.class)
+            return false;
+        if(type == long.class)
+            return 0L;
+        if(type == void.class)
+            return null;
+        return 0;
+    }
+
+}
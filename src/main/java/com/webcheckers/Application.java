@@ -1,11 +1,26 @@
 package com.webcheckers;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.logging.LogManager;
 import java.util.logging.Logger;
 
 import com.google.gson.Gson;
+import com.webcheckers.appl.AITurnExecutor;
+import com.webcheckers.appl.GameCenter;
+import com.webcheckers.engine.DefaultEvaluator;
+import com.webcheckers.engine.Engine;
+import com.webcheckers.engine.EvaluationWeights;
+import com.webcheckers.engine.OpeningBook;
+import com.webcheckers.engine.SearchPool;
+import com.webcheckers.engine.Strength;
+import com.webcheckers.engine.Tablebase;
+import com.webcheckers.engine.TranspositionTable;
 import com.webcheckers.ui.WebServer;
 
 import spark.TemplateEngine;
@@ -59,6 +74,249 @@ public final class Application {
     }
   }
 
+  /**
+   * Queries the size of the AI transposition table, taken from the
+   * 'aiTableMb' property.
+   *
+   * @return the size in megabytes; the default if the property isn't set
+   * or is not a positive number
+   */
+  public static int getAITableSizeMb() {
+    return positiveIntProperty(AI_TABLE_MB_PROPERTY, TranspositionTable.DEFAULT_SIZE_MB);
+  }
+  private static final String AI_TABLE_MB_PROPERTY = "aiTableMb";
+
+  /**
+   * Queries how many helper threads each AI search asks for, taken from
+   * the 'aiHelperThreads' property.
+   *
+   * @return the number of helpers; 0 if the property isn't set
+   */
+  public static int getAIHelperThreads() {
+    return nonNegativeIntProperty(AI_HELPER_THREADS_PROPERTY, 0);
+  }
+  private static final String AI_HELPER_THREADS_PROPERTY = "aiHelperThreads";
+
+  /**
+   * Queries how many helper threads all AI searches may use together,
+   * taken from the 'aiMaxHelperThreads' property.
+   *
+   * @return the cap; one less than the number of processors if the
+   * property isn't set
+   */
+  public static int getAIMaxHelperThreads() {
+    return nonNegativeIntProperty(AI_MAX_HELPER_THREADS_PROPERTY,
+        Runtime.getRuntime().availableProcessors() - 1);
+  }
+  private static final String AI_MAX_HELPER_THREADS_PROPERTY = "aiMaxHelperThreads";
+
+  /**
+   * Queries how many AI Turns are searched at once, taken from the
+   * 'aiThreads' property.
+   *
+   * @return the number of AI threads; 1 if the property isn't set
+   */
+  public static int getAIThreads() {
+    return positiveIntProperty(AI_THREADS_PROPERTY, AITurnExecutor.DEFAULT_THREADS);
+  }
+  private static final String AI_THREADS_PROPERTY = "aiThreads";
+
+  /**
+   * Queries how many AI Turns may wait for an AI thread, taken from the
+   * 'aiQueueSize' property.
+   *
+   * @return the queue size; the default if the property isn't set
+   */
+  public static int getAIQueueSize() {
+    return positiveIntProperty(AI_QUEUE_SIZE_PROPERTY, AITurnExecutor.DEFAULT_QUEUE_SIZE);
+  }
+  private static final String AI_QUEUE_SIZE_PROPERTY = "aiQueueSize";
+
+  /**
+   * Queries the most CPU time an AI search may use per move, whatever
+   * its strength, taken from the 'aiBudgetMillis' property.
+   *
+   * @return the budget in milliseconds; the default if the property isn't set
+   */
+  public static int getAIBudgetMillis() {
+    return positiveIntProperty(AI_BUDGET_MILLIS_PROPERTY, (int) AITurnExecutor.DEFAULT_BUDGET_MILLIS);
+  }
+  private static final String AI_BUDGET_MILLIS_PROPERTY = "aiBudgetMillis";
+
+  /**
+   * Queries how many threads ponder during human players' turns, taken
+   * from the 'aiPonderThreads' property.
+   *
+   * @return the number of ponder threads; 1 if the property isn't set and
+   * there are more processors than AI threads, otherwise 0
+   */
+  public static int getAIPonderThreads() {
+    return nonNegativeIntProperty(AI_PONDER_THREADS_PROPERTY,
+        Runtime.getRuntime().availableProcessors() > getAIThreads() ? 1 : 0);
+  }
+  private static final String AI_PONDER_THREADS_PROPERTY = "aiPonderThreads";
+
+  /**
+   * Queries each AI strength's share of AI time, taken from the
+   * 'aiShare.&lt;level&gt;' properties, like 'aiShare.strong=2'.
+   *
+   * @return the weight of each level whose property is set to a positive
+   * number; the other levels get the default weight
+   */
+  public static Map<Strength, Double> getAILevelWeights() {
+    final Map<Strength, Double> weights = new EnumMap<>(Strength.class);
+    for (Strength strength : Strength.values()) {
+      final String property = AI_SHARE_PROPERTY + strength.name().toLowerCase(Locale.ROOT);
+      final String valueStr = System.getProperty(property);
+      if (valueStr == null) {
+        continue;
+      }
+      try {
+        final double weight = Double.parseDouble(valueStr.trim());
+        if (weight > 0) {
+          weights.put(strength, weight);
+          continue;
+        }
+      } catch (NumberFormatException e) {
+        // fall through to the warning
+      }
+      LOG.warning(String.format("Bad '%s' value, '%s'; must be a positive number.", property, valueStr));
+    }
+    return weights;
+  }
+  private static final String AI_SHARE_PROPERTY = "aiShare.";
+
+  /**
+   * Queries the engine each AI strength plays with, taken from the
+   * 'aiEngine.&lt;level&gt;' properties, like 'aiEngine.strong=mcts'.
+   *
+   * @return the engine of each level whose property names one
+   * ('alpha_beta', 'monte_carlo' or 'mcts'); the other levels keep their own
+   */
+  public static Map<Strength, Engine> getAIEngines() {
+    final Map<Strength, Engine> engines = new EnumMap<>(Strength.class);
+    for (Strength strength : Strength.values()) {
+      final String property = AI_ENGINE_PROPERTY + strength.name().toLowerCase(Locale.ROOT);
+      final String valueStr = System.getProperty(property);
+      if (valueStr == null) {
+        continue;
+      }
+      final Engine engine = Engine.fromName(valueStr);
+      if (engine != null) {
+        engines.put(strength, engine);
+      } else {
+        LOG.warning(String.format("Bad '%s' value, '%s'; must be alpha_beta, monte_carlo or mcts.",
+            property, valueStr));
+      }
+    }
+    return engines;
+  }
+  private static final String AI_ENGINE_PROPERTY = "aiEngine.";
+
+  /**
+   * Queries the opening book the AI plays from, taken from the 'aiBook'
+   * property.
+   *
+   * @return the book, opened; null if the property isn't set or the book
+   * can't be opened
+   */
+  public static OpeningBook getAIOpeningBook() {
+    final String file = System.getProperty(AI_BOOK_PROPERTY);
+    if (file == null) {
+      return null;
+    }
+    try {
+      final OpeningBook book = new OpeningBook(Paths.get(file));
+      LOG.config(String.format("Opening book '%s' has %d entries.", file, book.getEntries()));
+      return book;
+    } catch (IOException e) {
+      LOG.warning(String.format("Bad '%s' value, '%s'; %s", AI_BOOK_PROPERTY, file, e.getMessage()));
+      return null;
+    }
+  }
+
+  private static final String AI_BOOK_PROPERTY = "aiBook";
+
+  /**
+   * Queries the endgame tablebase the AI plays from, taken from the
+   * 'aiTablebase' property.
+   *
+   * @return the tablebase, opened; null if the property isn't set or the
+   * tablebase can't be opened
+   */
+  public static Tablebase getAITablebase() {
+    final String file = System.getProperty(AI_TABLEBASE_PROPERTY);
+    if (file == null) {
+      return null;
+    }
+    try {
+      final Tablebase tablebase = new Tablebase(Paths.get(file));
+      LOG.config(String.format("Tablebase '%s' holds up to %d pieces.", file, tablebase.getMaxPieces()));
+      return tablebase;
+    } catch (IOException e) {
+      LOG.warning(String.format("Bad '%s' value, '%s'; %s", AI_TABLEBASE_PROPERTY, file, e.getMessage()));
+      return null;
+    }
+  }
+
+  private static final String AI_TABLEBASE_PROPERTY = "aiTablebase";
+
+  /**
+   * Queries the weights the AI evaluates positions with, read from the file
+   * named by the 'aiWeights' property.
+   *
+   * @return the weights; the defaults if the property isn't set or the file
+   * can't be read
+   */
+  public static EvaluationWeights getAIWeights() {
+    final String file = System.getProperty(AI_WEIGHTS_PROPERTY);
+    if (file == null) {
+      return EvaluationWeights.DEFAULT;
+    }
+    try {
+      final EvaluationWeights weights = EvaluationWeights.load(Paths.get(file));
+      LOG.config(String.format("Evaluation weights '%s': %s", file, weights));
+      return weights;
+    } catch (IOException e) {
+      LOG.warning(String.format("Bad '%s' value, '%s'; %s", AI_WEIGHTS_PROPERTY, file, e.getMessage()));
+      return EvaluationWeights.DEFAULT;
+    }
+  }
+
+  private static final String AI_WEIGHTS_PROPERTY = "aiWeights";
+
+  /**
+   * The explicit, private lookup of a positive whole number property.
+   */
+  private static int positiveIntProperty(final String property, final int defaultValue) {
+    return intProperty(property, defaultValue, 1);
+  }
+
+  /**
+   * The explicit, private lookup of a whole number property that may be 0.
+   */
+  private static int nonNegativeIntProperty(final String property, final int defaultValue) {
+    return intProperty(property, defaultValue, 0);
+  }
+
+  private static int intProperty(final String property, final int defaultValue, final int minimum) {
+    final String valueStr = System.getProperty(property);
+    if (valueStr == null) {
+      return defaultValue;
+    }
+    try {
+      final int value = Integer.parseInt(valueStr.trim());
+      if (value >= minimum) {
+        return value;
+      }
+    } catch (NumberFormatException e) {
+      // fall through to the warning
+    }
+    LOG.warning(String.format("Bad '%s' value, '%s'; must be a whole number of at least %d.",
+        property, valueStr, minimum));
+    return defaultValue;
+  }
+
   //
   // Application Launch method
   //
@@ -95,8 +353,21 @@ public final class Application {
     // response to Ajax requests.
     final Gson gson = new Gson();
 
+    // The game center shares one transposition table, one pool of helper
+    // threads, the evaluation weights, the opening book and the endgame
+    // tablebase (if any) between every AI player's search, and plays AI
+    // turns on their own threads instead of the web server's; all are sized
+    // at startup.
+    final TranspositionTable transpositionTable = new TranspositionTable(getAITableSizeMb());
+    final SearchPool searchPool = new SearchPool(transpositionTable,
+        getAIHelperThreads(), getAIMaxHelperThreads(), getAIOpeningBook(), getAITablebase(),
+        new DefaultEvaluator(getAIWeights()));
+    final AITurnExecutor aiTurnExecutor = new AITurnExecutor(getAIThreads(), getAIQueueSize(),
+        getAIBudgetMillis(), AITurnExecutor.MILLIS_PER_MOVE, getAIPonderThreads(), getAILevelWeights());
+    final GameCenter gameCenter = new GameCenter(searchPool, aiTurnExecutor, getAIEngines());
+
     // inject the game center and freemarker engine into web server
-    final WebServer webServer = new WebServer(templateEngine, gson);
+    final WebServer webServer = new WebServer(templateEngine, gson, gameCenter);
 
     // inject web server into application
     final Application app = new Application(webServer);
@@ -0,0 +1,615 @@
+package com.webcheckers.appl;
+
+import com.webcheckers.engine.SearchLimits;
+import com.webcheckers.engine.SearchPool;
+import com.webcheckers.engine.SearchResult;
+import com.webcheckers.engine.Strength;
+import com.webcheckers.model.AIPlayer;
+import com.webcheckers.model.Board;
+import com.webcheckers.model.CheckersGame;
+import com.webcheckers.model.Move;
+import com.webcheckers.model.Player;
+import com.webcheckers.model.Turn;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Plays AI Players' Turns in the background, so no web request ever waits
+ * on an AI. A Turn is searched on one of a fixed number of AI threads,
+ * with a bounded queue of games waiting for a thread. The chosen Move is
+ * then made and submitted by a timer once the AI has "thought" for 800ms
+ * per Move it could have made, counting the time spent searching. The
+ * human Player's page finds the new Turn through /checkTurn.
+ *
+ * Waiting games are served by weighted fair queuing: each game is charged
+ * the CPU time its searches used, helper threads included, divided by its
+ * weight, and the game charged least goes next. A game that searches long Turns can't hold
+ * back games that search short ones. A game's weight comes from its AI
+ * Player's Strength, so a server can give the levels different shares.
+ *
+ * Each search gets the limits of its AI Player's Strength, with its time
+ * capped by the configured CPU budget per Move, while there is a thread
+ * for every waiting game. Once games queue up, every search gets a share
+ * of that time and a shallower depth limit, so all games slow down a
+ * little instead of the queue growing. With the queue half full,
+ * new AI games are refused (see {@link #acceptsNewGames()}).
+ *
+ * Optional ponder threads use idle cores during the human's Turn: they
+ * search the positions the human's likely replies lead to, filling the
+ * transposition table, so a predicted reply gets an almost instant answer.
+ * Pondering only starts while no AI Turn is waiting or being searched,
+ * and every ponder search is stopped the moment one is requested.
+ *
+ * Each game has at most one AI Turn requested at a time; asking again
+ * while one is pending does nothing.
+ *
+ * A game is only read or changed holding its lock, here as in the routes,
+ * and the game's lock is taken before this executor's. The search itself
+ * runs on a copy of the Board without the lock, so the human's page is
+ * never held up by it.
+ *
+ * @authors
+ *      Summer DiStefano
+ *      Frank Abbey
+ *      Raisa Hossain
+ *      Stephen Bosonac
+ *
+ * @version 5/7/2020
+ *
+ */
+public class AITurnExecutor {
+
+    private static final Logger LOG = Logger.getLogger(AITurnExecutor.class.getName());
+
+    /** How long an AI appears to think for each Move it could make */
+    public static final long MILLIS_PER_MOVE = 800;
+
+    /** Defaults used by a GameCenter that isn't given an executor */
+    public static final int DEFAULT_THREADS = 1;
+    public static final int DEFAULT_QUEUE_SIZE = 64;
+    public static final long DEFAULT_BUDGET_MILLIS = Strength.STRONG.getLimits().getMaxMillis();
+
+    /** Weight of a game unless told otherwise */
+    public static final double DEFAULT_WEIGHT = 1.0;
+
+    /** Each predicted reply is pondered for this many per-move budgets */
+    static final int PONDER_BUDGETS = 4;
+
+    /** Limits a search is never cut below, however loaded the server is */
+    static final long MIN_BUDGET_MILLIS = 10;
+    static final int MIN_DEPTH = 4;
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final int threads;
+    private final int queueSize;
+    private final long budgetMillis;
+    private final long millisPerMove;
+    private final Map<Strength, Double> levelWeights;
+    private final ThreadPoolExecutor thinkers;
+    private final ScheduledExecutorService timer;
+    private final ThreadPoolExecutor ponderers;
+
+    /** Stop flags of the ponder searches running now */
+    private final Set<AtomicBoolean> pondering = Collections.synchronizedSet(
+            Collections.newSetFromMap(new IdentityHashMap<>()));
+
+    /**
+     * Every game this executor has played for, by identity since every
+     * CheckersGame equals every other one. Guarded by this.
+     */
+    private final Map<CheckersGame, Share> shares = new IdentityHashMap<>();
+
+    /** AI Turns played, and how many came from the opening book or tablebase */
+    private final AtomicLong turnsPlayed = new AtomicLong();
+    private final AtomicLong bookMoves = new AtomicLong();
+    private final AtomicLong tablebaseMoves = new AtomicLong();
+
+    /** Virtual time: the charge of the Turn last given a thread. Guarded by this. */
+    private double virtualTime;
+    private long sequence;
+
+    /**
+     * A game's place in the fair queue
+     */
+    private static class Share {
+        private final double weight;
+        /** CPU nanoseconds used so far, divided by the weight */
+        private double charged;
+        private boolean pending;
+
+        Share(double weight, double charged) {
+            this.weight = weight;
+            this.charged = charged;
+        }
+    }
+
+    /**
+     * Create a new AITurnExecutor with the usual search budget and
+     * thinking delay
+     *
+     * @param threads - AI Turns searched at once
+     * @param queueSize - AI Turns that may wait for a thread
+     */
+    public AITurnExecutor(int threads, int queueSize) {
+        this(threads, queueSize, DEFAULT_BUDGET_MILLIS, MILLIS_PER_MOVE, 0);
+    }
+
+    /**
+     * Create a new AITurnExecutor
+     *
+     * @param threads - AI Turns searched at once
+     * @param queueSize - AI Turns that may wait for a thread
+     * @param budgetMillis - most CPU time a search may use per Move, at
+     *                       any Strength
+     * @param millisPerMove - thinking delay per Move available, 0 for none
+     * @param ponderThreads - threads that ponder during humans' Turns, 0 for none
+     */
+    public AITurnExecutor(int threads, int queueSize, long budgetMillis, long millisPerMove,
+                          int ponderThreads) {
+        this(threads, queueSize, budgetMillis, millisPerMove, ponderThreads, new EnumMap<>(Strength.class));
+    }
+
+    /**
+     * Create a new AITurnExecutor that gives games at some Strengths a
+     * bigger or smaller share of AI time
+     *
+     * @param threads - AI Turns searched at once
+     * @param queueSize - AI Turns that may wait for a thread
+     * @param budgetMillis - most CPU time a search may use per Move, at
+     *                       any Strength
+     * @param millisPerMove - thinking delay per Move available, 0 for none
+     * @param ponderThreads - threads that ponder during humans' Turns, 0 for none
+     * @param levelWeights - weight of a game at each Strength; a Strength
+     *                       left out gets DEFAULT_WEIGHT
+     */
+    public AITurnExecutor(int threads, int queueSize, long budgetMillis, long millisPerMove,
+                          int ponderThreads, Map<Strength, Double> levelWeights) {
+        if(threads < 1 || queueSize < 1)
+            throw new IllegalArgumentException("AI threads and queue size must be positive");
+        if(budgetMillis < 1)
+            throw new IllegalArgumentException("AI search budget must be positive");
+        if(millisPerMove < 0)
+            throw new IllegalArgumentException("AI thinking delay must not be negative");
+        if(ponderThreads < 0)
+            throw new IllegalArgumentException("Ponder threads must not be negative");
+        for(Map.Entry<Strength, Double> level : levelWeights.entrySet()) {
+            if(!(level.getValue() > 0))
+                throw new IllegalArgumentException("Weight of " + level.getKey() + " must be positive: "
+                        + level.getValue());
+        }
+        this.threads = threads;
+        this.queueSize = queueSize;
+        this.budgetMillis = budgetMillis;
+        this.millisPerMove = millisPerMove;
+        this.levelWeights = new EnumMap<>(Strength.class);
+        this.levelWeights.putAll(levelWeights);
+        this.thinkers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(), daemonThreads("ai-turn"));
+        this.timer = Executors.newSingleThreadScheduledExecutor(daemonThreads("ai-timer", Thread.NORM_PRIORITY));
+        //one human Turn per game is pondered at a time, so the queue stays short
+        this.ponderers = ponderThreads == 0 ? null : new ThreadPoolExecutor(ponderThreads, ponderThreads,
+                0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), daemonThreads("ai-ponder", Thread.MIN_PRIORITY));
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        return daemonThreads(name, Thread.NORM_PRIORITY);
+    }
+
+    private static ThreadFactory daemonThreads(String name, int priority) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(priority);
+            return thread;
+        };
+    }
+
+    /**
+     * Have the active AI Player of a game take its Turn, unless the game
+     * is over, it is a human's Turn, or the AI's Turn is already pending.
+     * The game's weight is the one set for the AI Player's Strength.
+     * Returns at once.
+     *
+     * @param game - the game
+     * @return boolean - true: the AI's Turn is pending
+     *                   false: there is nothing to play, or the queue is
+     *                          full and the Turn should be asked for again
+     */
+    public boolean requestTurn(CheckersGame game) {
+        synchronized(game) {
+            Player player = game.getTurn().getPlayer();
+            double weight = player instanceof AIPlayer
+                    ? getWeight(((AIPlayer) player).getStrength()) : DEFAULT_WEIGHT;
+            return requestTurn(game, weight);
+        }
+    }
+
+    /**
+     * Have the active AI Player of a game take its Turn, with the game's
+     * share of AI time set by a weight the first time it is seen
+     *
+     * @param game - the game
+     * @param weight - share of AI time relative to other games; a game
+     *                 with weight 2 gets twice the time of one with 1
+     * @return boolean - true: the AI's Turn is pending
+     *                   false: there is nothing to play, or the queue is
+     *                          full and the Turn should be asked for again
+     */
+    public boolean requestTurn(CheckersGame game, double weight) {
+        if(!(weight > 0))
+            throw new IllegalArgumentException("Game weight must be positive: " + weight);
+        //the game's lock is always taken before this executor's
+        synchronized(game) {
+            synchronized(this) {
+                return startTurn(game, weight);
+            }
+        }
+    }
+
+    private boolean startTurn(CheckersGame game, double weight) {
+        if(game.isOver() || !(game.getTurn().getPlayer() instanceof AIPlayer))
+            return false;
+
+        Share share = shares.get(game);
+        if(share != null && share.pending)
+            return true;
+        if(thinkers.getQueue().size() >= queueSize) {
+            LOG.warning("AI queue full; turn of " + game.getTurn().getPlayer().getName() + " not started");
+            return false;
+        }
+        if(share == null) {
+            //a new game starts level with the others instead of ahead of them
+            share = new Share(weight, virtualTime);
+            shares.put(game, share);
+        }
+
+        //a game idle for a while doesn't get to catch up on the time it missed
+        share.charged = Math.max(share.charged, virtualTime);
+        share.pending = true;
+        stopPondering();
+        try {
+            thinkers.execute(new TurnTask(game, game.getTurn(), share, sequence++));
+            return true;
+        } catch (RejectedExecutionException e) {
+            share.pending = false;
+            return false;
+        }
+    }
+
+    /**
+     * Retrieve the weight of a game at a Strength
+     *
+     * @param strength
+     * @return double - its share of AI time relative to other games
+     */
+    public double getWeight(Strength strength) {
+        return levelWeights.getOrDefault(strength, DEFAULT_WEIGHT);
+    }
+
+    /**
+     * Determine if a game's AI Turn is pending
+     *
+     * @param game
+     * @return boolean
+     */
+    public synchronized boolean isPending(CheckersGame game) {
+        Share share = shares.get(game);
+        return share != null && share.pending;
+    }
+
+    /**
+     * Determine if there is room for another AI game: false once the
+     * queue of waiting Turns is half full
+     *
+     * @return boolean
+     */
+    public boolean acceptsNewGames() {
+        return thinkers.getQueue().size() < (queueSize + 1) / 2;
+    }
+
+    /**
+     * Stop keeping a game's share of AI time, once it is over or removed,
+     * and stop any search still running for it
+     *
+     * @param game
+     */
+    public synchronized void forget(CheckersGame game) {
+        //the search's Move would be thrown away by play() anyway
+        for(Player player : new Player[] { game.getRedPlayer(), game.getWhitePlayer() }) {
+            if(player instanceof AIPlayer)
+                ((AIPlayer) player).stopThinking();
+        }
+        Share share = shares.get(game);
+        if(share != null && !share.pending)
+            shares.remove(game);
+    }
+
+    /**
+     * Work out the limits of the next search from a Strength's limits and
+     * how many Turns are waiting: the Strength's limits, time capped by
+     * the budget, if every Turn has a thread, and otherwise each search's
+     * share of the threads' time, down to a floor. The depth and node
+     * limits shrink by the same fraction.
+     *
+     * @param level - the limits of the AI Player's Strength
+     * @return SearchLimits
+     */
+    SearchLimits currentLimits(SearchLimits level) {
+        long millis = cappedMillis(level);
+        int waiting = thinkers.getQueue().size();
+        double fraction = threads / (double) (threads + waiting);
+        if(fraction >= 1)
+            return new SearchLimits(level.getMaxDepth(), level.getMaxNodes(), millis);
+
+        millis = Math.min(millis, Math.max(MIN_BUDGET_MILLIS, (long) (millis * fraction)));
+        int depth = Math.max(Math.min(MIN_DEPTH, level.getMaxDepth()),
+                (int) Math.ceil(level.getMaxDepth() * fraction));
+        long nodes = level.getMaxNodes() == 0 ? 0 : Math.max(1, (long) (level.getMaxNodes() * fraction));
+        return new SearchLimits(depth, nodes, millis);
+    }
+
+    /**
+     * A Strength's time limit, capped by the budget
+     */
+    private long cappedMillis(SearchLimits level) {
+        return level.getMaxMillis() == 0 ? budgetMillis : Math.min(level.getMaxMillis(), budgetMillis);
+    }
+
+    /**
+     * One AI Turn waiting in the fair queue, ordered by its game's charge
+     */
+    private class TurnTask implements Runnable, Comparable<TurnTask> {
+
+        private final CheckersGame game;
+        private final Turn turn;
+        private final Share share;
+        private final double charged;
+        private final long order;
+
+        TurnTask(CheckersGame game, Turn turn, Share share, long order) {
+            this.game = game;
+            this.turn = turn;
+            this.share = share;
+            this.charged = share.charged;
+            this.order = order;
+        }
+
+        @Override
+        public int compareTo(TurnTask other) {
+            int byCharge = Double.compare(charged, other.charged);
+            return byCharge != 0 ? byCharge : Long.compare(order, other.order);
+        }
+
+        @Override
+        public void run() {
+            synchronized(AITurnExecutor.this) {
+                virtualTime = Math.max(virtualTime, charged);
+            }
+            stopPondering();
+            think(this);
+        }
+    }
+
+    /**
+     * Search the AI's Turn, charge the game for it and schedule its Moves
+     */
+    private void think(TurnTask task) {
+        CheckersGame game = task.game;
+        Turn turn = task.turn;
+        long start = System.nanoTime();
+        long cpuStart = cpuTime();
+        try {
+            AIPlayer player = (AIPlayer) turn.getPlayer();
+            Board position;
+            synchronized(game) {
+                if(game.getTurn() != turn || game.isOver()) {
+                    done(game, task.share);
+                    return;
+                }
+                position = turn.getCurrentBoard().copyBoard();
+            }
+
+            //the search runs on the copy, so pages can be shown meanwhile;
+            //play() checks the game still wants the Moves
+            SearchLimits limits = currentLimits(player.getStrength().getLimits());
+            List<Move> hops = player.chooseMove(position, turn.getPlayerColor(), limits);
+            long delay = millisPerMove * player.countMoves(position, turn.getPlayerColor());
+            SearchResult result = player.getLastSearch();
+            turnsPlayed.incrementAndGet();
+            if(result != null && result.isBookMove()) {
+                bookMoves.incrementAndGet();
+                LOG.finer(player.getName() + " played from the opening book");
+            }
+            else if(result != null && result.isTablebaseMove()) {
+                tablebaseMoves.incrementAndGet();
+                LOG.finer(player.getName() + " played from the endgame tablebase");
+            }
+            else
+                LOG.finer(player.getName() + " searched within " + limits);
+            charge(task.share, cpuTime() - cpuStart);
+
+            //the time spent searching counts as thinking time
+            delay -= TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            timer.schedule(() -> play(game, turn, hops, task.share), Math.max(0, delay), TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            done(game, task.share);
+            LOG.log(Level.WARNING, "AI turn failed", e);
+        }
+    }
+
+    /**
+     * Make and submit the AI's Moves, if the game is still waiting on them
+     */
+    private void play(CheckersGame game, Turn turn, List<Move> hops, Share share) {
+        try {
+            synchronized(game) {
+                if(game.getTurn() != turn || game.isOver())
+                    return;
+                for(Move hop : hops)
+                    turn.makeMove(hop);
+                game.submitTurn();
+                startPondering(game, (AIPlayer) turn.getPlayer());
+            }
+        } catch (RuntimeException e) {
+            LOG.log(Level.WARNING, "AI turn failed", e);
+        } finally {
+            //done after the Turn is submitted, so a page that asks about
+            //this game next sees the new Turn
+            done(game, share);
+        }
+    }
+
+    /**
+     * Ponder the human's Turn that has just begun, if there are ponder
+     * threads. Called holding the game's lock.
+     */
+    private void startPondering(CheckersGame game, AIPlayer player) {
+        if(ponderers == null || game.isOver())
+            return;
+        Turn humanTurn = game.getTurn();
+        Board position = humanTurn.getCurrentBoard().copyBoard();
+        position.setActiveColor(humanTurn.getPlayerColor());
+        try {
+            ponderers.execute(() -> ponder(game, humanTurn, player, position));
+        } catch (RejectedExecutionException e) {
+            //shut down; the AI just answers without pondering
+        }
+    }
+
+    /**
+     * Body of a ponder task; does nothing if AI Turns are waiting or being
+     * searched, or the human has already moved
+     */
+    private void ponder(CheckersGame game, Turn humanTurn, AIPlayer player, Board position) {
+        AtomicBoolean stop = new AtomicBoolean();
+        pondering.add(stop);
+        try {
+            //checked after registering, so a Turn requested from here on stops us
+            if(foregroundBusy() || game.getTurn() != humanTurn)
+                return;
+            SearchLimits level = player.getStrength().getLimits();
+            SearchLimits limits = new SearchLimits(level.getMaxDepth(), 0, cappedMillis(level) * PONDER_BUDGETS);
+            int pondered = player.ponder(position, limits, stop);
+            LOG.finer(player.getName() + " pondered " + pondered + " replies");
+        } catch (RuntimeException e) {
+            LOG.log(Level.WARNING, "AI pondering failed", e);
+        } finally {
+            pondering.remove(stop);
+        }
+    }
+
+    /**
+     * Determine if any AI Turn is waiting or being searched
+     */
+    private boolean foregroundBusy() {
+        return thinkers.getActiveCount() > 0 || !thinkers.getQueue().isEmpty();
+    }
+
+    /**
+     * Stop every ponder search, to give its core to an AI Turn
+     */
+    private void stopPondering() {
+        if(ponderers == null)
+            return;
+        List<AtomicBoolean> running;
+        synchronized(pondering) {
+            running = new ArrayList<>(pondering);
+        }
+        for(AtomicBoolean stop : running)
+            stop.set(true);
+    }
+
+    /**
+     * Determine if any ponder search is running
+     *
+     * @return boolean
+     */
+    public boolean isPondering() {
+        return !pondering.isEmpty();
+    }
+
+    /**
+     * Retrieve the number of AI Turns played
+     *
+     * @return long
+     */
+    public long getTurnsPlayed() {
+        return turnsPlayed.get();
+    }
+
+    /**
+     * Retrieve the number of AI Turns played from the opening book,
+     * without a search
+     *
+     * @return long
+     */
+    public long getBookMoves() {
+        return bookMoves.get();
+    }
+
+    /**
+     * Retrieve the number of AI Turns played from the endgame tablebase,
+     * without a search
+     *
+     * @return long
+     */
+    public long getTablebaseMoves() {
+        return tablebaseMoves.get();
+    }
+
+    private synchronized void charge(Share share, long cpuNanos) {
+        share.charged += cpuNanos / share.weight;
+    }
+
+    private synchronized void done(CheckersGame game, Share share) {
+        share.pending = false;
+        if(game.isOver())
+            shares.remove(game);
+    }
+
+    /**
+     * CPU time used by the calling thread and by the helper threads of its
+     * searches, or wall-clock time where the JVM can't measure it
+     */
+    private static long cpuTime() {
+        long helpers = SearchPool.getHelperCpuNanos();
+        if(THREADS.isCurrentThreadCpuTimeSupported())
+            return THREADS.getCurrentThreadCpuTime() + helpers;
+        return System.nanoTime() + helpers;
+    }
+
+    /**
+     * Stop the AI threads; pending Turns are dropped
+     */
+    public void shutdown() {
+        stopPondering();
+        thinkers.shutdownNow();
+        timer.shutdownNow();
+        if(ponderers != null)
+            ponderers.shutdownNow();
+    }
+
+}
@@ -1,11 +1,18 @@
 package com.webcheckers.appl;
 
+import com.webcheckers.engine.Engine;
+import com.webcheckers.engine.SearchPool;
+import com.webcheckers.engine.Strength;
+import com.webcheckers.engine.TranspositionTable;
 import com.webcheckers.model.CheckersGame;
 import com.webcheckers.model.Player;
 import com.webcheckers.model.Turn;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * GameCenter used to keep track of all current CheckersGames
@@ -23,11 +30,106 @@ public class GameCenter {
 
     private List<CheckersGame> gameList;
 
+    /** Transposition table and helper threads shared by every AI Player's search */
+    private final SearchPool searchPool;
+
+    /** Threads that play AI Players' Turns */
+    private final AITurnExecutor aiTurnExecutor;
+
+    /** Engine that plays each Strength, where it isn't the Strength's own */
+    private final Map<Strength, Engine> aiEngines;
+
     /**
-     * Create a new GameCenter
+     * Create a new GameCenter with a default sized transposition table,
+     * no helper threads, and one AI thread
      */
     public GameCenter() {
+        this(new SearchPool(new TranspositionTable(TranspositionTable.DEFAULT_SIZE_MB)));
+    }
+
+    /**
+     * Create a new GameCenter with one AI thread
+     *
+     * @param searchPool - the table and threads shared by all AI searches
+     */
+    public GameCenter(SearchPool searchPool) {
+        this(searchPool, new AITurnExecutor(AITurnExecutor.DEFAULT_THREADS, AITurnExecutor.DEFAULT_QUEUE_SIZE));
+    }
+
+    /**
+     * Create a new GameCenter
+     *
+     * @param searchPool - the table and threads shared by all AI searches
+     * @param aiTurnExecutor - the threads that play AI Turns
+     */
+    public GameCenter(SearchPool searchPool, AITurnExecutor aiTurnExecutor) {
+        this(searchPool, aiTurnExecutor, Collections.emptyMap());
+    }
+
+    /**
+     * Create a new GameCenter whose AI Players at some Strengths play
+     * with another engine than the Strength's own
+     *
+     * @param searchPool - the table and threads shared by all AI searches
+     * @param aiTurnExecutor - the threads that play AI Turns
+     * @param aiEngines - the engine of each Strength to change; the others
+     *                    keep their own
+     */
+    public GameCenter(SearchPool searchPool, AITurnExecutor aiTurnExecutor, Map<Strength, Engine> aiEngines) {
         this.gameList = new ArrayList<>();
+        this.searchPool = searchPool;
+        this.aiTurnExecutor = aiTurnExecutor;
+        this.aiEngines = new EnumMap<>(Strength.class);
+        this.aiEngines.putAll(aiEngines);
+    }
+
+    /**
+     * Retrieve the table and threads shared by all AI searches
+     *
+     * @return SearchPool
+     */
+    public SearchPool getSearchPool() {
+        return searchPool;
+    }
+
+    /**
+     * Retrieve the engine an AI Player at a Strength plays with
+     *
+     * @param strength
+     * @return Engine - the engine set for the Strength, or the Strength's own
+     */
+    public Engine getAIEngine(Strength strength) {
+        return aiEngines.getOrDefault(strength, strength.getEngine());
+    }
+
+    /**
+     * Retrieve the threads that play AI Turns
+     *
+     * @return AITurnExecutor
+     */
+    public AITurnExecutor getAITurnExecutor() {
+        return aiTurnExecutor;
+    }
+
+    /**
+     * Start the AI Player's Turn in a game, if it is theirs. The Turn is
+     * played in the background; this returns at once.
+     *
+     * @param game
+     * @return boolean - true: the AI's Turn is pending
+     *                   false: it isn't an AI's Turn, or it couldn't be started
+     */
+    public boolean requestAITurn(CheckersGame game) {
+        return aiTurnExecutor.requestTurn(game);
+    }
+
+    /**
+     * Determine if the AI threads have room for another game
+     *
+     * @return boolean - false: the server is too busy to start an AI game
+     */
+    public boolean acceptsAIGames() {
+        return aiTurnExecutor.acceptsNewGames();
     }
 
     /**
@@ -48,6 +150,7 @@ public class GameCenter {
         if(gameList.contains(game)) {
             gameList.remove(game);
         }
+        aiTurnExecutor.forget(game);
     }
 
     /**
@@ -95,7 +198,7 @@ public class GameCenter {
 
     /**
      * Used to resign a Player from a game. Here, we need to remove
-     * the game from the game list
+     * the game from the game list. An AI opponent stops thinking.
      *
      * @param player - the player that is resigning
      * @return boolean - true: success
@@ -103,7 +206,13 @@ public class GameCenter {
      */
     public boolean resignGame(Player player) {
         CheckersGame game = getGame(player);
-        return game.resignGame(player);
+        boolean resigned;
+        synchronized(game) {
+            resigned = game.resignGame(player);
+        }
+        if(resigned)
+            aiTurnExecutor.forget(game);
+        return resigned;
     }
 
     /**
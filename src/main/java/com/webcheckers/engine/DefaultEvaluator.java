@@ -0,0 +1,146 @@
+package com.webcheckers.engine;
+
+import com.webcheckers.model.Board;
+import com.webcheckers.model.Move;
+import com.webcheckers.model.Piece;
+
+/**
+ * The engine's evaluation: material and a bonus for the square of each
+ * Piece (see {@link EvaluationWeights}), plus the Pieces of each side
+ * that can move.
+ *
+ * Material and square bonuses only change with the Pieces a move takes,
+ * moves and crowns, so they are kept as a running total, one per ply,
+ * updated by makeMove and popped by unmakeMove. Only mobility is worked
+ * out at the leaf, and only when it has a weight.
+ *
+ * @authors
+ *      Summer DiStefano
+ *      Frank Abbey
+ *      Raisa Hossain
+ *      Stephen Bosonac
+ *
+ * @version 5/8/2020
+ *
+ */
+public class DefaultEvaluator implements Evaluator {
+
+    private final EvaluationWeights weights;
+
+    /**
+     * Worth of each kind of Piece on each square, from red's side: red
+     * single Pieces, red Kings, white single Pieces, white Kings (see index)
+     */
+    private final int[] values = new int[4 * EvaluationWeights.SQUARES];
+
+    /** Material and square bonuses from red's side, after each ply followed */
+    private final int[] totals = new int[Search.MAX_PLY + 1];
+    private int ply;
+
+    /**
+     * Create a new DefaultEvaluator with the default weights
+     */
+    public DefaultEvaluator() {
+        this(EvaluationWeights.DEFAULT);
+    }
+
+    /**
+     * Create a new DefaultEvaluator
+     *
+     * @param weights
+     */
+    public DefaultEvaluator(EvaluationWeights weights) {
+        this.weights = weights;
+        for(int square = 0; square < EvaluationWeights.SQUARES; square++) {
+            int man = weights.getMan() + weights.getManSquare(square);
+            int king = weights.getKing() + weights.getKingSquare(square);
+            values[index(true, false, square)] = man;
+            values[index(true, true, square)] = king;
+            values[index(false, false, 31 - square)] = -man;
+            values[index(false, true, 31 - square)] = -king;
+        }
+    }
+
+    public EvaluationWeights getWeights() {
+        return weights;
+    }
+
+    private static int index(boolean isRed, boolean isKing, int square) {
+        return (isRed ? 0 : 64) + (isKing ? 32 : 0) + square;
+    }
+
+    /**
+     * Add up the material and square bonuses of a position from scratch
+     *
+     * @param board
+     * @return int - the total from red's side
+     */
+    public int total(Board board) {
+        int red = board.piecesOf(Piece.PieceColor.RED);
+        int white = board.piecesOf(Piece.PieceColor.WHITE);
+        int kingMask = board.getKings();
+        int total = 0;
+        for(int pieces = red | white; pieces != 0; pieces &= pieces - 1) {
+            int square = Integer.numberOfTrailingZeros(pieces);
+            total += values[index((red & (1 << square)) != 0, (kingMask & (1 << square)) != 0, square)];
+        }
+        return total;
+    }
+
+    @Override
+    public void reset(Board board) {
+        ply = 0;
+        totals[0] = total(board);
+    }
+
+    @Override
+    public void makeMove(Board board, int move, int captured) {
+        if(ply == Search.MAX_PLY)
+            throw new IllegalStateException("Followed more than " + Search.MAX_PLY + " plies");
+        int from = Move.startSquare(move);
+        int kingMask = board.getKings();
+        boolean isRed = (board.piecesOf(Piece.PieceColor.RED) & (1 << from)) != 0;
+        boolean isKing = (kingMask & (1 << from)) != 0;
+
+        int change = values[index(isRed, isKing || Move.isPromotion(move), Move.endSquare(move))]
+                - values[index(isRed, isKing, from)];
+        for(; captured != 0; captured &= captured - 1) {
+            int square = Integer.numberOfTrailingZeros(captured);
+            change -= values[index(!isRed, (kingMask & (1 << square)) != 0, square)];
+        }
+        totals[ply + 1] = totals[ply] + change;
+        ply++;
+    }
+
+    @Override
+    public void unmakeMove() {
+        if(ply == 0)
+            throw new IllegalStateException("No move to take back");
+        ply--;
+    }
+
+    @Override
+    public int evaluate(Board board, Piece.PieceColor side) {
+        int score = totals[ply];
+        if(weights.getMobility() != 0)
+            score += weights.getMobility() * (Integer.bitCount(board.movers(Piece.PieceColor.RED))
+                    - Integer.bitCount(board.movers(Piece.PieceColor.WHITE)));
+        return side == Piece.PieceColor.RED ? score : -score;
+    }
+
+    @Override
+    public Evaluator copy() {
+        return new DefaultEvaluator(weights);
+    }
+
+    /**
+     * ToString method
+     *
+     * @return - the weights
+     */
+    @Override
+    public String toString() {
+        return "DefaultEvaluator{" + weights + "}";
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.webcheckers.engine;
+
+/**
+ * The kinds of search an AI Player can choose its Moves with.
+ *
+ * @authors
+ *      Summer DiStefano
+ *      Frank Abbey
+ *      Raisa Hossain
+ *      Stephen Bosonac
+ *
+ * @version 5/10/2020
+ *
+ */
+public enum Engine {
+
+    /** Iterative deepening alpha-beta on every core (see ParallelSearch) */
+    ALPHA_BETA,
+
+    /** Monte Carlo tree search on every core (see MonteCarloSearch) */
+    MONTE_CARLO;
+
+    /** Short name of MONTE_CARLO, as SelfPlay's settings write it */
+    private static final String MONTE_CARLO_SHORT_NAME = "mcts";
+
+    /**
+     * Find the engine with a name, ignoring case
+     *
+     * @param name - the engine's name, like "alpha_beta", or "mcts" for
+     *               MONTE_CARLO
+     * @return Engine - the engine, or null if the name is null or isn't
+     *                  an engine
+     */
+    public static Engine fromName(String name) {
+        if(name == null)
+            return null;
+        if(name.trim().equalsIgnoreCase(MONTE_CARLO_SHORT_NAME))
+            return MONTE_CARLO;
+        for(Engine engine : values()) {
+            if(engine.name().equalsIgnoreCase(name.trim()))
+                return engine;
+        }
+        return null;
+    }
+
+    /**
+     * Create a search of this kind
+     *
+     * @param searchPool - the shared table, threads and evaluation
+     * @return MoveSearch
+     */
+    public MoveSearch create(SearchPool searchPool) {
+        return this == MONTE_CARLO ? new MonteCarloSearch(searchPool) : new ParallelSearch(searchPool);
+    }
+
+}
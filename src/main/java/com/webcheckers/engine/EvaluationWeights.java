@@ -0,0 +1,267 @@
+package com.webcheckers.engine;
+
+import com.webcheckers.model.Bitboards;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Properties;
+
+/**
+ * The weights of the {@link DefaultEvaluator}: what a single Piece and a
+ * King are worth, a bonus for each square of the board for each, and
+ * what each Piece able to move is worth.
+ *
+ * Square bonuses are given from red's side: the first of the 32 is red's
+ * back row corner (square 1 in checkers notation) and white's bonuses
+ * are red's turned half a turn.
+ *
+ * Weights are read from a properties file, so they can be tuned without
+ * changing the code:
+ *   man=100
+ *   king=150
+ *   mobility=0
+ *   man.squares=8 8 8 8 0 0 0 0 0 4 4 0 ... (32 numbers)
+ *   king.squares=0 0 0 0 0 0 0 0 0 4 4 0 ...
+ * Weights a file leaves out keep their {@link #DEFAULT} values.
+ *
+ * EvaluationWeights are immutable.
+ *
+ * @authors
+ *      Summer DiStefano
+ *      Frank Abbey
+ *      Raisa Hossain
+ *      Stephen Bosonac
+ *
+ * @version 5/9/2020
+ *
+ */
+public class EvaluationWeights {
+
+    public static final int SQUARES = 32;
+
+    /**
+     * Number of weights, in the order of toArray(): man, king, mobility,
+     * the single Piece square bonuses, the King square bonuses
+     */
+    static final int COUNT = 3 + 2 * SQUARES;
+
+    /** Bonuses of the default weights */
+    private static final int BACK_ROW_VALUE = 8;
+    private static final int CENTER_VALUE = 4;
+
+    /** The eight squares in the middle of rows 2-5 */
+    private static final int CENTER = 0x00666600;
+
+    /** Weights the engine plays with unless told otherwise */
+    public static final EvaluationWeights DEFAULT = new EvaluationWeights(100, 150, 0,
+            squares(Bitboards.WHITE_KING_ROW, BACK_ROW_VALUE, CENTER, CENTER_VALUE),
+            squares(0, 0, CENTER, CENTER_VALUE));
+
+    private final int man;
+    private final int king;
+    private final int mobility;
+    private final int[] manSquares;
+    private final int[] kingSquares;
+
+    /**
+     * Create new EvaluationWeights
+     *
+     * @param man - worth of a single Piece
+     * @param king - worth of a King
+     * @param mobility - worth of each Piece with a move
+     * @param manSquares - bonus of a single Piece on each square, from red's side
+     * @param kingSquares - bonus of a King on each square, from red's side
+     */
+    public EvaluationWeights(int man, int king, int mobility, int[] manSquares, int[] kingSquares) {
+        if(manSquares.length != SQUARES || kingSquares.length != SQUARES)
+            throw new IllegalArgumentException("Square bonuses must have " + SQUARES + " values");
+        this.man = man;
+        this.king = king;
+        this.mobility = mobility;
+        this.manSquares = manSquares.clone();
+        this.kingSquares = kingSquares.clone();
+    }
+
+    /**
+     * Square bonuses given by two masks
+     */
+    private static int[] squares(int first, int firstValue, int second, int secondValue) {
+        int[] values = new int[SQUARES];
+        for(int square = 0; square < SQUARES; square++) {
+            if((first & (1 << square)) != 0)
+                values[square] += firstValue;
+            if((second & (1 << square)) != 0)
+                values[square] += secondValue;
+        }
+        return values;
+    }
+
+    /**
+     * Read weights from a properties file
+     *
+     * @param file - the file
+     * @return EvaluationWeights
+     * @throws IOException - if the file can't be read or holds a value that
+     *                       isn't a weight
+     */
+    public static EvaluationWeights load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try(Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        try {
+            return new EvaluationWeights(
+                    intValue(properties, "man", DEFAULT.man),
+                    intValue(properties, "king", DEFAULT.king),
+                    intValue(properties, "mobility", DEFAULT.mobility),
+                    squareValues(properties, "man.squares", DEFAULT.manSquares),
+                    squareValues(properties, "king.squares", DEFAULT.kingSquares));
+        } catch(IllegalArgumentException e) {
+            throw new IOException("Bad weights in " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static int intValue(Properties properties, String name, int defaultValue) {
+        String value = properties.getProperty(name);
+        return value == null ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    private static int[] squareValues(Properties properties, String name, int[] defaultValues) {
+        String value = properties.getProperty(name);
+        if(value == null)
+            return defaultValues;
+        String[] fields = value.trim().split("\\s+");
+        if(fields.length != SQUARES)
+            throw new IllegalArgumentException(name + " must have " + SQUARES + " values, not " + fields.length);
+        int[] values = new int[SQUARES];
+        for(int square = 0; square < SQUARES; square++)
+            values[square] = Integer.parseInt(fields[square]);
+        return values;
+    }
+
+    /**
+     * Retrieve every weight, in the order given by COUNT
+     *
+     * @return int[]
+     */
+    int[] toArray() {
+        int[] values = new int[COUNT];
+        values[0] = man;
+        values[1] = king;
+        values[2] = mobility;
+        System.arraycopy(manSquares, 0, values, 3, SQUARES);
+        System.arraycopy(kingSquares, 0, values, 3 + SQUARES, SQUARES);
+        return values;
+    }
+
+    /**
+     * Create weights from an array written by toArray()
+     *
+     * @param values
+     * @return EvaluationWeights
+     */
+    static EvaluationWeights fromArray(int[] values) {
+        if(values.length != COUNT)
+            throw new IllegalArgumentException("Must have " + COUNT + " weights, not " + values.length);
+        return new EvaluationWeights(values[0], values[1], values[2], Arrays.copyOfRange(values, 3, 3 + SQUARES),
+                Arrays.copyOfRange(values, 3 + SQUARES, COUNT));
+    }
+
+    /**
+     * Write these weights as a properties file that load() reads back
+     *
+     * @param file - the file
+     * @throws IOException - if the file can't be written
+     */
+    public void store(Path file) throws IOException {
+        try(Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("# evaluation weights; square bonuses from red's side, square 1 first\n");
+            writer.write("man=" + man + "\n");
+            writer.write("king=" + king + "\n");
+            writer.write("mobility=" + mobility + "\n");
+            writer.write("man.squares=" + join(manSquares) + "\n");
+            writer.write("king.squares=" + join(kingSquares) + "\n");
+        }
+    }
+
+    private static String join(int[] values) {
+        StringBuilder text = new StringBuilder();
+        for(int value : values) {
+            if(text.length() > 0)
+                text.append(' ');
+            text.append(value);
+        }
+        return text.toString();
+    }
+
+    public int getMan() {
+        return man;
+    }
+
+    public int getKing() {
+        return king;
+    }
+
+    public int getMobility() {
+        return mobility;
+    }
+
+    /**
+     * Retrieve the bonus of a single Piece on a square, from red's side
+     *
+     * @param square
+     * @return int
+     */
+    public int getManSquare(int square) {
+        return manSquares[square];
+    }
+
+    /**
+     * Retrieve the bonus of a King on a square, from red's side
+     *
+     * @param square
+     * @return int
+     */
+    public int getKingSquare(int square) {
+        return kingSquares[square];
+    }
+
+    /**
+     * Equals method
+     *
+     * @param o - object to be compared against
+     * @return - true: the weights are the same
+     */
+    @Override
+    public boolean equals(Object o) {
+        if(this == o)
+            return true;
+        if(!(o instanceof EvaluationWeights))
+            return false;
+        EvaluationWeights other = (EvaluationWeights) o;
+        return man == other.man && king == other.king && mobility == other.mobility
+                && Arrays.equals(manSquares, other.manSquares) && Arrays.equals(kingSquares, other.kingSquares);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(man, king, mobility, Arrays.hashCode(manSquares), Arrays.hashCode(kingSquares));
+    }
+
+    /**
+     * ToString method
+     *
+     * @return - the material and mobility weights
+     */
+    @Override
+    public String toString() {
+        return String.format("EvaluationWeights{man=%d, king=%d, mobility=%d}", man, king, mobility);
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.webcheckers.engine;
+
+import com.webcheckers.model.Board;
+import com.webcheckers.model.Piece;
+
+/**
+ * Scores positions at the leaves of a {@link Search}.
+ *
+ * An Evaluator may keep terms of the score up to date as moves are made
+ * and taken back instead of recomputing them at every leaf. The search
+ * calls {@link #reset} with the position at its root, then
+ * {@link #makeMove} before each Board.makeMove and {@link #unmakeMove}
+ * after each Board.unmakeMove, so the Evaluator always follows the
+ * Board it is asked to score.
+ *
+ * An Evaluator belongs to one Search, like the Search's Board; use
+ * {@link #copy()} to get another for another Search.
+ *
+ * @authors
+ *      Summer DiStefano
+ *      Frank Abbey
+ *      Raisa Hossain
+ *      Stephen Bosonac
+ *
+ * @version 5/8/2020
+ *
+ */
+public interface Evaluator {
+
+    /**
+     * Start following a position
+     *
+     * @param board - the position at the root of a search
+     */
+    void reset(Board board);
+
+    /**
+     * Follow a move about to be made
+     *
+     * @param board - the position before the move
+     * @param move - the encoded move
+     * @param captured - mask of the squares it jumps
+     */
+    void makeMove(Board board, int move, int captured);
+
+    /**
+     * Take back the last move followed
+     */
+    void unmakeMove();
+
+    /**
+     * Score the position followed
+     *
+     * @param board - the position, as it is after the moves followed
+     * @param side - the side to score for
+     * @return int - the score, positive when side is better
+     */
+    int evaluate(Board board, Piece.PieceColor side);
+
+    /**
+     * Create another Evaluator with the same weights, following nothing yet
+     *
+     * @return Evaluator
+     */
+    Evaluator copy();
+
+}
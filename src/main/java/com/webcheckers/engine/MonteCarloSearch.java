@@ -0,0 +1,498 @@
+package com.webcheckers.engine;
+
+import com.webcheckers.model.Board;
+import com.webcheckers.model.Move;
+import com.webcheckers.model.MoveList;
+import com.webcheckers.model.Piece;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monte Carlo tree search: the tree grows one position at a time towards
+ * the moves that have done best so far (UCT), each new position is
+ * scored by a short random playout judged by the {@link Evaluator}, and
+ * the move played is the one tried most often.
+ *
+ * Nodes live in parallel arrays rather than one object each: the move
+ * into the node, the Pieces it jumps, where its children start and how
+ * many there are, its visits and the results of those visits. A node's
+ * children are side by side, so the tree is walked without pointers.
+ * The arrays start small and grow up to a fixed number of nodes; once
+ * that is reached the tree stops growing and playouts go on from its
+ * leaves.
+ *
+ * The tree is kept between moves. If the next position searched is one
+ * the tree has already reached (the move it chose and any reply), that
+ * subtree is moved to the front of the same arrays and becomes the tree.
+ *
+ * Playouts run on the calling thread and on whatever helper threads the
+ * {@link SearchPool} can spare. Walking and updating the tree is done
+ * under a lock, playouts outside it. A thread walking down the tree adds
+ * a virtual loss to each node it passes, so threads walking at the same
+ * time spread out over different moves instead of all trying the same one.
+ *
+ * Like ParallelSearch, one MonteCarloSearch belongs to one game at a
+ * time, and {@link #stop()} may be called from any thread.
+ *
+ * @authors
+ *      Summer DiStefano
+ *      Frank Abbey
+ *      Raisa Hossain
+ *      Stephen Bosonac
+ *
+ * @version 5/10/2020
+ *
+ */
+public class MonteCarloSearch implements MoveSearch {
+
+    /** Most nodes the tree holds unless told otherwise */
+    public static final int DEFAULT_MAX_NODES = 1 << 18;
+
+    /** Nodes room is first made for */
+    private static final int INITIAL_NODES = 1 << 12;
+
+    /** Weight of trying moves tried less often, against moves that did well */
+    private static final double EXPLORATION = 0.7;
+
+    /** Random plies of a playout before the evaluation judges it */
+    private static final int PLAYOUT_PLIES = 24;
+
+    /** Steepness of the curve that turns an evaluation into a result (see Tuner.predict) */
+    private static final double PLAYOUT_K = 1.0;
+
+    /** Most a reported score may be, short of the scores of won positions */
+    private static final int MAX_SCORE = 10000;
+
+    private static final int ROOT = 0;
+    private static final int UNEXPANDED = -1;
+
+    private final SearchPool searchPool;
+    private final int maxNodes;
+
+    /** The tree; guarded by this */
+    private int[] moves;
+    private int[] captured;
+    private int[] firstChild;
+    private int[] childCount;
+    private int[] visits;
+    private int[] virtualLosses;
+    /** Results of the visits for the side that made the node's move: 1 a win, 0 a loss */
+    private double[] results;
+    private int size;
+
+    /** Nodes of the subtree being moved to the front by reroot() */
+    private int[] order;
+
+    /** Moves of the root when it is expanded outside a playout */
+    private final MoveList rootMoves = new MoveList();
+
+    /** The position at the root of the tree, or null if there is no tree */
+    private Board rootBoard;
+
+    /** Stop flag of the running search, shared with its helpers */
+    private volatile AtomicBoolean running = new AtomicBoolean();
+
+    /** Set by stop(); a search takes it when it starts and clears it when it ends */
+    private final AtomicBoolean stopRequested = new AtomicBoolean();
+
+    /**
+     * Create a new MonteCarloSearch
+     *
+     * @param searchPool - where helper threads and the evaluation come from
+     */
+    public MonteCarloSearch(SearchPool searchPool) {
+        this(searchPool, DEFAULT_MAX_NODES);
+    }
+
+    /**
+     * Create a new MonteCarloSearch with a given tree size
+     *
+     * @param searchPool - where helper threads and the evaluation come from
+     * @param maxNodes - most nodes the tree may hold
+     */
+    public MonteCarloSearch(SearchPool searchPool, int maxNodes) {
+        if(maxNodes < 2)
+            throw new IllegalArgumentException("Tree must hold at least two nodes: " + maxNodes);
+        this.searchPool = searchPool;
+        this.maxNodes = maxNodes;
+        allocate(Math.min(INITIAL_NODES, maxNodes));
+    }
+
+    private void allocate(int capacity) {
+        moves = new int[capacity];
+        captured = new int[capacity];
+        firstChild = new int[capacity];
+        childCount = new int[capacity];
+        visits = new int[capacity];
+        virtualLosses = new int[capacity];
+        results = new double[capacity];
+        order = new int[capacity];
+    }
+
+    /**
+     * Search a position. The search stops when the time or node budget is
+     * spent (nodes here are the positions the tree and the playouts pass
+     * through), or when stop() is called. The depth limit is not used.
+     *
+     * @param position - the position to search; it is copied, never changed
+     * @param limits - node and time budget
+     * @return SearchResult - the move tried most often
+     */
+    @Override
+    public SearchResult search(final Board position, final SearchLimits limits) {
+        try {
+            return run(position, limits);
+        } finally {
+            //a stop() meant for this search must not stop the next one
+            stopRequested.set(false);
+        }
+    }
+
+    private SearchResult run(Board position, SearchLimits limits) {
+        long start = System.nanoTime();
+        final AtomicBoolean stop = new AtomicBoolean();
+        running = stop;
+        //a stop() that came before the search started is kept, not lost
+        if(stopRequested.get())
+            stop.set(true);
+        final Board root = position.copyBoard();
+
+        synchronized(this) {
+            if(!reuse(root))
+                clear(root);
+            if(firstChild[ROOT] == UNEXPANDED)
+                expand(ROOT, root, rootMoves);
+            if(childCount[ROOT] == 0)
+                return new SearchResult(Move.NONE, -Search.WIN, 0, 0, elapsedMillis(start), new int[0]);
+            //nothing to choose between
+            if(childCount[ROOT] == 1)
+                return result(0, start);
+        }
+
+        final long deadline = limits.getMaxMillis() > 0 ? start + limits.getMaxMillis() * 1000000L : 0;
+        final long nodeLimit = limits.getMaxNodes();
+        final AtomicLong nodes = new AtomicLong();
+
+        searchPool.runWithHelpers(helperIndex -> {
+            playouts(root, deadline, nodeLimit, nodes, stop);
+            return null;
+        }, () -> playouts(root, deadline, nodeLimit, nodes, stop), stop);
+
+        synchronized(this) {
+            return result(nodes.get(), start);
+        }
+    }
+
+    /**
+     * Make a position already in the tree its root: the root itself, a
+     * child, or a grandchild
+     *
+     * @return boolean - true if the position was found
+     */
+    private boolean reuse(Board position) {
+        if(rootBoard == null)
+            return false;
+        if(samePosition(rootBoard, position))
+            return true;
+        if(firstChild[ROOT] == UNEXPANDED)
+            return false;
+
+        for(int child = firstChild[ROOT]; child < firstChild[ROOT] + childCount[ROOT]; child++) {
+            Board afterChild = play(rootBoard, child);
+            if(samePosition(afterChild, position)) {
+                reroot(child, position);
+                return true;
+            }
+            if(firstChild[child] == UNEXPANDED)
+                continue;
+            for(int grandchild = firstChild[child]; grandchild < firstChild[child] + childCount[child];
+                grandchild++) {
+                if(samePosition(play(afterChild, grandchild), position)) {
+                    reroot(grandchild, position);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private Board play(Board board, int node) {
+        Board after = board.copyBoard();
+        Piece.PieceColor side = after.getActiveColor();
+        after.makeMove(moves[node], captured[node]);
+        after.setActiveColor(Search.opponent(side));
+        return after;
+    }
+
+    private static boolean samePosition(Board one, Board other) {
+        return one.getKey() == other.getKey() && one.getActiveColor() == other.getActiveColor()
+                && one.piecesOf(Piece.PieceColor.RED) == other.piecesOf(Piece.PieceColor.RED)
+                && one.piecesOf(Piece.PieceColor.WHITE) == other.piecesOf(Piece.PieceColor.WHITE)
+                && one.getKings() == other.getKings();
+    }
+
+    /**
+     * Move the subtree under a node to the front of the arrays, with the
+     * node as the root. Nodes keep their order: a node is always added
+     * after its parent and siblings side by side, so the node comes first,
+     * each node moves only towards the front, and children stay together.
+     */
+    private void reroot(int node, Board position) {
+        //the subtree's nodes, breadth first, then in the order they are kept
+        order[0] = node;
+        int kept = 1;
+        for(int next = 0; next < kept; next++) {
+            int old = order[next];
+            if(firstChild[old] == UNEXPANDED)
+                continue;
+            for(int child = 0; child < childCount[old]; child++)
+                order[kept++] = firstChild[old] + child;
+        }
+        Arrays.sort(order, 0, kept);
+
+        for(int next = 0; next < kept; next++) {
+            int old = order[next];
+            moves[next] = moves[old];
+            captured[next] = captured[old];
+            visits[next] = visits[old];
+            virtualLosses[next] = 0;
+            results[next] = results[old];
+            childCount[next] = childCount[old];
+            firstChild[next] = firstChild[old] == UNEXPANDED ? UNEXPANDED
+                    : Arrays.binarySearch(order, 0, kept, firstChild[old]);
+        }
+        size = kept;
+        rootBoard = position;
+    }
+
+    /**
+     * Start a new tree
+     */
+    private void clear(Board position) {
+        size = 1;
+        moves[ROOT] = Move.NONE;
+        captured[ROOT] = 0;
+        firstChild[ROOT] = UNEXPANDED;
+        childCount[ROOT] = 0;
+        visits[ROOT] = 0;
+        virtualLosses[ROOT] = 0;
+        results[ROOT] = 0;
+        rootBoard = position;
+    }
+
+    /**
+     * Add a node's children, one per legal move
+     *
+     * @param legal - buffer for the moves, owned by the calling thread
+     * @return boolean - false if the tree is full
+     */
+    private boolean expand(int node, Board board, MoveList legal) {
+        int count = board.generateMoves(board.getActiveColor(), legal);
+        if(size + count > moves.length) {
+            if(size + count > maxNodes)
+                return false;
+            grow(Math.min(maxNodes, Math.max(size + count, moves.length * 2)));
+        }
+        for(int i = 0; i < count; i++) {
+            int child = size + i;
+            moves[child] = legal.get(i);
+            captured[child] = legal.getCaptured(i);
+            firstChild[child] = UNEXPANDED;
+            childCount[child] = 0;
+            visits[child] = 0;
+            virtualLosses[child] = 0;
+            results[child] = 0;
+        }
+        firstChild[node] = size;
+        childCount[node] = count;
+        size += count;
+        return true;
+    }
+
+    private void grow(int capacity) {
+        moves = Arrays.copyOf(moves, capacity);
+        captured = Arrays.copyOf(captured, capacity);
+        firstChild = Arrays.copyOf(firstChild, capacity);
+        childCount = Arrays.copyOf(childCount, capacity);
+        visits = Arrays.copyOf(visits, capacity);
+        virtualLosses = Arrays.copyOf(virtualLosses, capacity);
+        results = Arrays.copyOf(results, capacity);
+        order = new int[capacity];
+    }
+
+    /**
+     * The child with the best upper confidence bound. Virtual losses count
+     * as visits that were lost.
+     */
+    private int select(int node) {
+        int first = firstChild[node];
+        double logVisits = Math.log(Math.max(1, visits[node] + virtualLosses[node]));
+        int best = first;
+        double bestBound = Double.NEGATIVE_INFINITY;
+        for(int child = first; child < first + childCount[node]; child++) {
+            int tries = visits[child] + virtualLosses[child];
+            if(tries == 0)
+                return child;
+            double bound = results[child] / tries + EXPLORATION * Math.sqrt(logVisits / tries);
+            if(bound > bestBound) {
+                bestBound = bound;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Body of the calling thread and of each helper: walk down the tree,
+     * play out, and back the result up, until the search is stopped
+     */
+    private void playouts(Board root, long deadline, long nodeLimit, AtomicLong nodes, AtomicBoolean stop) {
+        Evaluator evaluator = searchPool.newEvaluator();
+        MoveList legal = new MoveList();
+        SplittableRandom random = new SplittableRandom(System.nanoTime());
+        int[] path = new int[Search.MAX_PLY];
+
+        while(!stop.get()) {
+            Board board = root.copyBoard();
+            int length = 0;
+
+            synchronized(this) {
+                int node = ROOT;
+                path[length++] = node;
+                virtualLosses[node]++;
+                while(length < Search.MAX_PLY) {
+                    if(firstChild[node] == UNEXPANDED) {
+                        //a leaf is played out once before it gets children
+                        if(node != ROOT && visits[node] == 0)
+                            break;
+                        if(!expand(node, board, legal))
+                            break;
+                    }
+                    if(childCount[node] == 0)
+                        break;
+                    node = select(node);
+                    Piece.PieceColor side = board.getActiveColor();
+                    board.makeMove(moves[node], captured[node]);
+                    board.setActiveColor(Search.opponent(side));
+                    path[length++] = node;
+                    virtualLosses[node]++;
+                }
+            }
+
+            //the result for the side to move at the leaf
+            Piece.PieceColor leafSide = board.getActiveColor();
+            int plies = playout(board, legal, random);
+            double result;
+            if(plies < 0) {
+                result = board.getActiveColor() == leafSide ? 0 : 1;
+                plies = -plies - 1;
+            }
+            else {
+                evaluator.reset(board);
+                result = Tuner.predict(evaluator.evaluate(board, leafSide), PLAYOUT_K);
+            }
+
+            synchronized(this) {
+                //the leaf's move was made by the other side
+                result = 1 - result;
+                for(int i = length - 1; i >= 0; i--) {
+                    int node = path[i];
+                    virtualLosses[node]--;
+                    visits[node]++;
+                    results[node] += result;
+                    result = 1 - result;
+                }
+            }
+
+            long total = nodes.addAndGet(length + plies);
+            if((nodeLimit > 0 && total >= nodeLimit) || (deadline != 0 && System.nanoTime() >= deadline))
+                stop.set(true);
+        }
+    }
+
+    /**
+     * Play random moves from a position, and go on through any jumps once
+     * PLAYOUT_PLIES are played
+     *
+     * @return int - the plies played, or -1 less that if the side to move
+     *               at the end has no move and so has lost
+     */
+    private static int playout(Board board, MoveList legal, SplittableRandom random) {
+        for(int ply = 0; ply < Search.MAX_PLY; ply++) {
+            Piece.PieceColor side = board.getActiveColor();
+            int count = board.generateMoves(side, legal);
+            if(count == 0)
+                return -ply - 1;
+            if(ply >= PLAYOUT_PLIES && !Move.isCapture(legal.get(0)))
+                return ply;
+            int pick = random.nextInt(count);
+            board.makeMove(legal.get(pick), legal.getCaptured(pick));
+            board.setActiveColor(Search.opponent(side));
+        }
+        return Search.MAX_PLY;
+    }
+
+    /**
+     * The root's most visited move, the line of most visited moves after
+     * it, and its results as a score
+     */
+    private SearchResult result(long nodes, long start) {
+        int[] line = new int[Search.MAX_PLY];
+        int length = 0;
+        int node = ROOT;
+        while(firstChild[node] != UNEXPANDED && childCount[node] > 0 && length < line.length) {
+            int best = firstChild[node];
+            for(int child = best + 1; child < firstChild[node] + childCount[node]; child++) {
+                if(visits[child] > visits[best])
+                    best = child;
+            }
+            //an untried move says nothing about the line after it
+            if(length > 0 && visits[best] == 0)
+                break;
+            line[length++] = moves[best];
+            node = best;
+        }
+
+        int best = firstChild[ROOT];
+        for(int child = best + 1; child < firstChild[ROOT] + childCount[ROOT]; child++) {
+            if(visits[child] > visits[best])
+                best = child;
+        }
+        int score = 0;
+        if(visits[best] > 0) {
+            double mean = Math.min(0.999, Math.max(0.001, results[best] / visits[best]));
+            score = (int) Math.round(400 / PLAYOUT_K * Math.log10(mean / (1 - mean)));
+            score = Math.max(-MAX_SCORE, Math.min(MAX_SCORE, score));
+        }
+        return new SearchResult(moves[best], score, length, nodes, elapsedMillis(start),
+                Arrays.copyOf(line, length));
+    }
+
+    private static long elapsedMillis(long start) {
+        return (System.nanoTime() - start) / 1000000L;
+    }
+
+    /**
+     * Retrieve the number of nodes in the tree
+     *
+     * @return int
+     */
+    public synchronized int getTreeSize() {
+        return size;
+    }
+
+    /**
+     * Ask the running search and its helpers to stop; the search returns
+     * the move tried most often so far. If none is running, the next one
+     * stops as soon as it starts.
+     */
+    @Override
+    public void stop() {
+        stopRequested.set(true);
+        running.set(true);
+    }
+
+}
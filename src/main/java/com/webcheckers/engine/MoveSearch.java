@@ -0,0 +1,36 @@
+package com.webcheckers.engine;
+
+import com.webcheckers.model.Board;
+
+/**
+ * A search engine an AI Player chooses its Moves with (see {@link Engine}).
+ *
+ * One MoveSearch belongs to one game at a time, and {@link #stop()} may
+ * be called from any thread.
+ *
+ * @authors
+ *      Summer DiStefano
+ *      Frank Abbey
+ *      Raisa Hossain
+ *      Stephen Bosonac
+ *
+ * @version 5/10/2020
+ *
+ */
+public interface MoveSearch {
+
+    /**
+     * Search a position for the best move of the side to move
+     *
+     * @param position - the position to search; it is copied, never changed
+     * @param limits - depth, node and time budget
+     * @return SearchResult - the best move found
+     */
+    SearchResult search(Board position, SearchLimits limits);
+
+    /**
+     * Ask the running search to stop and return its best move so far
+     */
+    void stop();
+
+}
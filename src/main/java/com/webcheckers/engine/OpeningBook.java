@@ -0,0 +1,232 @@
+package com.webcheckers.engine;
+
+import com.webcheckers.model.Board;
+import com.webcheckers.model.Move;
+import com.webcheckers.model.MoveList;
+import com.webcheckers.model.Piece;
+import com.webcheckers.model.Zobrist;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Opening book: moves known from earlier games for positions near the
+ * start, so the AI plays them without searching.
+ *
+ * The book is a file of fixed size entries sorted by position key (see
+ * {@link OpeningBookBuilder}), mapped into memory and binary searched in
+ * place. Opening it reads nothing but the header, and the pages it
+ * touches are shared with the operating system's file cache rather than
+ * copied to the heap.
+ *
+ * A position and the same position turned half a turn with the colors
+ * swapped play the same, so the book stores only one of them: the one
+ * with the smaller key. Turning the board half a turn takes square s to
+ * 31 - s, which reverses the bits of every mask.
+ *
+ * File layout, big-endian:
+ *   header: MAGIC, VERSION, entry count, 0 (four ints)
+ *   entry:  position key (long), Move.encode(from, to, 0, flags) (int),
+ *           captured squares (int), games (int), points (int)
+ * Entries of the same key are ordered by points, best first. Points
+ * are half points for the side that played the move: 2 for a win, 1
+ * for a draw.
+ *
+ * An OpeningBook may be used from any thread.
+ *
+ * @authors
+ *      Summer DiStefano
+ *      Frank Abbey
+ *      Raisa Hossain
+ *      Stephen Bosonac
+ *
+ * @version 5/6/2020
+ *
+ */
+public class OpeningBook {
+
+    /** "WCBK" */
+    static final int MAGIC = 0x5743424B;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int ENTRY_BYTES = 24;
+
+    /** Most entries kept for one position */
+    static final int MAX_MOVES = 16;
+
+    private final ByteBuffer entries;
+    private final int size;
+
+    /** Generated moves of the position looked up, per thread */
+    private final ThreadLocal<MoveList> moves = ThreadLocal.withInitial(MoveList::new);
+
+    private final AtomicLong probes = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+
+    /**
+     * Open a book file
+     *
+     * @param file - a file written by OpeningBookBuilder
+     * @throws IOException - if the file can't be read or isn't a book
+     */
+    public OpeningBook(Path file) throws IOException {
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if(length < HEADER_BYTES || length > Integer.MAX_VALUE)
+                throw new IOException("Not an opening book: " + file);
+            //the mapping stays valid after the channel is closed
+            ByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            if(map.getInt(0) != MAGIC || map.getInt(4) != VERSION)
+                throw new IOException("Not an opening book: " + file);
+            this.size = map.getInt(8);
+            if(length != HEADER_BYTES + (long) size * ENTRY_BYTES)
+                throw new IOException("Opening book is truncated: " + file);
+            this.entries = map;
+        }
+    }
+
+    /**
+     * The key a position is stored under, and whether it is stored turned
+     * half a turn
+     */
+    static long canonicalKey(int red, int white, int kings, boolean whiteToMove, boolean[] turned) {
+        long key = Zobrist.hash(red, white, kings, whiteToMove);
+        long turnedKey = Zobrist.hash(Integer.reverse(white), Integer.reverse(red), Integer.reverse(kings),
+                !whiteToMove);
+        turned[0] = turnedKey < key;
+        return Math.min(key, turnedKey);
+    }
+
+    /**
+     * Turn a move half a turn
+     */
+    static int turn(int move) {
+        int flags = move & (Move.CAPTURE | Move.PROMOTION);
+        return Move.encode(31 - Move.startSquare(move), 31 - Move.endSquare(move), 0, flags);
+    }
+
+    /**
+     * Look a position up in the book, choosing among its moves at random
+     * in proportion to their points
+     *
+     * @param position - the position, with its side to move set
+     * @return SearchResult - a book result whose best move is legal in the
+     *                        position, or null if the book has no move for it
+     */
+    public SearchResult probe(Board position) {
+        long start = System.currentTimeMillis();
+        probes.incrementAndGet();
+        Piece.PieceColor side = position.getActiveColor();
+        int red = position.piecesOf(Piece.PieceColor.RED);
+        int white = position.piecesOf(Piece.PieceColor.WHITE);
+        boolean[] turned = new boolean[1];
+        long key = canonicalKey(red, white, position.getKings(), side == Piece.PieceColor.WHITE, turned);
+
+        int first = firstEntry(key);
+        if(first < 0)
+            return null;
+
+        MoveList legal = moves.get();
+        position.generateMoves(side, legal);
+        int[] candidates = new int[MAX_MOVES];
+        int[] points = new int[MAX_MOVES];
+        int count = 0;
+        int total = 0;
+        for(int entry = first; entry < size && count < MAX_MOVES && keyAt(entry) == key; entry++) {
+            int offset = HEADER_BYTES + entry * ENTRY_BYTES;
+            int move = entries.getInt(offset + 8);
+            int captured = entries.getInt(offset + 12);
+            if(turned[0]) {
+                move = turn(move);
+                captured = Integer.reverse(captured);
+            }
+            int index = indexOf(legal, move, captured);
+            if(index < 0 || entries.getInt(offset + 20) == 0)
+                continue;
+            candidates[count] = legal.get(index);
+            points[count] = entries.getInt(offset + 20);
+            total += points[count];
+            count++;
+        }
+        if(count == 0)
+            return null;
+
+        int pick = ThreadLocalRandom.current().nextInt(total);
+        int choice = 0;
+        while(pick >= points[choice])
+            pick -= points[choice++];
+        hits.incrementAndGet();
+        return new SearchResult(candidates[choice], 0, 0, 0, System.currentTimeMillis() - start,
+                new int[] {candidates[choice]}, SearchResult.Source.BOOK);
+    }
+
+    /**
+     * Find a book move among the generated moves. A jump is known by its
+     * first and last squares and every Piece it captures.
+     */
+    private static int indexOf(MoveList legal, int move, int captured) {
+        for(int i = 0; i < legal.size(); i++) {
+            int candidate = legal.get(i);
+            if(Move.startSquare(candidate) == Move.startSquare(move)
+                    && Move.endSquare(candidate) == Move.endSquare(move)
+                    && legal.getCaptured(i) == captured)
+                return i;
+        }
+        return -1;
+    }
+
+    private long keyAt(int entry) {
+        return entries.getLong(HEADER_BYTES + entry * ENTRY_BYTES);
+    }
+
+    /**
+     * Binary search for the first entry of a key
+     *
+     * @return int - its index, or -1 if the key isn't in the book
+     */
+    private int firstEntry(long key) {
+        int low = 0;
+        int high = size;
+        while(low < high) {
+            int middle = (low + high) >>> 1;
+            if(keyAt(middle) < key)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low < size && keyAt(low) == key ? low : -1;
+    }
+
+    /**
+     * Retrieve the number of entries, one per position and move
+     *
+     * @return int
+     */
+    public int getEntries() {
+        return size;
+    }
+
+    public long getProbes() {
+        return probes.get();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * ToString method
+     *
+     * @return - the book's size and how often it was used
+     */
+    @Override
+    public String toString() {
+        return String.format("OpeningBook{entries=%d, probes=%d, hits=%d}", size, getProbes(), getHits());
+    }
+
+}
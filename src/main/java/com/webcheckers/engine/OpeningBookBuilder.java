@@ -0,0 +1,249 @@
+package com.webcheckers.engine;
+
+import com.webcheckers.model.Board;
+import com.webcheckers.model.Move;
+import com.webcheckers.model.Piece;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds an {@link OpeningBook} file from finished games: the games
+ * SelfPlay and Sprt write, or archived games in the same format (one
+ * game per line, tab separated: number, color, result "1-0", "0-1" or
+ * "1/2-1/2", plies, then the moves from the starting position like
+ * "11-15 23-19 8-11 22x15x6").
+ *
+ * Each of a game's first plies adds one game, and the points it earned
+ * the side that played it, to its position and move. A move is kept if
+ * enough games played it; the book then picks moves in proportion to
+ * their points, so moves that lost every time are never played.
+ *
+ * Run with:
+ * mvn compile exec:java -Dexec.mainClass=com.webcheckers.engine.OpeningBookBuilder -Dexec.args="[options] games..."
+ *
+ * Options:
+ *   -plies N      plies of each game to add (default 12)
+ *   -minGames N   games a move needs to be kept (default 3)
+ *   -out FILE     the book to write (default book.bin)
+ *
+ * @authors
+ *      Summer DiStefano
+ *      Frank Abbey
+ *      Raisa Hossain
+ *      Stephen Bosonac
+ *
+ * @version 5/6/2020
+ *
+ */
+public class OpeningBookBuilder {
+
+    /** Plies of each game added unless told otherwise */
+    public static final int DEFAULT_PLIES = 12;
+
+    /** Games a move needs unless told otherwise */
+    public static final int DEFAULT_MIN_GAMES = 3;
+
+    private final int plies;
+
+    /** Moves seen, by stored position key */
+    private final Map<Long, List<BookMove>> positions = new HashMap<>();
+
+    private int games;
+    private int skipped;
+
+    /**
+     * A move of a position, as stored, with the games and points it got
+     */
+    private static class BookMove {
+        private final long key;
+        private final int move;
+        private final int captured;
+        private int games;
+        private int points;
+
+        BookMove(long key, int move, int captured) {
+            this.key = key;
+            this.move = move;
+            this.captured = captured;
+        }
+    }
+
+    /**
+     * Create a new OpeningBookBuilder
+     *
+     * @param plies - plies of each game to add
+     */
+    public OpeningBookBuilder(int plies) {
+        if(plies < 1)
+            throw new IllegalArgumentException("Must add at least one ply: " + plies);
+        this.plies = plies;
+    }
+
+    /**
+     * Add a game
+     *
+     * @param game - the game, read from a games file
+     * @throws IllegalArgumentException - if a move can't be read
+     */
+    public void addGame(SelfPlay.GameRecord game) {
+        //read every move before counting any, so a bad game adds nothing
+        Board[] positions = new Board[plies + 1];
+        int[] played = new int[plies];
+        int[] jumped = new int[plies];
+        int length = game.replay(plies, positions, played, jumped);
+        int redPoints = game.getRedPoints();
+
+        long[] keys = new long[length];
+        int[] points = new int[length];
+        boolean[] turned = new boolean[1];
+        for(int ply = 0; ply < length; ply++) {
+            Board board = positions[ply];
+            Piece.PieceColor side = board.getActiveColor();
+            keys[ply] = OpeningBook.canonicalKey(board.piecesOf(Piece.PieceColor.RED),
+                    board.piecesOf(Piece.PieceColor.WHITE), board.getKings(),
+                    side == Piece.PieceColor.WHITE, turned);
+            if(turned[0]) {
+                played[ply] = OpeningBook.turn(played[ply]);
+                jumped[ply] = Integer.reverse(jumped[ply]);
+            }
+            points[ply] = side == Piece.PieceColor.RED ? redPoints : 2 - redPoints;
+        }
+
+        for(int ply = 0; ply < length; ply++) {
+            BookMove entry = find(keys[ply], played[ply], jumped[ply]);
+            entry.games++;
+            entry.points += points[ply];
+        }
+        games++;
+    }
+
+    private BookMove find(long key, int move, int captured) {
+        List<BookMove> known = positions.computeIfAbsent(key, k -> new ArrayList<>());
+        for(BookMove entry : known) {
+            if(Move.startSquare(entry.move) == Move.startSquare(move)
+                    && Move.endSquare(entry.move) == Move.endSquare(move) && entry.captured == captured)
+                return entry;
+        }
+        BookMove entry = new BookMove(key, Move.encode(Move.startSquare(move), Move.endSquare(move), 0,
+                move & (Move.CAPTURE | Move.PROMOTION)), captured);
+        known.add(entry);
+        return entry;
+    }
+
+    /**
+     * Add every game in a file written by SelfPlay, gzipped or not
+     *
+     * @param file - the file's name
+     * @throws IOException - if the file can't be read
+     */
+    public void addGames(String file) throws IOException {
+        try(BufferedReader reader = SelfPlay.readGames(file)) {
+            String line;
+            while((line = reader.readLine()) != null) {
+                if(line.isEmpty() || line.startsWith("#"))
+                    continue;
+                try {
+                    addGame(SelfPlay.GameRecord.parse(line));
+                } catch(IllegalArgumentException e) {
+                    skipped++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Write the book: the moves played in at least minGames games, sorted
+     * by position key and then by points
+     *
+     * @param file - the file's name
+     * @param minGames - games a move needs to be kept
+     * @return int - the number of entries written
+     * @throws IOException - if the file can't be written
+     */
+    public int write(String file, int minGames) throws IOException {
+        List<BookMove> entries = new ArrayList<>();
+        for(List<BookMove> known : positions.values()) {
+            known.sort(Comparator.comparingInt((BookMove entry) -> entry.points).reversed());
+            int kept = 0;
+            for(BookMove entry : known) {
+                if(entry.games >= minGames && kept < OpeningBook.MAX_MOVES) {
+                    entries.add(entry);
+                    kept++;
+                }
+            }
+        }
+        //stable, so each position's moves stay best first
+        entries.sort(Comparator.comparingLong(entry -> entry.key));
+
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(OpeningBook.MAGIC);
+            out.writeInt(OpeningBook.VERSION);
+            out.writeInt(entries.size());
+            out.writeInt(0);
+            for(BookMove entry : entries) {
+                out.writeLong(entry.key);
+                out.writeInt(entry.move);
+                out.writeInt(entry.captured);
+                out.writeInt(entry.games);
+                out.writeInt(entry.points);
+            }
+        }
+        return entries.size();
+    }
+
+    public int getGames() {
+        return games;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+
+    public int getPositions() {
+        return positions.size();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int plies = DEFAULT_PLIES;
+        int minGames = DEFAULT_MIN_GAMES;
+        String out = "book.bin";
+        List<String> files = new ArrayList<>();
+
+        for(int i = 0; i < args.length; i++) {
+            switch(args[i]) {
+                case "-plies":
+                    plies = Integer.parseInt(args[++i]);
+                    break;
+                case "-minGames":
+                    minGames = Integer.parseInt(args[++i]);
+                    break;
+                case "-out":
+                    out = args[++i];
+                    break;
+                default:
+                    files.add(args[i]);
+            }
+        }
+        if(files.isEmpty()) {
+            System.err.println("usage: OpeningBookBuilder [-plies N] [-minGames N] [-out file] games...");
+            System.exit(2);
+        }
+
+        OpeningBookBuilder builder = new OpeningBookBuilder(plies);
+        for(String file : files)
+            builder.addGames(file);
+        int entries = builder.write(out, minGames);
+        System.out.printf("%d games (%d skipped), %d positions; %d moves played in %d or more games written to %s%n",
+                builder.getGames(), builder.getSkipped(), builder.getPositions(), entries, minGames, out);
+    }
+
+}
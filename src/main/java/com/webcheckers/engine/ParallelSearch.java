@@ -0,0 +1,104 @@
+package com.webcheckers.engine;
+
+import com.webcheckers.model.Board;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Lazy SMP search: the calling thread runs the main Search while helper
+ * threads from a {@link SearchPool} search the same position with their
+ * own move orders. Everything they learn goes into the shared
+ * transposition table, which the main search then finds already filled.
+ * The main search's answer is the one returned.
+ *
+ * Like Search, one ParallelSearch belongs to one game at a time, and
+ * {@link #stop()} may be called from any thread.
+ *
+ * @authors
+ *      Summer DiStefano
+ *      Frank Abbey
+ *      Raisa Hossain
+ *      Stephen Bosonac
+ *
+ * @version 5/10/2020
+ *
+ */
+public class ParallelSearch implements MoveSearch {
+
+    private final SearchPool searchPool;
+    private final Search main;
+
+    /** Stop flag of the running search, shared with its helpers */
+    private volatile AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * Create a new ParallelSearch
+     *
+     * @param searchPool - where helper threads, the shared table and the
+     *                     evaluation come from
+     */
+    public ParallelSearch(SearchPool searchPool) {
+        this.searchPool = searchPool;
+        this.main = new Search(searchPool.getTranspositionTable(), searchPool.newEvaluator());
+    }
+
+    /**
+     * Search a position using the calling thread and whatever helper
+     * threads the pool can spare
+     *
+     * @param position - the position to search; it is copied, never changed
+     * @param limits - depth, node and time budget
+     * @return SearchResult - the main search's best move, with the nodes
+     *                        of every thread counted
+     */
+    @Override
+    public SearchResult search(final Board position, final SearchLimits limits) {
+        final AtomicBoolean stop = new AtomicBoolean();
+        running = stop;
+
+        SearchResult[] result = new SearchResult[1];
+        List<SearchResult> helped = searchPool.runWithHelpers(
+                helperIndex -> runHelper(helperIndex, position, limits, stop), () -> {
+                    main.setSharedStop(stop);
+                    try {
+                        result[0] = main.search(position, limits);
+                    } finally {
+                        main.setSharedStop(null);
+                    }
+                }, stop);
+
+        long nodes = result[0].getNodes();
+        for(SearchResult helper : helped)
+            nodes += helper.getNodes();
+        return new SearchResult(result[0].getBestMove(), result[0].getScore(), result[0].getDepth(), nodes,
+                result[0].getElapsedMillis(), result[0].getPrincipalVariation());
+    }
+
+    /**
+     * Body of a helper task
+     */
+    private SearchResult runHelper(int helperIndex, Board position, SearchLimits limits, AtomicBoolean stop) {
+        Search helper = searchPool.helperSearch();
+        helper.setSharedStop(stop);
+        helper.setHelperIndex(helperIndex);
+        try {
+            return helper.search(position, limits);
+        } finally {
+            helper.setSharedStop(null);
+            helper.setHelperIndex(0);
+        }
+    }
+
+    /**
+     * Ask the running search and its helpers to stop; the search returns
+     * the best move found so far. If none is running, the next one stops
+     * as soon as it starts.
+     */
+    @Override
+    public void stop() {
+        running.set(true);
+        main.stop();
+    }
+
+}
@@ -0,0 +1,302 @@
+package com.webcheckers.engine;
+
+import com.webcheckers.model.Board;
+import com.webcheckers.model.Move;
+import com.webcheckers.model.MoveList;
+import com.webcheckers.model.Piece;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Perft: counts the positions reachable in exactly N moves, which checks
+ * the move generator against known counts and measures its speed at the
+ * same time. A whole jump sequence counts as one move.
+ *
+ * Run with:
+ * mvn compile exec:java -Dexec.mainClass=com.webcheckers.engine.Perft -Dexec.args="[options] depth"
+ *
+ * Options:
+ *   -fen "B:W21-32:B1-12"  position to count from (default: the starting position)
+ *   -divide                print the count below each root move
+ *   -threads N             count with N fork-join threads
+ *   -verify                check every depth up to the given one against the
+ *                          known counts of the starting position
+ *
+ * @authors
+ *      Summer DiStefano
+ *      Frank Abbey
+ *      Raisa Hossain
+ *      Stephen Bosonac
+ *
+ * @version 4/29/2020
+ *
+ */
+public class Perft {
+
+    /** The starting position */
+    public static final String START = "B:W21-32:B1-12";
+
+    /** Known counts from the starting position, indexed by depth */
+    private static final long[] START_COUNTS = {
+            1L,
+            7L,
+            49L,
+            302L,
+            1469L,
+            7361L,
+            36768L,
+            179740L,
+            845931L,
+            3963680L,
+            18391564L,
+            85242128L,
+            388623673L,
+            1766623630L,
+            7978439499L,
+    };
+
+    /** Deepest count supported */
+    public static final int MAX_DEPTH = 64;
+
+    /** Parallel counts split the tree into tasks for this many plies */
+    private static final int SPLIT_PLIES = 2;
+
+    private final MoveList[] moveLists = new MoveList[MAX_DEPTH];
+
+    /** One Perft per fork-join worker, since a Perft is not thread safe */
+    private static final ThreadLocal<Perft> WORKER_PERFT = ThreadLocal.withInitial(Perft::new);
+
+    /**
+     * Create a new Perft
+     */
+    public Perft() {
+        for(int i = 0; i < MAX_DEPTH; i++)
+            moveLists[i] = new MoveList();
+    }
+
+    /**
+     * Count the positions reachable from a Board in exactly some number of
+     * moves. The Board is changed while counting and put back afterward.
+     *
+     * @param board - the position, with its side to move set
+     * @param depth - number of moves
+     * @return long - the count
+     */
+    public long count(Board board, int depth) {
+        if(depth < 0 || depth > MAX_DEPTH)
+            throw new IllegalArgumentException("Perft depth must be 0-" + MAX_DEPTH + ": " + depth);
+        return count(board, depth, 0);
+    }
+
+    private long count(Board board, int depth, int ply) {
+        if(depth == 0)
+            return 1;
+
+        Piece.PieceColor side = board.getActiveColor();
+        MoveList moves = moveLists[ply];
+        int size = board.generateMoves(side, moves);
+        if(depth == 1)
+            return size;
+
+        long total = 0;
+        board.setActiveColor(Search.opponent(side));
+        for(int i = 0; i < size; i++) {
+            int move = moves.get(i);
+            long undo = board.makeMove(move, moves.getCaptured(i));
+            total += count(board, depth - 1, ply + 1);
+            board.unmakeMove(move, undo);
+        }
+        board.setActiveColor(side);
+        return total;
+    }
+
+    /**
+     * Count the positions below each root move
+     *
+     * @param board - the position, with its side to move set
+     * @param depth - number of moves, including the root move
+     * @param pool - threads to count with, or null to count on this thread
+     * @return List<String> - one line per root move: its notation and count
+     */
+    public List<String> divide(Board board, int depth, ForkJoinPool pool) {
+        if(depth < 1 || depth > MAX_DEPTH)
+            throw new IllegalArgumentException("Perft depth must be 1-" + MAX_DEPTH + ": " + depth);
+
+        Piece.PieceColor side = board.getActiveColor();
+        MoveList moves = new MoveList();
+        int size = board.generateMoves(side, moves);
+
+        List<String> lines = new ArrayList<>();
+        for(int i = 0; i < size; i++) {
+            Board child = board.copyBoard();
+            child.makeMove(moves.get(i), moves.getCaptured(i));
+            child.setActiveColor(Search.opponent(side));
+            long nodes = pool == null ? count(child, depth - 1) : parallelCount(child, depth - 1, pool);
+            lines.add(notation(moves, i) + " " + nodes);
+        }
+        return lines;
+    }
+
+    /**
+     * Count the positions reachable from a Board using a fork-join pool.
+     * The Board itself is not changed.
+     *
+     * @param board - the position, with its side to move set
+     * @param depth - number of moves
+     * @param pool - the threads to count with
+     * @return long - the count
+     */
+    public static long parallelCount(Board board, int depth, ForkJoinPool pool) {
+        if(depth < 0 || depth > MAX_DEPTH)
+            throw new IllegalArgumentException("Perft depth must be 0-" + MAX_DEPTH + ": " + depth);
+        return pool.invoke(new CountTask(board.copyBoard(), depth, SPLIT_PLIES));
+    }
+
+    /**
+     * Counts a subtree, forking one task per move near the root
+     */
+    private static class CountTask extends RecursiveTask<Long> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Board board;
+        private final int depth;
+        private final int splitPlies;
+
+        CountTask(Board board, int depth, int splitPlies) {
+            this.board = board;
+            this.depth = depth;
+            this.splitPlies = splitPlies;
+        }
+
+        @Override
+        protected Long compute() {
+            if(splitPlies == 0 || depth <= 2)
+                return WORKER_PERFT.get().count(board, depth);
+
+            Piece.PieceColor side = board.getActiveColor();
+            MoveList moves = new MoveList();
+            int size = board.generateMoves(side, moves);
+
+            List<CountTask> tasks = new ArrayList<>(size);
+            for(int i = 0; i < size; i++) {
+                Board child = board.copyBoard();
+                child.makeMove(moves.get(i), moves.getCaptured(i));
+                child.setActiveColor(Search.opponent(side));
+                tasks.add(new CountTask(child, depth - 1, splitPlies - 1));
+            }
+
+            long total = 0;
+            for(CountTask task : invokeAll(tasks))
+                total += task.join();
+            return total;
+        }
+    }
+
+    /**
+     * Write a generated move in the usual checkers notation: "11-15" for a
+     * single move and "15x24x31" for a jump sequence
+     *
+     * @param moves - the MoveList holding the move
+     * @param index - index of the move
+     * @return String
+     */
+    public static String notation(MoveList moves, int index) {
+        int move = moves.get(index);
+        StringBuilder text = new StringBuilder().append(Move.startSquare(move) + 1);
+        if(!Move.isCapture(move))
+            return text.append('-').append(Move.endSquare(move) + 1).toString();
+
+        int hops = Integer.bitCount(moves.getCaptured(index));
+        for(int hop = 0; hop < hops; hop++)
+            text.append('x').append(Move.pathSquare(moves.getPath(index), hop) + 1);
+        return text.toString();
+    }
+
+    /**
+     * Retrieve the known count from the starting position
+     *
+     * @param depth
+     * @return long - the count, or -1 if it is not known
+     */
+    public static long knownStartCount(int depth) {
+        return depth >= 0 && depth < START_COUNTS.length ? START_COUNTS[depth] : -1;
+    }
+
+    public static void main(String[] args) {
+        String fen = START;
+        boolean divide = false;
+        boolean verify = false;
+        int threads = 1;
+        int depth = -1;
+
+        for(int i = 0; i < args.length; i++) {
+            switch(args[i]) {
+                case "-fen":
+                    fen = args[++i];
+                    break;
+                case "-divide":
+                    divide = true;
+                    break;
+                case "-verify":
+                    verify = true;
+                    break;
+                case "-threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    depth = Integer.parseInt(args[i]);
+            }
+        }
+        if(depth < 0) {
+            System.err.println("usage: Perft [-fen position] [-divide] [-threads N] [-verify] depth");
+            System.exit(2);
+        }
+
+        Board board = Board.fromFen(fen);
+        ForkJoinPool pool = threads > 1 ? new ForkJoinPool(threads) : null;
+        Perft perft = new Perft();
+        boolean failed = false;
+
+        try {
+            if(divide) {
+                long start = System.nanoTime();
+                for(String line : perft.divide(board, depth, pool))
+                    System.out.println(line);
+                System.out.printf("%.3f s%n", (System.nanoTime() - start) / 1e9);
+                return;
+            }
+
+            if(verify && !START.equals(fen)) {
+                System.err.println("-verify only knows counts from the starting position");
+                System.exit(2);
+            }
+
+            System.out.println(board.toFen());
+            System.out.printf("%5s %14s %10s %12s %s%n", "depth", "nodes", "ms", "nodes/s", "known");
+            for(int d = verify ? 1 : depth; d <= depth; d++) {
+                long start = System.nanoTime();
+                long nodes = pool == null ? perft.count(board, d) : parallelCount(board, d, pool);
+                long millis = Math.max(1, (System.nanoTime() - start) / 1000000L);
+
+                String check = "";
+                if(START.equals(fen) && knownStartCount(d) >= 0) {
+                    boolean matches = nodes == knownStartCount(d);
+                    check = matches ? "ok" : "MISMATCH, expected " + knownStartCount(d);
+                    failed |= !matches;
+                }
+                System.out.printf("%5d %14d %10d %12d %s%n", d, nodes, millis, nodes * 1000L / millis, check);
+            }
+        } finally {
+            if(pool != null)
+                pool.shutdown();
+        }
+
+        if(failed)
+            System.exit(1);
+    }
+
+}
@@ -0,0 +1,148 @@
+package com.webcheckers.engine;
+
+import com.webcheckers.model.Board;
+import com.webcheckers.model.Move;
+import com.webcheckers.model.MoveList;
+import com.webcheckers.model.Piece;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pondering: while the opponent decides on a Move, search the positions
+ * their likeliest replies lead to. The results go into the shared
+ * transposition table, so if the opponent plays a predicted reply the
+ * real search finds most of its work already done and answers almost at
+ * once.
+ *
+ * Replies are predicted from the principal variation of the last search
+ * (the reply it expected) and from a quick search from the opponent's
+ * side. Pondering stops as soon as its stop flag is set, wherever it is.
+ * The result of each reply's search is kept until the next ponder, for
+ * {@link #resultFor(Board)} to hand over when that reply is played.
+ *
+ * Like Search, a Ponder ponders on one thread at a time; resultFor() may
+ * be called from any thread.
+ *
+ * @authors
+ *      Summer DiStefano
+ *      Frank Abbey
+ *      Raisa Hossain
+ *      Stephen Bosonac
+ *
+ * @version 5/8/2020
+ *
+ */
+public class Ponder {
+
+    /** Replies pondered unless told otherwise */
+    public static final int DEFAULT_REPLIES = 2;
+
+    /** Budget of the quick search that predicts the opponent's reply */
+    private static final SearchLimits PREDICT_LIMITS = new SearchLimits(8, 0, 20);
+
+    private final Search search;
+    private final MoveList replies = new MoveList();
+
+    /** Positions after the replies pondered last, and their results. Guarded by this. */
+    private final Board[] positions = new Board[DEFAULT_REPLIES];
+    private final SearchResult[] results = new SearchResult[DEFAULT_REPLIES];
+    private int pondered;
+
+    /**
+     * Create a new Ponder
+     *
+     * @param table - the transposition table the real searches use
+     */
+    public Ponder(TranspositionTable table) {
+        this(table, new DefaultEvaluator());
+    }
+
+    /**
+     * Create a new Ponder that scores positions with a given evaluation
+     *
+     * @param table - the transposition table the real searches use
+     * @param evaluator - the evaluation the real searches use; owned by
+     *                    this Ponder
+     */
+    public Ponder(TranspositionTable table, Evaluator evaluator) {
+        this.search = new Search(table, evaluator);
+    }
+
+    /**
+     * Ponder a position where the opponent is to move. Returns when every
+     * predicted reply has been searched within its budget, or once the
+     * stop flag is set.
+     *
+     * @param position - the position, with the opponent's side to move;
+     *                   it is not changed
+     * @param expectedReply - the reply the last search expected, or Move.NONE
+     * @param maxReplies - most replies to ponder, up to DEFAULT_REPLIES
+     * @param limits - budget of the search after each reply
+     * @param stop - flag that ends pondering when set, from any thread
+     * @return int - the number of replies searched to the end of their budget
+     */
+    public int ponder(Board position, int expectedReply, int maxReplies, SearchLimits limits, AtomicBoolean stop) {
+        if(maxReplies < 1)
+            throw new IllegalArgumentException("Must ponder at least one reply: " + maxReplies);
+
+        synchronized(this) {
+            pondered = 0;
+        }
+
+        Piece.PieceColor side = position.getActiveColor();
+        int count = position.generateMoves(side, replies);
+        if(count == 0)
+            return 0;
+
+        search.setSharedStop(stop);
+        try {
+            int[] predicted = new int[Math.min(Math.min(maxReplies, DEFAULT_REPLIES), count)];
+            int predictions = 0;
+            int expected = replies.indexOf(expectedReply);
+            if(expected >= 0)
+                predicted[predictions++] = expected;
+            if(predictions < predicted.length && !stop.get()) {
+                int best = replies.indexOf(search.search(position, PREDICT_LIMITS).getBestMove());
+                if(best >= 0 && best != expected)
+                    predicted[predictions++] = best;
+            }
+
+            int finished = 0;
+            for(int i = 0; i < predictions && !stop.get(); i++) {
+                Board child = position.copyBoard();
+                child.makeMove(replies.get(predicted[i]), replies.getCaptured(predicted[i]));
+                child.setActiveColor(Search.opponent(side));
+                SearchResult result = search.search(child, limits);
+                if(result.hasMove())
+                    record(child, result);
+                if(!stop.get())
+                    finished++;
+            }
+            return finished;
+        } finally {
+            search.setSharedStop(null);
+        }
+    }
+
+    private synchronized void record(Board position, SearchResult result) {
+        positions[pondered] = position;
+        results[pondered] = result;
+        pondered++;
+    }
+
+    /**
+     * Retrieve what pondering found for a position, if it was one of the
+     * positions pondered last
+     *
+     * @param position - the position now to be searched
+     * @return SearchResult - the pondered result, or null if there isn't one
+     */
+    public synchronized SearchResult resultFor(Board position) {
+        for(int i = 0; i < pondered; i++) {
+            if(positions[i].equals(position))
+                return results[i];
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,398 @@
+package com.webcheckers.engine;
+
+import com.webcheckers.model.Board;
+import com.webcheckers.model.Move;
+import com.webcheckers.model.MoveList;
+import com.webcheckers.model.Piece;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Negamax alpha-beta search with iterative deepening.
+ *
+ * A Search works on its own copy of the Board and reuses its move buffers
+ * between calls, so it allocates almost nothing while searching. It is not
+ * thread safe: use one Search per thread. Another thread may call
+ * {@link #stop()} at any time; the search then returns the best move it
+ * has found so far.
+ *
+ * A jump sequence is searched as one move, and jumps are always searched
+ * past the nominal depth so the search never stops in the middle of an
+ * exchange.
+ *
+ * When given a {@link TranspositionTable} the search stores every result
+ * in it and uses earlier results (from this or any other search sharing
+ * the table) to cut off work and order moves.
+ *
+ * Leaves are scored by an {@link Evaluator}, which follows every move the
+ * search makes and takes back.
+ *
+ * @authors
+ *      Summer DiStefano
+ *      Frank Abbey
+ *      Raisa Hossain
+ *      Stephen Bosonac
+ *
+ * @version 5/8/2020
+ *
+ */
+public class Search {
+
+    /** Score of a won position, less the number of plies needed to win */
+    public static final int WIN = 100000;
+
+    /** Deepest ply the search will ever reach, including jump extensions */
+    public static final int MAX_PLY = 128;
+
+    private static final int INFINITY = WIN + 1;
+
+    /** How often (in nodes) the time and node budgets are checked */
+    private static final int CHECK_INTERVAL = 1024;
+
+    private final MoveList[] moveLists = new MoveList[MAX_PLY];
+    private final int[][] pv = new int[MAX_PLY][MAX_PLY];
+    private final int[] pvLength = new int[MAX_PLY];
+
+    private final TranspositionTable table;
+    private final Evaluator evaluator;
+    private int generation;
+    private long probes;
+    private long hits;
+    private long collisions;
+
+    /** Set by a ParallelSearch to stop this Search along with the others */
+    private AtomicBoolean sharedStop;
+
+    /** Non-zero for a helper of a ParallelSearch, to vary its move order */
+    private int helperIndex;
+
+    /** Set by stop(); a search takes it when it starts and clears it when it ends */
+    private final AtomicBoolean stopRequested = new AtomicBoolean();
+
+    private Board board;
+    private volatile boolean stopped;
+    private long nodes;
+    private long nodeLimit;
+    private long deadline;
+
+    /** Root moves fully searched, and the best of their scores, this iteration */
+    private int rootSearched;
+    private int rootScore;
+
+    /**
+     * Create a new Search without a transposition table
+     */
+    public Search() {
+        this(null);
+    }
+
+    /**
+     * Create a new Search with the default evaluation
+     *
+     * @param table - transposition table to share, or null for none
+     */
+    public Search(TranspositionTable table) {
+        this(table, new DefaultEvaluator());
+    }
+
+    /**
+     * Create a new Search
+     *
+     * @param table - transposition table to share, or null for none
+     * @param evaluator - scores the leaves; used by this Search alone
+     */
+    public Search(TranspositionTable table, Evaluator evaluator) {
+        this.table = table;
+        this.evaluator = evaluator;
+        for(int ply = 0; ply < MAX_PLY; ply++)
+            moveLists[ply] = new MoveList();
+    }
+
+    /**
+     * Search a position for the best move of the side to move
+     *
+     * @param position - the position to search; it is copied, never changed
+     * @param limits - depth, node and time budget
+     * @return SearchResult - the best move found
+     */
+    public SearchResult search(Board position, SearchLimits limits) {
+        try {
+            return run(position, limits);
+        } finally {
+            //a stop() meant for this search must not stop the next one
+            stopRequested.set(false);
+        }
+    }
+
+    private SearchResult run(Board position, SearchLimits limits) {
+        long start = System.nanoTime();
+        board = position.copyBoard();
+        evaluator.reset(board);
+        //a stop() that came before the search started is kept, not lost
+        stopped = stopRequested.get() || (sharedStop != null && sharedStop.get());
+        nodes = 0;
+        nodeLimit = limits.getMaxNodes();
+        deadline = limits.getMaxMillis() > 0 ? start + limits.getMaxMillis() * 1000000L : 0;
+        probes = 0;
+        hits = 0;
+        collisions = 0;
+        if(table != null)
+            generation = table.currentGeneration();
+
+        MoveList rootMoves = moveLists[0];
+        int count = board.generateMoves(board.getActiveColor(), rootMoves);
+        if(count == 0)
+            return new SearchResult(Move.NONE, -WIN, 0, 0, elapsedMillis(start), new int[0]);
+
+        int bestMove = rootMoves.get(helperIndex % count);
+        int bestScore = 0;
+        int completedDepth = 0;
+        int[] bestLine = { bestMove };
+
+        //helpers start at different depths so they run ahead of each other
+        for(int depth = 1 + (helperIndex & 1); depth <= limits.getMaxDepth(); depth++) {
+            //search the best move of the last iteration first
+            moveToFront(rootMoves, bestMove);
+
+            rootSearched = 0;
+            rootScore = -INFINITY;
+            int score = negamax(depth, -INFINITY, INFINITY, 0);
+
+            //an unfinished iteration can still be trusted once it has finished
+            //the previous best move, since that was searched first
+            if(stopped) {
+                if(rootSearched > 0) {
+                    bestMove = pv[0][0];
+                    bestScore = rootScore;
+                    bestLine = copyLine();
+                }
+                break;
+            }
+
+            bestMove = pv[0][0];
+            bestScore = score;
+            bestLine = copyLine();
+            completedDepth = depth;
+
+            //nothing to choose between, or the outcome is already known
+            if(count == 1 || Math.abs(score) >= WIN - MAX_PLY)
+                break;
+            //the next iteration would not finish in the time that is left
+            if(deadline != 0 && System.nanoTime() > start + (deadline - start) / 2)
+                break;
+        }
+
+        if(table != null)
+            table.recordStats(probes, hits, collisions);
+
+        return new SearchResult(bestMove, bestScore, completedDepth, nodes, elapsedMillis(start), bestLine);
+    }
+
+    /**
+     * Ask a running search to stop and return its best move so far. If no
+     * search is running, the next one stops as soon as it starts.
+     */
+    public void stop() {
+        stopRequested.set(true);
+        stopped = true;
+    }
+
+    /**
+     * Determine if the last search was cut short by stop() or a budget
+     *
+     * @return boolean
+     */
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * Tie this Search to a flag that stops a whole ParallelSearch
+     *
+     * @param sharedStop - the flag, or null to stand alone again
+     */
+    void setSharedStop(AtomicBoolean sharedStop) {
+        this.sharedStop = sharedStop;
+    }
+
+    /**
+     * Make this Search a helper of a ParallelSearch; helpers search the
+     * root moves in a rotated order
+     *
+     * @param helperIndex - 0 for a main search, 1 and up for helpers
+     */
+    void setHelperIndex(int helperIndex) {
+        this.helperIndex = helperIndex;
+    }
+
+    /**
+     * Negamax alpha-beta search of the current board
+     *
+     * @param depth - remaining depth in plies
+     * @param alpha - lower bound of the search window
+     * @param beta - upper bound of the search window
+     * @param ply - distance from the root
+     * @return int - score for the side to move
+     */
+    private int negamax(int depth, int alpha, int beta, int ply) {
+        pvLength[ply] = ply;
+        if((++nodes % CHECK_INTERVAL) == 0)
+            checkLimits();
+        if(stopped)
+            return 0;
+
+        boolean useTable = table != null;
+        long key = 0;
+        int tableMove = Move.NONE;
+        int alphaOriginal = alpha;
+
+        if(useTable) {
+            key = board.getKey();
+            probes++;
+            long entry = table.probe(key);
+            if(entry != 0) {
+                hits++;
+                tableMove = TranspositionTable.move(entry);
+                if(ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                    int score = fromTable(TranspositionTable.score(entry), ply);
+                    int bound = TranspositionTable.bound(entry);
+                    if(bound == TranspositionTable.EXACT
+                            || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+                            || (bound == TranspositionTable.UPPER_BOUND && score <= alpha))
+                        return score;
+                }
+            }
+            else if(table.isOccupied(key)) {
+                collisions++;
+            }
+        }
+
+        Piece.PieceColor side = board.getActiveColor();
+        MoveList moves = moveLists[ply];
+        int count = board.generateMoves(side, moves);
+
+        //no legal move loses the game
+        if(count == 0)
+            return -WIN + ply;
+        if((depth <= 0 && !Move.isCapture(moves.get(0))) || ply >= MAX_PLY - 1)
+            return evaluator.evaluate(board, side);
+
+        //the root is already ordered by the previous iteration
+        if(ply > 0 && tableMove != Move.NONE)
+            moveToFront(moves, tableMove);
+
+        int best = -INFINITY;
+        int bestMove = Move.NONE;
+        for(int i = 0; i < count; i++) {
+            int move = moves.get(i);
+            int captured = moves.getCaptured(i);
+            evaluator.makeMove(board, move, captured);
+            long undo = board.makeMove(move, captured);
+            board.setActiveColor(opponent(side));
+            int score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+            board.setActiveColor(side);
+            board.unmakeMove(move, undo);
+            evaluator.unmakeMove();
+
+            if(stopped)
+                return 0;
+            if(ply == 0)
+                rootSearched++;
+
+            if(score > best) {
+                best = score;
+                bestMove = move;
+                if(score > alpha) {
+                    alpha = score;
+                    updatePrincipalVariation(ply, move);
+                    if(ply == 0)
+                        rootScore = score;
+                    if(alpha >= beta)
+                        break;
+                }
+            }
+        }
+
+        if(useTable) {
+            int bound;
+            if(best <= alphaOriginal)
+                bound = TranspositionTable.UPPER_BOUND;
+            else if(best >= beta)
+                bound = TranspositionTable.LOWER_BOUND;
+            else
+                bound = TranspositionTable.EXACT;
+            table.store(key, bestMove, toTable(best, ply), depth, bound, generation);
+        }
+        return best;
+    }
+
+    /**
+     * Scores of won or lost positions count plies from the root; the table
+     * stores them counted from the position itself
+     */
+    private static int toTable(int score, int ply) {
+        if(score >= WIN - MAX_PLY)
+            return score + ply;
+        if(score <= -WIN + MAX_PLY)
+            return score - ply;
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if(score >= WIN - MAX_PLY)
+            return score - ply;
+        if(score <= -WIN + MAX_PLY)
+            return score + ply;
+        return score;
+    }
+
+    /**
+     * Swap a move to the front of a MoveList if it is there
+     */
+    private static void moveToFront(MoveList moves, int move) {
+        int index = moves.indexOf(move);
+        if(index > 0)
+            moves.swap(0, index);
+    }
+
+    /**
+     * Record a new best move at a ply, followed by the best line below it
+     */
+    private void updatePrincipalVariation(int ply, int move) {
+        pv[ply][ply] = move;
+        int length = pvLength[ply + 1];
+        for(int i = ply + 1; i < length; i++)
+            pv[ply][i] = pv[ply + 1][i];
+        pvLength[ply] = Math.max(length, ply + 1);
+    }
+
+    private int[] copyLine() {
+        int[] line = new int[pvLength[0]];
+        System.arraycopy(pv[0], 0, line, 0, line.length);
+        return line;
+    }
+
+    private void checkLimits() {
+        if(sharedStop != null && sharedStop.get())
+            stopped = true;
+        if(nodeLimit > 0 && nodes >= nodeLimit)
+            stopped = true;
+        if(deadline != 0 && System.nanoTime() >= deadline)
+            stopped = true;
+    }
+
+    private static long elapsedMillis(long start) {
+        return (System.nanoTime() - start) / 1000000L;
+    }
+
+    /**
+     * Retrieve the other color
+     *
+     * @param side
+     * @return Piece.PieceColor
+     */
+    static Piece.PieceColor opponent(Piece.PieceColor side) {
+        return side == Piece.PieceColor.RED ? Piece.PieceColor.WHITE : Piece.PieceColor.RED;
+    }
+
+}
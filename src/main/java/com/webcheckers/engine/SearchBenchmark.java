@@ -0,0 +1,130 @@
+package com.webcheckers.engine;
+
+import com.webcheckers.model.Board;
+import com.webcheckers.model.MoveList;
+import com.webcheckers.model.Piece;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Command line benchmark of how ParallelSearch scales with threads.
+ *
+ * The same fixed set of positions (the starting position and a few
+ * seeded random openings) is searched to a fixed depth with 1, 2, ... N
+ * threads, clearing the transposition table before every position.
+ * Nodes per second and time-to-depth are printed for each thread count,
+ * along with the time-to-depth speedup over a single thread.
+ *
+ * Run with:
+ * mvn compile exec:java -Dexec.mainClass=com.webcheckers.engine.SearchBenchmark -Dexec.args="depth threads positions"
+ *
+ * @authors
+ *      Summer DiStefano
+ *      Frank Abbey
+ *      Raisa Hossain
+ *      Stephen Bosonac
+ *
+ * @version 4/26/2020
+ *
+ */
+public final class SearchBenchmark {
+
+    private static final int DEFAULT_DEPTH = 14;
+    private static final int DEFAULT_POSITIONS = 8;
+    private static final int TABLE_SIZE_MB = 64;
+
+    /** Seed for the random openings, so every run searches the same positions */
+    private static final long SEED = 20200426L;
+
+    private SearchBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1])
+                : Runtime.getRuntime().availableProcessors();
+        int positionCount = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_POSITIONS;
+
+        List<Board> positions = positions(positionCount);
+        TranspositionTable table = new TranspositionTable(TABLE_SIZE_MB);
+
+        //untimed pass so the JIT has compiled the search before the single thread run
+        warmUp(positions, table, depth);
+
+        System.out.printf("%d positions, depth %d, %d MB table%n", positions.size(), depth, TABLE_SIZE_MB);
+        System.out.printf("%8s %14s %10s %12s %8s%n", "threads", "nodes", "ms", "nodes/s", "speedup");
+
+        long baseMillis = 0;
+        for(int threads = 1; threads <= maxThreads; threads++) {
+            SearchPool pool = new SearchPool(table, threads - 1, threads - 1);
+            ParallelSearch search = new ParallelSearch(pool);
+            long nodes = 0;
+            long nanos = 0;
+            for(Board position : positions) {
+                table.clear();
+                long start = System.nanoTime();
+                SearchResult result = search.search(position, SearchLimits.depth(depth));
+                nanos += System.nanoTime() - start;
+                nodes += result.getNodes();
+            }
+            pool.shutdown();
+
+            long millis = Math.max(1, nanos / 1000000L);
+            if(threads == 1)
+                baseMillis = millis;
+            System.out.printf("%8d %14d %10d %12d %8.2f%n", threads, nodes, millis,
+                    nodes * 1000L / millis, (double) baseMillis / millis);
+        }
+    }
+
+    private static void warmUp(List<Board> positions, TranspositionTable table, int depth) {
+        Search search = new Search(table);
+        for(Board position : positions) {
+            table.clear();
+            search.search(position, SearchLimits.depth(Math.max(1, depth - 2)));
+        }
+    }
+
+    /**
+     * The starting position followed by seeded random openings
+     *
+     * @param count - how many positions to build
+     * @return List<Board>
+     */
+    static List<Board> positions(int count) {
+        List<Board> positions = new ArrayList<>();
+        Random random = new Random(SEED);
+        Board start = new Board();
+        start.setActiveColor(Piece.PieceColor.RED);
+        positions.add(start);
+
+        while(positions.size() < count) {
+            Board board = start.copyBoard();
+            if(randomOpening(board, 6 + random.nextInt(10), random))
+                positions.add(board);
+        }
+        return positions;
+    }
+
+    /**
+     * Play random moves
+     *
+     * @return boolean - false if the game ended along the way
+     */
+    private static boolean randomOpening(Board board, int turns, Random random) {
+        MoveList moves = new MoveList();
+        Piece.PieceColor side = board.getActiveColor();
+        for(int turn = 0; turn < turns; turn++) {
+            if(board.generateMoves(side, moves) == 0)
+                return false;
+            int index = random.nextInt(moves.size());
+            board.makeMove(moves.get(index), moves.getCaptured(index));
+            side = Search.opponent(side);
+            board.setActiveColor(side);
+        }
+        return board.generateMoves(side, moves) > 0;
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.webcheckers.engine;
+
+/**
+ * Budget for a single search: the deepest iteration to start, the most
+ * nodes to visit and the most wall-clock time to spend. A search stops at
+ * whichever limit it reaches first.
+ *
+ * @authors
+ *      Summer DiStefano
+ *      Frank Abbey
+ *      Raisa Hossain
+ *      Stephen Bosonac
+ *
+ * @version 4/22/2020
+ *
+ */
+public class SearchLimits {
+
+    /** Deepest iteration any search will start */
+    public static final int MAX_DEPTH = 64;
+
+    /** Budget used by the AI Player unless told otherwise */
+    public static final SearchLimits DEFAULT = new SearchLimits(20, 2000000, 250);
+
+    private final int maxDepth;
+    private final long maxNodes;
+    private final long maxMillis;
+
+    /**
+     * Create a new search budget
+     *
+     * @param maxDepth - deepest iteration to start (capped at MAX_DEPTH)
+     * @param maxNodes - most nodes to visit, or 0 for no node limit
+     * @param maxMillis - most milliseconds to spend, or 0 for no time limit
+     */
+    public SearchLimits(int maxDepth, long maxNodes, long maxMillis) {
+        if(maxDepth < 1 || maxNodes < 0 || maxMillis < 0)
+            throw new IllegalArgumentException("Invalid search limits");
+        this.maxDepth = Math.min(maxDepth, MAX_DEPTH);
+        this.maxNodes = maxNodes;
+        this.maxMillis = maxMillis;
+    }
+
+    /**
+     * Create a budget limited only by depth
+     *
+     * @param depth
+     * @return SearchLimits
+     */
+    public static SearchLimits depth(int depth) {
+        return new SearchLimits(depth, 0, 0);
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public long getMaxNodes() {
+        return maxNodes;
+    }
+
+    public long getMaxMillis() {
+        return maxMillis;
+    }
+
+    /**
+     * ToString method
+     *
+     * @return - the limits displayed
+     */
+    @Override
+    public String toString() {
+        return "SearchLimits{" +
+                "maxDepth=" + maxDepth +
+                ", maxNodes=" + maxNodes +
+                ", maxMillis=" + maxMillis +
+                '}';
+    }
+
+}
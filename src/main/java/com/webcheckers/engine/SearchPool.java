@@ -0,0 +1,293 @@
+package com.webcheckers.engine;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * Threads and shared state used by every AI search on the server: the
+ * transposition table, a ForkJoinPool of helper threads, the evaluation
+ * every search copies, and the opening book and endgame tablebase, if
+ * there are any.
+ *
+ * Each search asks for a configured number of helpers, but all searches
+ * together never hold more than the pool's global cap; a search that
+ * finds the cap used up simply runs with fewer helpers (or none).
+ *
+ * The CPU time helpers spend is kept per thread that started the search
+ * they helped (see {@link #getHelperCpuNanos()}), so a search can be
+ * charged for its helpers as well as its own thread.
+ *
+ * @authors
+ *      Summer DiStefano
+ *      Frank Abbey
+ *      Raisa Hossain
+ *      Stephen Bosonac
+ *
+ * @version 5/8/2020
+ *
+ */
+public class SearchPool {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    /** CPU time helpers have spent on searches started by each thread */
+    private static final ThreadLocal<AtomicLong> HELPER_CPU = ThreadLocal.withInitial(AtomicLong::new);
+
+    private final TranspositionTable transpositionTable;
+    private final int helpersPerSearch;
+    private final int maxHelpers;
+    private final Semaphore helperPermits;
+    private final ForkJoinPool pool;
+    private final OpeningBook openingBook;
+    private final Tablebase tablebase;
+
+    /** Copied for each Search, which then owns its copy */
+    private final Evaluator evaluator;
+
+    /** Helper Search objects, one per pool thread */
+    private final ThreadLocal<Search> helperSearches;
+
+    /**
+     * Create a SearchPool without helper threads
+     *
+     * @param transpositionTable - the table shared by all searches
+     */
+    public SearchPool(TranspositionTable transpositionTable) {
+        this(transpositionTable, 0, 0);
+    }
+
+    /**
+     * Create a new SearchPool
+     *
+     * @param transpositionTable - the table shared by all searches
+     * @param helpersPerSearch - helper threads each search asks for
+     * @param maxHelpers - helper threads all searches may use at once
+     */
+    public SearchPool(TranspositionTable transpositionTable, int helpersPerSearch, int maxHelpers) {
+        this(transpositionTable, helpersPerSearch, maxHelpers, null, null);
+    }
+
+    /**
+     * Create a new SearchPool whose AI Players play from an opening book
+     * and an endgame tablebase
+     *
+     * @param transpositionTable - the table shared by all searches
+     * @param helpersPerSearch - helper threads each search asks for
+     * @param maxHelpers - helper threads all searches may use at once
+     * @param openingBook - the book, or null to search in the opening
+     * @param tablebase - the tablebase, or null to search in the endgame
+     */
+    public SearchPool(TranspositionTable transpositionTable, int helpersPerSearch, int maxHelpers,
+                      OpeningBook openingBook, Tablebase tablebase) {
+        this(transpositionTable, helpersPerSearch, maxHelpers, openingBook, tablebase, new DefaultEvaluator());
+    }
+
+    /**
+     * Create a new SearchPool whose searches score positions with a given
+     * evaluation
+     *
+     * @param transpositionTable - the table shared by all searches
+     * @param helpersPerSearch - helper threads each search asks for
+     * @param maxHelpers - helper threads all searches may use at once
+     * @param openingBook - the book, or null to search in the opening
+     * @param tablebase - the tablebase, or null to search in the endgame
+     * @param evaluator - the evaluation each search gets a copy of
+     */
+    public SearchPool(TranspositionTable transpositionTable, int helpersPerSearch, int maxHelpers,
+                      OpeningBook openingBook, Tablebase tablebase, Evaluator evaluator) {
+        if(helpersPerSearch < 0 || maxHelpers < 0)
+            throw new IllegalArgumentException("Helper thread counts must not be negative");
+        this.transpositionTable = transpositionTable;
+        this.helpersPerSearch = Math.min(helpersPerSearch, maxHelpers);
+        this.maxHelpers = maxHelpers;
+        this.helperPermits = new Semaphore(maxHelpers);
+        this.pool = maxHelpers > 0 ? new ForkJoinPool(maxHelpers) : null;
+        this.helperSearches = ThreadLocal.withInitial(() -> new Search(transpositionTable, evaluator.copy()));
+        this.openingBook = openingBook;
+        this.tablebase = tablebase;
+        this.evaluator = evaluator;
+    }
+
+    /**
+     * Run a search on the calling thread with as many helpers as the pool
+     * can spare. Once the calling thread's part is done, or fails, the
+     * stop flag is set and every helper is joined and given back, so a
+     * failed search doesn't keep its helpers from every later one.
+     *
+     * @param helper - body of each helper, given its number from 1
+     * @param main - the calling thread's part of the search
+     * @param stop - flag the helpers stop on; set once main is done
+     * @return List<T> - the results of the helpers that finished; a helper
+     *                   that failed is left out
+     */
+    <T> List<T> runWithHelpers(IntFunction<T> helper, Runnable main, AtomicBoolean stop) {
+        int helpers = acquireHelpers();
+        List<ForkJoinTask<T>> tasks = new ArrayList<>(helpers);
+        List<T> results = new ArrayList<>(helpers);
+        try {
+            try {
+                for(int i = 1; i <= helpers; i++) {
+                    final int helperIndex = i;
+                    tasks.add(submitHelper(() -> helper.apply(helperIndex)));
+                }
+            } catch(RejectedExecutionException e) {
+                //the pool was shut down; carry on with the helpers already started
+            }
+            main.run();
+        } finally {
+            stop.set(true);
+            for(ForkJoinTask<T> task : tasks) {
+                try {
+                    results.add(task.join());
+                } catch(RuntimeException e) {
+                    //a helper only ever adds to what the search knows; its failure does not matter
+                }
+            }
+            releaseHelpers(helpers);
+        }
+        return results;
+    }
+
+    /**
+     * Reserve helper threads for one search
+     *
+     * @return int - the number reserved, between 0 and helpersPerSearch
+     */
+    private int acquireHelpers() {
+        for(int helpers = helpersPerSearch; helpers > 0; helpers--) {
+            if(helperPermits.tryAcquire(helpers))
+                return helpers;
+        }
+        return 0;
+    }
+
+    /**
+     * Give back helper threads reserved with acquireHelpers()
+     *
+     * @param helpers - the number reserved
+     */
+    private void releaseHelpers(int helpers) {
+        if(helpers > 0)
+            helperPermits.release(helpers);
+    }
+
+    /**
+     * Start a helper task for a search running on the calling thread; the
+     * CPU time the task uses is added to the calling thread's account
+     *
+     * @param task - the helper's work
+     * @return ForkJoinTask - to join once the search is done
+     */
+    private <T> ForkJoinTask<T> submitHelper(Callable<T> task) {
+        AtomicLong account = HELPER_CPU.get();
+        return pool.submit(() -> {
+            long start = threadCpuNanos();
+            try {
+                return task.call();
+            } finally {
+                account.addAndGet(threadCpuNanos() - start);
+            }
+        });
+    }
+
+    /**
+     * Retrieve the CPU time helper threads have spent on searches started
+     * by the calling thread, for it to be charged for. Helpers are joined
+     * before a search returns, so the time of a finished search is all in.
+     *
+     * @return long - nanoseconds, counted since the thread's first search
+     */
+    public static long getHelperCpuNanos() {
+        return HELPER_CPU.get().get();
+    }
+
+    /**
+     * CPU time used by the calling thread, or wall-clock time where the
+     * JVM can't measure it
+     */
+    private static long threadCpuNanos() {
+        if(THREADS.isCurrentThreadCpuTimeSupported())
+            return THREADS.getCurrentThreadCpuTime();
+        return System.nanoTime();
+    }
+
+    /**
+     * Retrieve the Search belonging to the calling pool thread
+     *
+     * @return Search
+     */
+    Search helperSearch() {
+        return helperSearches.get();
+    }
+
+    ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return transpositionTable;
+    }
+
+    /**
+     * Retrieve the opening book
+     *
+     * @return OpeningBook - the book, or null if there isn't one
+     */
+    public OpeningBook getOpeningBook() {
+        return openingBook;
+    }
+
+    /**
+     * Retrieve the endgame tablebase
+     *
+     * @return Tablebase - the tablebase, or null if there isn't one
+     */
+    public Tablebase getTablebase() {
+        return tablebase;
+    }
+
+    /**
+     * Create an evaluation for a new Search
+     *
+     * @return Evaluator - a copy of the pool's, for one Search to own
+     */
+    public Evaluator newEvaluator() {
+        return evaluator.copy();
+    }
+
+    public int getHelpersPerSearch() {
+        return helpersPerSearch;
+    }
+
+    public int getMaxHelpers() {
+        return maxHelpers;
+    }
+
+    /**
+     * Retrieve the number of helper threads not reserved by any search
+     *
+     * @return int
+     */
+    public int getIdleHelpers() {
+        return helperPermits.availablePermits();
+    }
+
+    /**
+     * Stop the helper threads; running searches finish without them
+     */
+    public void shutdown() {
+        if(pool != null)
+            pool.shutdownNow();
+    }
+
+}
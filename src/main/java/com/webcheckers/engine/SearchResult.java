@@ -0,0 +1,152 @@
+package com.webcheckers.engine;
+
+import com.webcheckers.model.Move;
+
+import java.util.Arrays;
+
+/**
+ * Outcome of a search: the best move found, its score from the point of
+ * view of the side to move, and how much work the search did.
+ *
+ * @authors
+ *      Summer DiStefano
+ *      Frank Abbey
+ *      Raisa Hossain
+ *      Stephen Bosonac
+ *
+ * @version 5/6/2020
+ *
+ */
+public class SearchResult {
+
+    /** Where a result's move came from */
+    public enum Source { SEARCH, BOOK, TABLEBASE }
+
+    private final int bestMove;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long elapsedMillis;
+    private final int[] principalVariation;
+    private final Source source;
+
+    /**
+     * Create a new SearchResult
+     *
+     * @param bestMove - the encoded best move, or Move.NONE if there is no legal move
+     * @param score - score of the best move for the side to move
+     * @param depth - deepest iteration that finished
+     * @param nodes - number of nodes visited
+     * @param elapsedMillis - wall-clock time spent
+     * @param principalVariation - the expected line of encoded moves, best move first
+     */
+    public SearchResult(int bestMove, int score, int depth, long nodes, long elapsedMillis,
+                        int[] principalVariation) {
+        this(bestMove, score, depth, nodes, elapsedMillis, principalVariation, Source.SEARCH);
+    }
+
+    /**
+     * Create a new SearchResult that may come from the opening book or
+     * the endgame tablebase rather than a search
+     *
+     * @param bestMove - the encoded best move, or Move.NONE if there is no legal move
+     * @param score - score of the best move for the side to move
+     * @param depth - deepest iteration that finished
+     * @param nodes - number of nodes visited
+     * @param elapsedMillis - wall-clock time spent
+     * @param principalVariation - the expected line of encoded moves, best move first
+     * @param source - where the move was taken from
+     */
+    public SearchResult(int bestMove, int score, int depth, long nodes, long elapsedMillis,
+                        int[] principalVariation, Source source) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.elapsedMillis = elapsedMillis;
+        this.principalVariation = principalVariation;
+        this.source = source;
+    }
+
+    /**
+     * Determine if the search found a move at all
+     *
+     * @return boolean
+     */
+    public boolean hasMove() {
+        return bestMove != Move.NONE;
+    }
+
+    /**
+     * Determine if the move came from the opening book, without a search
+     *
+     * @return boolean
+     */
+    public boolean isBookMove() {
+        return source == Source.BOOK;
+    }
+
+    /**
+     * Determine if the move was looked up in the endgame tablebase,
+     * without a search
+     *
+     * @return boolean
+     */
+    public boolean isTablebaseMove() {
+        return source == Source.TABLEBASE;
+    }
+
+    public Source getSource() {
+        return source;
+    }
+
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Retrieve the expected line of play, starting with the best move.
+     * The sides alternate: a whole jump sequence is one move, so the
+     * second move is always the opponent's reply.
+     *
+     * @return int[] - encoded moves
+     */
+    public int[] getPrincipalVariation() {
+        return principalVariation.clone();
+    }
+
+    /**
+     * ToString method
+     *
+     * @return - the result displayed
+     */
+    @Override
+    public String toString() {
+        return "SearchResult{" +
+                "bestMove=" + bestMove +
+                ", score=" + score +
+                ", depth=" + depth +
+                ", nodes=" + nodes +
+                ", elapsedMillis=" + elapsedMillis +
+                ", principalVariation=" + Arrays.toString(principalVariation) +
+                ", source=" + source +
+                '}';
+    }
+
+}
@@ -0,0 +1,649 @@
+package com.webcheckers.engine;
+
+import com.webcheckers.model.AIPlayer;
+import com.webcheckers.model.Bitboards;
+import com.webcheckers.model.Board;
+import com.webcheckers.model.CheckersGame;
+import com.webcheckers.model.Move;
+import com.webcheckers.model.MoveList;
+import com.webcheckers.model.Piece;
+import com.webcheckers.model.Turn;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Headless self-play: plays CheckersGames between two engine
+ * configurations, A and B, on every core, without a web server.
+ *
+ * Games are played in pairs from the same random opening, A playing red
+ * in one and white in the other, so neither side profits from a lucky
+ * opening. A game is drawn after DRAW_PLIES plies in which no man moves
+ * and nothing is captured, or after MAX_PLIES plies in all.
+ *
+ * Each game is one line of the output file (gzipped if the name ends in
+ * .gz): its number, the color A played, the result for red and white,
+ * the number of plies and the moves, like
+ * "12	red	1-0	57	11-15 23-19 8-11 22x15x6 ...".
+ *
+ * Run with:
+ * mvn compile exec:java -Dexec.mainClass=com.webcheckers.engine.SelfPlay -Dexec.args="[options] A B"
+ *
+ * A and B are Strength names ("easy") or "depth/nodes/millis" budgets
+ * ("8/0/0"; 0 is no limit, and depth 0 is SearchLimits.MAX_DEPTH),
+ * searched with alpha-beta, or with Monte Carlo tree search if prefixed
+ * with "mcts:" ("mcts:easy"). Options:
+ *   -games N          games to play, rounded up to pairs (default 1000)
+ *   -threads N        games played at once (default: the processor count)
+ *   -openingPlies N   random plies before the engines take over (default 4)
+ *   -seed N           seed of the random openings (default 1)
+ *   -tableMb N        transposition table of each side on each thread (default 16)
+ *   -book FILE        opening book both sides play from (default: none)
+ *   -tablebase FILE   endgame tablebase both sides play from (default: none)
+ *   -weightsA FILE    evaluation weights of A (default: the built-in ones)
+ *   -weightsB FILE    evaluation weights of B (default: the built-in ones)
+ *   -out FILE         where to write the games (default selfplay.txt.gz)
+ *
+ * @authors
+ *      Summer DiStefano
+ *      Frank Abbey
+ *      Raisa Hossain
+ *      Stephen Bosonac
+ *
+ * @version 5/10/2020
+ *
+ */
+public class SelfPlay {
+
+    /** Plies without a man moving or a capture that draw the game */
+    public static final int DRAW_PLIES = 80;
+
+    /** Plies after which a game is drawn regardless */
+    public static final int MAX_PLIES = 400;
+
+    /** Prefix of a side played with Monte Carlo tree search */
+    private static final String MONTE_CARLO_PREFIX = "mcts:";
+
+    /** Result of one game */
+    public enum Outcome { A_WINS, DRAW, B_WINS }
+
+    private final Settings settingsA;
+    private final Settings settingsB;
+    private final int openingPlies;
+    private final long seed;
+    private final int tableMb;
+    private final OpeningBook openingBook;
+    private final Tablebase tablebase;
+
+    /** Each thread's players, so tables are allocated once per thread */
+    private final ThreadLocal<Side[]> sides;
+
+    /**
+     * How one side plays: its search budget, its engine and the weights it
+     * evaluates with
+     */
+    public static class Settings {
+        private final SearchLimits limits;
+        private final Engine engine;
+        private final EvaluationWeights weights;
+
+        /**
+         * Create new Settings
+         *
+         * @param limits - budget of the side's searches
+         * @param engine - the kind of search it plays with
+         * @param weights - the weights it evaluates with
+         */
+        public Settings(SearchLimits limits, Engine engine, EvaluationWeights weights) {
+            this.limits = limits;
+            this.engine = engine;
+            this.weights = weights;
+        }
+
+        /**
+         * Read a side's settings: a Strength name or "depth/nodes/millis",
+         * optionally prefixed with "mcts:" for Monte Carlo tree search
+         *
+         * @param text
+         * @param weights - the weights the side evaluates with
+         * @return Settings
+         */
+        static Settings parse(String text, EvaluationWeights weights) {
+            if(text.startsWith(MONTE_CARLO_PREFIX))
+                return new Settings(parseLimits(text.substring(MONTE_CARLO_PREFIX.length())),
+                        Engine.MONTE_CARLO, weights);
+            return new Settings(parseLimits(text), Engine.ALPHA_BETA, weights);
+        }
+    }
+
+    /**
+     * One configuration's table and the statistics of its searches
+     */
+    private static class Side {
+        private final SearchPool pool;
+        private final SearchLimits limits;
+        private final Engine engine;
+
+        Side(TranspositionTable table, Settings settings, OpeningBook openingBook, Tablebase tablebase) {
+            this.pool = new SearchPool(table, 0, 0, openingBook, tablebase, new DefaultEvaluator(settings.weights));
+            this.limits = settings.limits;
+            this.engine = settings.engine;
+        }
+    }
+
+    /**
+     * The record of one finished game, as played or as read back from a
+     * line of a games file
+     */
+    public static class GameRecord {
+        private final int index;
+        private final boolean aIsRed;
+        private final Outcome outcome;
+        private final List<String> moves;
+        private final long[] nodes = new long[2];
+        private final int[] searches = new int[2];
+        private final int[] bookMoves = new int[2];
+        private final int[] tablebaseMoves = new int[2];
+
+        GameRecord(int index, boolean aIsRed, Outcome outcome, List<String> moves, long[] nodes, int[] searches,
+                   int[] bookMoves, int[] tablebaseMoves) {
+            this.index = index;
+            this.aIsRed = aIsRed;
+            this.outcome = outcome;
+            this.moves = moves;
+            System.arraycopy(nodes, 0, this.nodes, 0, 2);
+            System.arraycopy(searches, 0, this.searches, 0, 2);
+            System.arraycopy(bookMoves, 0, this.bookMoves, 0, 2);
+            System.arraycopy(tablebaseMoves, 0, this.tablebaseMoves, 0, 2);
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        public boolean isAIsRed() {
+            return aIsRed;
+        }
+
+        public int getPlies() {
+            return moves.size();
+        }
+
+        /**
+         * Read a game back from a line of a games file. Its search
+         * statistics aren't written, so they read as 0.
+         *
+         * @param line - the line, as toLine() writes it
+         * @return GameRecord
+         * @throws IllegalArgumentException - if the line isn't a game
+         */
+        public static GameRecord parse(String line) {
+            String[] fields = line.split("\t");
+            if(fields.length < 4)
+                throw new IllegalArgumentException("Not a game: " + line);
+            boolean aIsRed;
+            switch(fields[1]) {
+                case "red":
+                    aIsRed = true;
+                    break;
+                case "white":
+                    aIsRed = false;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Not a color: " + fields[1]);
+            }
+            Outcome outcome;
+            switch(fields[2]) {
+                case "1-0":
+                    outcome = aIsRed ? Outcome.A_WINS : Outcome.B_WINS;
+                    break;
+                case "0-1":
+                    outcome = aIsRed ? Outcome.B_WINS : Outcome.A_WINS;
+                    break;
+                case "1/2-1/2":
+                    outcome = Outcome.DRAW;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Not a result: " + fields[2]);
+            }
+            List<String> moves = fields.length < 5 || fields[4].trim().isEmpty() ? new ArrayList<>()
+                    : Arrays.asList(fields[4].trim().split(" +"));
+            try {
+                return new GameRecord(Integer.parseInt(fields[0]), aIsRed, outcome, moves, new long[2], new int[2],
+                        new int[2], new int[2]);
+            } catch(NumberFormatException e) {
+                throw new IllegalArgumentException("Not a game number: " + fields[0], e);
+            }
+        }
+
+        /**
+         * Get the points red earned
+         *
+         * @return int - 2 if red won, 1 if the game was drawn, 0 if red lost
+         */
+        public int getRedPoints() {
+            if(outcome == Outcome.DRAW)
+                return 1;
+            return (outcome == Outcome.A_WINS) == aIsRed ? 2 : 0;
+        }
+
+        /**
+         * Play the game's first moves again from the starting position
+         *
+         * @param plies - most plies to play
+         * @param positions - filled with the position before each ply played
+         *                    and the one after the last, each with its side to
+         *                    move; at least plies + 1 long
+         * @param played - filled with each ply's move as the generator gives it
+         * @param jumped - filled with the Pieces each ply jumps
+         * @return int - the plies played: plies, or fewer if the game is shorter
+         * @throws IllegalArgumentException - if a move can't be read
+         */
+        public int replay(int plies, Board[] positions, int[] played, int[] jumped) {
+            int length = Math.min(plies, moves.size());
+            MoveList list = new MoveList();
+            Board board = Board.fromFen(Perft.START);
+            for(int ply = 0; ply < length; ply++) {
+                positions[ply] = board.copyBoard();
+                Piece.PieceColor side = board.getActiveColor();
+                int count = board.generateMoves(side, list);
+                int index = 0;
+                while(index < count && !Perft.notation(list, index).equals(moves.get(ply)))
+                    index++;
+                if(index == count)
+                    throw new IllegalArgumentException("Not a move at ply " + (ply + 1) + ": " + moves.get(ply));
+                played[ply] = list.get(index);
+                jumped[ply] = list.getCaptured(index);
+                board.makeMove(played[ply], jumped[ply]);
+                board.setActiveColor(Search.opponent(side));
+            }
+            positions[length] = board;
+            return length;
+        }
+
+        /**
+         * Write this game as one line of the output file
+         *
+         * @return String
+         */
+        public String toLine() {
+            String result;
+            if(outcome == Outcome.DRAW)
+                result = "1/2-1/2";
+            else
+                result = (outcome == Outcome.A_WINS) == aIsRed ? "1-0" : "0-1";
+            return index + "\t" + (aIsRed ? "red" : "white") + "\t" + result + "\t" + moves.size()
+                    + "\t" + String.join(" ", moves);
+        }
+    }
+
+    /**
+     * Create a new SelfPlay
+     *
+     * @param limitsA - budget of A's searches
+     * @param limitsB - budget of B's searches
+     * @param openingPlies - random plies played before the engines take over
+     * @param seed - seed of the random openings
+     * @param tableMb - size of each side's table on each thread
+     */
+    public SelfPlay(SearchLimits limitsA, SearchLimits limitsB, int openingPlies, long seed, int tableMb) {
+        this(limitsA, limitsB, openingPlies, seed, tableMb, null, null);
+    }
+
+    /**
+     * Create a new SelfPlay where both sides play from an opening book and
+     * an endgame tablebase
+     *
+     * @param limitsA - budget of A's searches
+     * @param limitsB - budget of B's searches
+     * @param openingPlies - random plies played before the engines take over
+     * @param seed - seed of the random openings
+     * @param tableMb - size of each side's table on each thread
+     * @param openingBook - the book, or null to search the opening
+     * @param tablebase - the tablebase, or null to search the endgame
+     */
+    public SelfPlay(SearchLimits limitsA, SearchLimits limitsB, int openingPlies, long seed, int tableMb,
+                    OpeningBook openingBook, Tablebase tablebase) {
+        this(new Settings(limitsA, Engine.ALPHA_BETA, EvaluationWeights.DEFAULT),
+                new Settings(limitsB, Engine.ALPHA_BETA, EvaluationWeights.DEFAULT),
+                openingPlies, seed, tableMb, openingBook, tablebase);
+    }
+
+    /**
+     * Create a new SelfPlay between two sets of settings
+     *
+     * @param settingsA - how A plays
+     * @param settingsB - how B plays
+     * @param openingPlies - random plies played before the engines take over
+     * @param seed - seed of the random openings
+     * @param tableMb - size of each side's table on each thread
+     * @param openingBook - the book, or null to search the opening
+     * @param tablebase - the tablebase, or null to search the endgame
+     */
+    public SelfPlay(Settings settingsA, Settings settingsB, int openingPlies, long seed, int tableMb,
+                    OpeningBook openingBook, Tablebase tablebase) {
+        if(openingPlies < 0)
+            throw new IllegalArgumentException("Opening plies must not be negative: " + openingPlies);
+        this.settingsA = settingsA;
+        this.settingsB = settingsB;
+        this.openingPlies = openingPlies;
+        this.seed = seed;
+        this.tableMb = tableMb;
+        this.openingBook = openingBook;
+        this.tablebase = tablebase;
+        this.sides = ThreadLocal.withInitial(() -> new Side[] {
+                new Side(new TranspositionTable(this.tableMb), this.settingsA, this.openingBook, this.tablebase),
+                new Side(new TranspositionTable(this.tableMb), this.settingsB, this.openingBook, this.tablebase)
+        });
+    }
+
+    /**
+     * Play one game. Games 2n and 2n+1 start from the same opening, with
+     * A red in the first and white in the second.
+     *
+     * @param index - the game's number
+     * @return GameRecord
+     */
+    public GameRecord play(int index) {
+        boolean aIsRed = index % 2 == 0;
+        List<String> moves = new ArrayList<>();
+        Board board = opening(new Random(seed * 31 + index / 2), moves);
+
+        Side[] both = sides.get();
+        Side a = both[0];
+        Side b = both[1];
+        a.pool.getTranspositionTable().clear();
+        b.pool.getTranspositionTable().clear();
+        AIPlayer playerA = new AIPlayer("A", a.pool, Strength.DEFAULT, a.engine);
+        AIPlayer playerB = new AIPlayer("B", b.pool, Strength.DEFAULT, b.engine);
+        CheckersGame game = aIsRed ? new CheckersGame(playerA, playerB, board)
+                : new CheckersGame(playerB, playerA, board);
+
+        long[] nodes = new long[2];
+        int[] searches = new int[2];
+        int[] bookMoves = new int[2];
+        int[] tablebaseMoves = new int[2];
+        int quietPlies = 0;
+        int men = men(board);
+        int pieces = Integer.bitCount(men | board.getKings());
+
+        while(!game.isOver() && moves.size() < MAX_PLIES && quietPlies < DRAW_PLIES) {
+            Turn turn = game.getTurn();
+            boolean aToMove = turn.getPlayer() == playerA;
+            AIPlayer player = aToMove ? playerA : playerB;
+            List<Move> hops = player.chooseMove(game, aToMove ? a.limits : b.limits);
+            if(hops.isEmpty())
+                break;
+
+            int side = aToMove ? 0 : 1;
+            SearchResult result = player.getLastSearch();
+            nodes[side] += result.getNodes();
+            if(result.isBookMove())
+                bookMoves[side]++;
+            else if(result.isTablebaseMove())
+                tablebaseMoves[side]++;
+            else
+                searches[side]++;
+
+            moves.add(notation(hops));
+            for(Move hop : hops)
+                turn.makeMove(hop);
+            game.submitTurn();
+
+            //a man moving or a capture can't be undone, so the game is progressing
+            Board now = game.getBoard();
+            int nowMen = men(now);
+            int nowPieces = Integer.bitCount(nowMen | now.getKings());
+            quietPlies = nowMen != men || nowPieces != pieces ? 0 : quietPlies + 1;
+            men = nowMen;
+            pieces = nowPieces;
+        }
+
+        Outcome outcome = Outcome.DRAW;
+        if(game.isOver())
+            outcome = game.getWinner() == playerA ? Outcome.A_WINS : Outcome.B_WINS;
+        return new GameRecord(index, aIsRed, outcome, moves, nodes, searches, bookMoves, tablebaseMoves);
+    }
+
+    private static int men(Board board) {
+        return (board.piecesOf(Piece.PieceColor.RED) | board.piecesOf(Piece.PieceColor.WHITE)) & ~board.getKings();
+    }
+
+    /**
+     * Play random plies from the starting position, recording them
+     */
+    private Board opening(Random random, List<String> moves) {
+        Board board = Board.fromFen(Perft.START);
+        MoveList list = new MoveList();
+        for(int ply = 0; ply < openingPlies; ply++) {
+            Piece.PieceColor side = board.getActiveColor();
+            int count = board.generateMoves(side, list);
+            if(count == 0)
+                break;
+            int index = random.nextInt(count);
+            moves.add(Perft.notation(list, index));
+            board.makeMove(list.get(index), list.getCaptured(index));
+            board.setActiveColor(Search.opponent(side));
+        }
+        return board;
+    }
+
+    /**
+     * Write a Move made of hops in the usual checkers notation
+     */
+    private static String notation(List<Move> hops) {
+        Move first = hops.get(0);
+        StringBuilder text = new StringBuilder().append(Bitboards.square(first.getStart()) + 1);
+        char separator = first.isSingleMove() ? '-' : 'x';
+        for(Move hop : hops)
+            text.append(separator).append(Bitboards.square(hop.getEnd()) + 1);
+        return text.toString();
+    }
+
+    /**
+     * Read an engine configuration: a Strength name or "depth/nodes/millis",
+     * where 0 is no limit
+     *
+     * @param text
+     * @return SearchLimits
+     */
+    static SearchLimits parseLimits(String text) {
+        String[] parts = text.split("/");
+        if(parts.length == 3) {
+            int depth = Integer.parseInt(parts[0]);
+            return new SearchLimits(depth == 0 ? SearchLimits.MAX_DEPTH : depth,
+                    Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+        }
+        for(Strength strength : Strength.values()) {
+            if(strength.name().equalsIgnoreCase(text))
+                return strength.getLimits();
+        }
+        throw new IllegalArgumentException("Not a strength or depth/nodes/millis: " + text);
+    }
+
+    /**
+     * Open a file to write games to, gzipped if its name ends in .gz
+     *
+     * @param file - the file's name
+     * @return Writer - for the caller to close
+     * @throws IOException - if the file can't be written
+     */
+    static Writer openGames(String file) throws IOException {
+        OutputStream out = new FileOutputStream(file);
+        try {
+            if(file.endsWith(".gz"))
+                out = new GZIPOutputStream(out);
+            return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        } catch(IOException | RuntimeException e) {
+            out.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Open a file of games to read, gzipped if its name ends in .gz
+     *
+     * @param file - the file's name
+     * @return BufferedReader - for the caller to close
+     * @throws IOException - if the file can't be read
+     */
+    static BufferedReader readGames(String file) throws IOException {
+        InputStream in = new FileInputStream(file);
+        try {
+            if(file.endsWith(".gz"))
+                in = new GZIPInputStream(in);
+            return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        } catch(IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int games = 1000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int openingPlies = 4;
+        long seed = 1;
+        int tableMb = TranspositionTable.DEFAULT_SIZE_MB;
+        String out = "selfplay.txt.gz";
+        String book = null;
+        String tablebase = null;
+        EvaluationWeights weightsA = EvaluationWeights.DEFAULT;
+        EvaluationWeights weightsB = EvaluationWeights.DEFAULT;
+        List<String> engines = new ArrayList<>();
+
+        for(int i = 0; i < args.length; i++) {
+            switch(args[i]) {
+                case "-games":
+                    games = Integer.parseInt(args[++i]);
+                    break;
+                case "-threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "-openingPlies":
+                    openingPlies = Integer.parseInt(args[++i]);
+                    break;
+                case "-seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                case "-tableMb":
+                    tableMb = Integer.parseInt(args[++i]);
+                    break;
+                case "-out":
+                    out = args[++i];
+                    break;
+                case "-book":
+                    book = args[++i];
+                    break;
+                case "-tablebase":
+                    tablebase = args[++i];
+                    break;
+                case "-weightsA":
+                    weightsA = EvaluationWeights.load(Paths.get(args[++i]));
+                    break;
+                case "-weightsB":
+                    weightsB = EvaluationWeights.load(Paths.get(args[++i]));
+                    break;
+                default:
+                    engines.add(args[i]);
+            }
+        }
+        if(engines.size() != 2) {
+            System.err.println("usage: SelfPlay [-games N] [-threads N] [-openingPlies N] [-seed N]"
+                    + " [-tableMb N] [-out file] [-book file] [-tablebase file]"
+                    + " [-weightsA file] [-weightsB file] A B");
+            System.exit(2);
+        }
+
+        SelfPlay selfPlay = new SelfPlay(Settings.parse(engines.get(0), weightsA),
+                Settings.parse(engines.get(1), weightsB), openingPlies, seed, tableMb,
+                book == null ? null : new OpeningBook(Paths.get(book)),
+                tablebase == null ? null : new Tablebase(Paths.get(tablebase)));
+        int pairs = (games + 1) / 2;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+        //[A's color][outcome]
+        int[][] matrix = new int[2][3];
+        long[] nodes = new long[2];
+        long[] searches = new long[2];
+        long[] bookMoves = new long[2];
+        long[] tablebaseMoves = new long[2];
+        long plies = 0;
+        long start = System.nanoTime();
+
+        try(Writer writer = openGames(out)) {
+            writer.write("# A=" + engines.get(0) + " B=" + engines.get(1) + " openingPlies=" + openingPlies
+                    + " seed=" + seed + "\n");
+
+            List<Future<GameRecord>> results = new ArrayList<>();
+            for(int index = 0; index < pairs * 2; index++) {
+                final int game = index;
+                results.add(pool.submit(() -> selfPlay.play(game)));
+            }
+            for(int index = 0; index < results.size(); index++) {
+                GameRecord record = results.get(index).get();
+                writer.write(record.toLine());
+                writer.write('\n');
+
+                matrix[record.aIsRed ? 0 : 1][record.outcome.ordinal()]++;
+                for(int side = 0; side < 2; side++) {
+                    nodes[side] += record.nodes[side];
+                    searches[side] += record.searches[side];
+                    bookMoves[side] += record.bookMoves[side];
+                    tablebaseMoves[side] += record.tablebaseMoves[side];
+                }
+                plies += record.getPlies();
+                if((index + 1) % 100 == 0)
+                    System.out.printf("%d games, %.1f games/s%n", index + 1, (index + 1) / seconds(start));
+            }
+        } catch(IOException e) {
+            System.err.println("Could not write " + out + ": " + e.getMessage());
+            System.exit(1);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        int total = pairs * 2;
+        double elapsed = seconds(start);
+        System.out.printf("%nA = %s, B = %s: %d games in %.1f s, %.2f games/s, %.1f plies/game%n",
+                engines.get(0), engines.get(1), total, elapsed, total / elapsed, plies / (double) total);
+        System.out.printf("nodes/move: A %.0f, B %.0f%n",
+                nodes[0] / (double) Math.max(1, searches[0]), nodes[1] / (double) Math.max(1, searches[1]));
+        if(book != null)
+            System.out.printf("book moves: A %d, B %d%n", bookMoves[0], bookMoves[1]);
+        if(tablebase != null)
+            System.out.printf("tablebase moves: A %d, B %d%n", tablebaseMoves[0], tablebaseMoves[1]);
+        System.out.printf("%-12s %8s %8s %8s%n", "", "A wins", "draws", "B wins");
+        System.out.printf("%-12s %8d %8d %8d%n", "A as red", matrix[0][0], matrix[0][1], matrix[0][2]);
+        System.out.printf("%-12s %8d %8d %8d%n", "A as white", matrix[1][0], matrix[1][1], matrix[1][2]);
+        int wins = matrix[0][0] + matrix[1][0];
+        int draws = matrix[0][1] + matrix[1][1];
+        System.out.printf("%-12s %8d %8d %8d   A scores %.1f%%%n", "total", wins, draws,
+                matrix[0][2] + matrix[1][2], 100.0 * (wins + draws / 2.0) / total);
+        System.out.println("games written to " + out);
+    }
+
+    private static double seconds(long start) {
+        return (System.nanoTime() - start) / 1e9;
+    }
+
+}
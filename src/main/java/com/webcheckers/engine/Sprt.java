@@ -0,0 +1,362 @@
+package com.webcheckers.engine;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Sequential probability ratio test of one engine configuration, A,
+ * against another, B: plays SelfPlay games until there is enough
+ * evidence that A is at least elo1 stronger than B (H1) or no more than
+ * elo0 stronger (H0), with error rates alpha and beta. An engine speedup
+ * passes with elo0 = -5, elo1 = 0 if it doesn't cost strength; a change
+ * meant to add strength with elo0 = 0, elo1 = 5.
+ *
+ * Games are played in pairs from the same opening, colors swapped, so
+ * the test counts pairs by A's score in them (0, 1/2, 1, 3/2 or 2) and
+ * takes the variance from the pairs. That keeps an unbalanced opening
+ * from counting as a result. The log-likelihood ratio is the usual
+ * normal approximation, in logistic Elo.
+ *
+ * Run with:
+ * mvn compile exec:java -Dexec.mainClass=com.webcheckers.engine.Sprt -Dexec.args="[options] A B"
+ *
+ * A and B are read as in SelfPlay. Options:
+ *   -elo0 N, -elo1 N   the hypotheses, in Elo (default 0 and 5)
+ *   -alpha N, -beta N  the error rates (default 0.05 each)
+ *   -maxGames N        give up after this many games (default 0, no limit)
+ *   -threads, -openingPlies, -seed, -tableMb, -book, -tablebase, -weightsA,
+ *   -weightsB and -out as in SelfPlay; games are only written if -out is given
+ *
+ * @authors
+ *      Summer DiStefano
+ *      Frank Abbey
+ *      Raisa Hossain
+ *      Stephen Bosonac
+ *
+ * @version 5/10/2020
+ *
+ */
+public class Sprt {
+
+    /** What the test has decided so far */
+    public enum Decision { CONTINUE, ACCEPT_H0, ACCEPT_H1 }
+
+    /** Pairs reported between progress lines */
+    private static final int REPORT_PAIRS = 50;
+
+    /**
+     * Least variance of a pair's score. Deterministic engines can score
+     * the same in every pair, which would leave the ratio undefined.
+     */
+    private static final double MIN_VARIANCE = 1e-3;
+
+    private final double score0;
+    private final double score1;
+    private final double lowerBound;
+    private final double upperBound;
+
+    /** Pairs by A's score in half points, 0 to 4 */
+    private final int[] pairs = new int[5];
+
+    /** Games by A's result: wins, draws, losses */
+    private final int[] games = new int[3];
+
+    /**
+     * Create a new Sprt
+     *
+     * @param elo0 - Elo difference of the null hypothesis
+     * @param elo1 - Elo difference of the alternative, above elo0
+     * @param alpha - chance of accepting H1 when H0 holds
+     * @param beta - chance of accepting H0 when H1 holds
+     */
+    public Sprt(double elo0, double elo1, double alpha, double beta) {
+        if(elo1 <= elo0)
+            throw new IllegalArgumentException("elo1 must be above elo0: " + elo0 + ", " + elo1);
+        if(alpha <= 0 || alpha >= 1 || beta <= 0 || beta >= 1)
+            throw new IllegalArgumentException("Error rates must be between 0 and 1: " + alpha + ", " + beta);
+        this.score0 = score(elo0);
+        this.score1 = score(elo1);
+        this.lowerBound = Math.log(beta / (1 - alpha));
+        this.upperBound = Math.log((1 - beta) / alpha);
+    }
+
+    /**
+     * The expected score of a side that many Elo stronger
+     */
+    static double score(double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+
+    /**
+     * The Elo difference a score is expected of
+     */
+    static double elo(double score) {
+        return -400 * Math.log10(1 / score - 1);
+    }
+
+    /**
+     * Count a pair of games from the same opening
+     *
+     * @param first - the result of one
+     * @param second - the result of the other, colors swapped
+     */
+    public synchronized void add(SelfPlay.Outcome first, SelfPlay.Outcome second) {
+        games[first.ordinal()]++;
+        games[second.ordinal()]++;
+        pairs[4 - first.ordinal() - second.ordinal()]++;
+    }
+
+    /**
+     * Retrieve the number of games counted
+     *
+     * @return int
+     */
+    public synchronized int getGames() {
+        return games[0] + games[1] + games[2];
+    }
+
+    /**
+     * Retrieve A's wins, draws and losses
+     *
+     * @return int[]
+     */
+    public synchronized int[] getResults() {
+        return games.clone();
+    }
+
+    /**
+     * A's mean score per game, and the variance of its score per pair,
+     * over the pairs counted
+     */
+    private double[] meanAndVariance() {
+        int count = 0;
+        double sum = 0;
+        double squares = 0;
+        for(int half = 0; half < pairs.length; half++) {
+            double score = half / 4.0;
+            count += pairs[half];
+            sum += pairs[half] * score;
+            squares += pairs[half] * score * score;
+        }
+        if(count == 0)
+            return new double[] {0.5, 0, 0};
+        double mean = sum / count;
+        return new double[] {mean, squares / count - mean * mean, count};
+    }
+
+    /**
+     * Compute the log-likelihood ratio of H1 to H0 for the pairs counted
+     *
+     * @return double - 0 before any pair is counted
+     */
+    public synchronized double llr() {
+        double[] stats = meanAndVariance();
+        double mean = stats[0];
+        double variance = Math.max(stats[1], MIN_VARIANCE);
+        return stats[2] * (score1 - score0) * (2 * mean - score0 - score1) / (2 * variance);
+    }
+
+    /**
+     * Decide between the hypotheses, if the evidence is strong enough
+     *
+     * @return Decision
+     */
+    public synchronized Decision decision() {
+        double llr = llr();
+        if(llr >= upperBound)
+            return Decision.ACCEPT_H1;
+        if(llr <= lowerBound)
+            return Decision.ACCEPT_H0;
+        return Decision.CONTINUE;
+    }
+
+    public double getLowerBound() {
+        return lowerBound;
+    }
+
+    public double getUpperBound() {
+        return upperBound;
+    }
+
+    /**
+     * Estimate A's Elo over B, with its 95% interval
+     *
+     * @return double[] - the estimate, its low end and its high end
+     */
+    public synchronized double[] eloEstimate() {
+        double[] stats = meanAndVariance();
+        double mean = stats[0];
+        double margin = stats[2] == 0 ? 0.5 : 1.96 * Math.sqrt(stats[1] / stats[2]);
+        return new double[] {elo(clamp(mean)), elo(clamp(mean - margin)), elo(clamp(mean + margin))};
+    }
+
+    private static double clamp(double score) {
+        return Math.max(1e-6, Math.min(1 - 1e-6, score));
+    }
+
+    /**
+     * One line on how the test stands
+     *
+     * @return String
+     */
+    public synchronized String status() {
+        double[] elo = eloEstimate();
+        return String.format("games %d (+%d =%d -%d), LLR %.2f (%.2f, %.2f), Elo %.1f [%.1f, %.1f]",
+                getGames(), games[0], games[1], games[2], llr(), lowerBound, upperBound,
+                elo[0], elo[1], elo[2]);
+    }
+
+    public static void main(String[] args) throws Exception {
+        double elo0 = 0;
+        double elo1 = 5;
+        double alpha = 0.05;
+        double beta = 0.05;
+        int maxGames = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int openingPlies = 4;
+        long seed = 1;
+        int tableMb = TranspositionTable.DEFAULT_SIZE_MB;
+        String out = null;
+        String book = null;
+        String tablebase = null;
+        EvaluationWeights weightsA = EvaluationWeights.DEFAULT;
+        EvaluationWeights weightsB = EvaluationWeights.DEFAULT;
+        List<String> engines = new ArrayList<>();
+
+        for(int i = 0; i < args.length; i++) {
+            switch(args[i]) {
+                case "-elo0":
+                    elo0 = Double.parseDouble(args[++i]);
+                    break;
+                case "-elo1":
+                    elo1 = Double.parseDouble(args[++i]);
+                    break;
+                case "-alpha":
+                    alpha = Double.parseDouble(args[++i]);
+                    break;
+                case "-beta":
+                    beta = Double.parseDouble(args[++i]);
+                    break;
+                case "-maxGames":
+                    maxGames = Integer.parseInt(args[++i]);
+                    break;
+                case "-threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "-openingPlies":
+                    openingPlies = Integer.parseInt(args[++i]);
+                    break;
+                case "-seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                case "-tableMb":
+                    tableMb = Integer.parseInt(args[++i]);
+                    break;
+                case "-out":
+                    out = args[++i];
+                    break;
+                case "-book":
+                    book = args[++i];
+                    break;
+                case "-tablebase":
+                    tablebase = args[++i];
+                    break;
+                case "-weightsA":
+                    weightsA = EvaluationWeights.load(Paths.get(args[++i]));
+                    break;
+                case "-weightsB":
+                    weightsB = EvaluationWeights.load(Paths.get(args[++i]));
+                    break;
+                default:
+                    engines.add(args[i]);
+            }
+        }
+        if(engines.size() != 2) {
+            System.err.println("usage: Sprt [-elo0 N] [-elo1 N] [-alpha N] [-beta N] [-maxGames N] [-threads N]"
+                    + " [-openingPlies N] [-seed N] [-tableMb N] [-book file]"
+                    + " [-tablebase file] [-weightsA file] [-weightsB file] [-out file] A B");
+            System.exit(2);
+        }
+
+        Sprt sprt = new Sprt(elo0, elo1, alpha, beta);
+        SelfPlay selfPlay = new SelfPlay(SelfPlay.Settings.parse(engines.get(0), weightsA),
+                SelfPlay.Settings.parse(engines.get(1), weightsB), openingPlies, seed, tableMb,
+                book == null ? null : new OpeningBook(Paths.get(book)),
+                tablebase == null ? null : new Tablebase(Paths.get(tablebase)));
+        System.out.printf("SPRT of A = %s against B = %s: elo0 %.1f, elo1 %.1f, alpha %.3f, beta %.3f%n",
+                engines.get(0), engines.get(1), elo0, elo1, alpha, beta);
+
+        //games still running when the test is decided are abandoned, so
+        //they mustn't keep the JVM alive
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "sprt");
+            thread.setDaemon(true);
+            return thread;
+        });
+        CompletionService<SelfPlay.GameRecord[]> done = new ExecutorCompletionService<>(pool);
+
+        long start = System.nanoTime();
+        Decision decision = Decision.CONTINUE;
+        int submitted = 0;
+        int finished = 0;
+        //no output file is a null writer, which try-with-resources skips
+        try(Writer writer = out == null ? null : SelfPlay.openGames(out)) {
+            //keep every thread busy, and a pair queued behind each
+            int maxPairs = maxGames > 0 ? (maxGames + 1) / 2 : Integer.MAX_VALUE;
+            for(; submitted < Math.min(threads * 2, maxPairs); submitted++)
+                submitPair(done, selfPlay, submitted);
+
+            while(decision == Decision.CONTINUE && finished < submitted) {
+                SelfPlay.GameRecord[] pair = done.take().get();
+                finished++;
+                sprt.add(pair[0].getOutcome(), pair[1].getOutcome());
+                if(writer != null) {
+                    for(SelfPlay.GameRecord record : pair) {
+                        writer.write(record.toLine());
+                        writer.write('\n');
+                    }
+                }
+                decision = sprt.decision();
+                if(decision == Decision.CONTINUE && submitted < maxPairs)
+                    submitPair(done, selfPlay, submitted++);
+                if(finished % REPORT_PAIRS == 0)
+                    System.out.printf("%s, %.1f games/s%n", sprt.status(), sprt.getGames() / seconds(start));
+            }
+        } catch(IOException e) {
+            System.err.println("Could not write " + out + ": " + e.getMessage());
+            System.exit(1);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        System.out.printf("%n%s%n%.1f s, %.2f games/s%n", sprt.status(), seconds(start),
+                sprt.getGames() / seconds(start));
+        switch(decision) {
+            case ACCEPT_H1:
+                System.out.printf("H1 accepted: A is at least %.1f Elo stronger than B%n", elo1);
+                break;
+            case ACCEPT_H0:
+                System.out.printf("H0 accepted: A is no more than %.1f Elo stronger than B%n", elo0);
+                break;
+            default:
+                System.out.println("No decision within " + maxGames + " games");
+        }
+        System.exit(decision == Decision.ACCEPT_H1 ? 0 : 1);
+    }
+
+    private static void submitPair(CompletionService<SelfPlay.GameRecord[]> done, SelfPlay selfPlay, int pair) {
+        done.submit(() -> new SelfPlay.GameRecord[] {selfPlay.play(2 * pair), selfPlay.play(2 * pair + 1)});
+    }
+
+    private static double seconds(long start) {
+        return (System.nanoTime() - start) / 1e9;
+    }
+
+}
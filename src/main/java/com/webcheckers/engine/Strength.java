@@ -0,0 +1,86 @@
+package com.webcheckers.engine;
+
+/**
+ * How strongly an AI Player plays, from instant to strong. Each level is
+ * a search budget: the deepest iteration, the most nodes and the most
+ * time per Move, whichever runs out first. Weaker levels cost far less
+ * CPU per game, which is what most casual games need. Every level plays
+ * with the alpha-beta {@link Engine} by default; the server's
+ * aiEngine.&lt;level&gt; property overrides it (see GameCenter.getAIEngine).
+ *
+ * @authors
+ *      Summer DiStefano
+ *      Frank Abbey
+ *      Raisa Hossain
+ *      Stephen Bosonac
+ *
+ * @version 5/10/2020
+ *
+ */
+public enum Strength {
+
+    INSTANT("Instant", new SearchLimits(1, 1000, 10), Engine.ALPHA_BETA),
+    EASY("Easy", new SearchLimits(3, 20000, 50), Engine.ALPHA_BETA),
+    MEDIUM("Medium", new SearchLimits(6, 200000, 150), Engine.ALPHA_BETA),
+    HARD("Hard", SearchLimits.DEFAULT, Engine.ALPHA_BETA),
+    STRONG("Strong", new SearchLimits(30, 10000000, 1000), Engine.ALPHA_BETA);
+
+    /** Level used when a game doesn't ask for one */
+    public static final Strength DEFAULT = HARD;
+
+    private final String displayName;
+    private final SearchLimits limits;
+    private final Engine engine;
+
+    Strength(String displayName, SearchLimits limits, Engine engine) {
+        this.displayName = displayName;
+        this.limits = limits;
+        this.engine = engine;
+    }
+
+    /**
+     * Find the level with a name, ignoring case
+     *
+     * @param name - the level's name, like "easy"
+     * @return Strength - the level, or DEFAULT if the name is null or
+     *                    isn't a level
+     */
+    public static Strength fromName(String name) {
+        if(name != null) {
+            for(Strength strength : values()) {
+                if(strength.name().equalsIgnoreCase(name.trim()))
+                    return strength;
+            }
+        }
+        return DEFAULT;
+    }
+
+    /**
+     * Retrieve the name shown to Players
+     *
+     * @return String
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Retrieve the search budget of a Move at this level
+     *
+     * @return SearchLimits
+     */
+    public SearchLimits getLimits() {
+        return limits;
+    }
+
+    /**
+     * Retrieve the engine that plays at this level unless the server
+     * overrides it
+     *
+     * @return Engine
+     */
+    public Engine getEngine() {
+        return engine;
+    }
+
+}
@@ -0,0 +1,494 @@
+package com.webcheckers.engine;
+
+import com.webcheckers.model.Bitboards;
+import com.webcheckers.model.Board;
+import com.webcheckers.model.Move;
+import com.webcheckers.model.MoveList;
+import com.webcheckers.model.Piece;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Endgame tablebase: the exact result of every position with few Pieces,
+ * won, lost or drawn with perfect play, and how many plies a win or loss
+ * takes. The AI looks its endgame moves up here instead of searching.
+ *
+ * There is one table per material, the number of men and Kings of each
+ * color, built by {@link TablebaseGenerator}. Tables hold positions with
+ * red to move only; a position with white to move is looked up turned
+ * half a turn with the colors swapped (square s becomes 31 - s), which
+ * plays the same. A position's index is made of the combinatorial rank
+ * of each group of Pieces (red men, red Kings, white men, white Kings)
+ * among the 32 squares, so it is computed, not searched for.
+ *
+ * Each table is a byte per position: 0 for a draw, plies + 1 for a win
+ * or loss (so even values are wins for the side to move and odd values
+ * losses, 1 being no move left), and INVALID where Pieces overlap or a
+ * man stands on its King row.
+ *
+ * File layout, big-endian:
+ *   header:    MAGIC, VERSION, most Pieces, table count, BLOCK_SIZE,
+ *              block count (six ints)
+ *   directory: per table, its material, positions and first block (ints)
+ *   offsets:   where each block starts, and where the last ends (longs)
+ *   blocks:    BLOCK_SIZE positions each, deflated
+ * The file is mapped into memory; blocks are inflated when first read and
+ * kept in a small LRU cache.
+ *
+ * A Tablebase may be used from any thread.
+ *
+ * @authors
+ *      Summer DiStefano
+ *      Frank Abbey
+ *      Raisa Hossain
+ *      Stephen Bosonac
+ *
+ * @version 5/7/2020
+ *
+ */
+public class Tablebase {
+
+    /** "WCTB" */
+    static final int MAGIC = 0x57435442;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 24;
+    static final int DIRECTORY_BYTES = 12;
+
+    /** Positions per compressed block */
+    static final int BLOCK_SIZE = 8192;
+
+    /** Blocks cached unless told otherwise, 2MB */
+    public static final int DEFAULT_CACHE_BLOCKS = 256;
+
+    /** Most Pieces a table can hold; a material keeps four bits per count */
+    public static final int MAX_PIECES = 8;
+
+    /** Value of a position that isn't in any table */
+    public static final int UNKNOWN = -1;
+
+    /** Value of a drawn position */
+    public static final int DRAW = 0;
+
+    /** Value of a position that can't occur */
+    static final int INVALID = 255;
+
+    /** Longest win or loss a value can hold */
+    static final int MAX_PLIES = 253;
+
+    /** BINOMIAL[n][k] = n choose k, for n up to 32 */
+    private static final int[][] BINOMIAL = new int[33][MAX_PIECES + 1];
+
+    static {
+        for(int n = 0; n <= 32; n++) {
+            BINOMIAL[n][0] = 1;
+            for(int k = 1; k <= MAX_PIECES; k++)
+                BINOMIAL[n][k] = n == 0 ? 0 : BINOMIAL[n - 1][k - 1] + BINOMIAL[n - 1][k];
+        }
+    }
+
+    private final ByteBuffer file;
+    private final int maxPieces;
+    private final int blocks;
+
+    /** Per material: positions and first block */
+    private final Map<Integer, int[]> tables = new HashMap<>();
+
+    /** Inflated blocks, least recently used first. Guarded by itself. */
+    private final LinkedHashMap<Integer, byte[]> cache;
+
+    private final ThreadLocal<MoveList> moves = ThreadLocal.withInitial(MoveList::new);
+    private final ThreadLocal<MoveList> replies = ThreadLocal.withInitial(MoveList::new);
+
+    private final AtomicLong probes = new AtomicLong();
+    private final AtomicLong blockReads = new AtomicLong();
+
+    /**
+     * Open a tablebase file with the default cache
+     *
+     * @param path - a file written by TablebaseGenerator
+     * @throws IOException - if the file can't be read or isn't a tablebase
+     */
+    public Tablebase(Path path) throws IOException {
+        this(path, DEFAULT_CACHE_BLOCKS);
+    }
+
+    /**
+     * Open a tablebase file
+     *
+     * @param path - a file written by TablebaseGenerator
+     * @param cacheBlocks - inflated blocks kept in memory
+     * @throws IOException - if the file can't be read or isn't a tablebase
+     */
+    public Tablebase(Path path, int cacheBlocks) throws IOException {
+        if(cacheBlocks < 1)
+            throw new IllegalArgumentException("Must cache at least one block: " + cacheBlocks);
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if(length < HEADER_BYTES || length > Integer.MAX_VALUE)
+                throw new IOException("Not a tablebase: " + path);
+            ByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            if(map.getInt(0) != MAGIC || map.getInt(4) != VERSION || map.getInt(16) != BLOCK_SIZE)
+                throw new IOException("Not a tablebase: " + path);
+            this.maxPieces = map.getInt(8);
+            int count = map.getInt(12);
+            this.blocks = map.getInt(20);
+            if(length < offsetsStart(count) + (blocks + 1) * 8L
+                    || map.getLong(offsetsStart(count) + blocks * 8) != length)
+                throw new IOException("Tablebase is truncated: " + path);
+            for(int table = 0; table < count; table++) {
+                int entry = HEADER_BYTES + table * DIRECTORY_BYTES;
+                tables.put(map.getInt(entry), new int[] {map.getInt(entry + 4), map.getInt(entry + 8)});
+            }
+            this.file = map;
+        }
+        this.cache = new LinkedHashMap<Integer, byte[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, byte[]> eldest) {
+                return size() > cacheBlocks;
+            }
+        };
+    }
+
+    static int offsetsStart(int tableCount) {
+        return HEADER_BYTES + tableCount * DIRECTORY_BYTES;
+    }
+
+    /*
+     * Materials and indexes
+     */
+
+    /**
+     * The material of a table, four bits per count
+     */
+    static int material(int redMen, int redKings, int whiteMen, int whiteKings) {
+        return redMen << 12 | redKings << 8 | whiteMen << 4 | whiteKings;
+    }
+
+    /**
+     * The material of a position
+     */
+    static int material(int red, int white, int kings) {
+        return material(Integer.bitCount(red & ~kings), Integer.bitCount(red & kings),
+                Integer.bitCount(white & ~kings), Integer.bitCount(white & kings));
+    }
+
+    /**
+     * The number of Pieces in one group of a material
+     *
+     * @param group - 0 red men, 1 red Kings, 2 white men, 3 white Kings
+     */
+    static int count(int material, int group) {
+        return (material >>> (12 - 4 * group)) & 0xF;
+    }
+
+    /**
+     * The material with the colors swapped
+     */
+    static int turnMaterial(int material) {
+        return (material & 0xFF) << 8 | material >>> 8;
+    }
+
+    /**
+     * The number of positions in a material's table, valid or not
+     */
+    static long size(int material) {
+        long size = 1;
+        for(int group = 0; group < 4; group++)
+            size *= BINOMIAL[32][count(material, group)];
+        return size;
+    }
+
+    /**
+     * The rank of a set of squares among all sets of the same size
+     */
+    private static int rank(int mask) {
+        int rank = 0;
+        for(int j = 1; mask != 0; j++) {
+            rank += BINOMIAL[Integer.numberOfTrailingZeros(mask)][j];
+            mask &= mask - 1;
+        }
+        return rank;
+    }
+
+    /**
+     * The set of k squares of a rank
+     */
+    private static int unrank(int rank, int k) {
+        int mask = 0;
+        int square = 32;
+        for(int j = k; j > 0; j--) {
+            do {
+                square--;
+            } while(BINOMIAL[square][j] > rank);
+            rank -= BINOMIAL[square][j];
+            mask |= 1 << square;
+        }
+        return mask;
+    }
+
+    /**
+     * The index of a position with red to move in its material's table
+     */
+    static int index(int material, int red, int white, int kings) {
+        int index = rank(red & ~kings);
+        index = index * BINOMIAL[32][count(material, 1)] + rank(red & kings);
+        index = index * BINOMIAL[32][count(material, 2)] + rank(white & ~kings);
+        return index * BINOMIAL[32][count(material, 3)] + rank(white & kings);
+    }
+
+    /**
+     * The position at an index of a material's table
+     *
+     * @param squares - filled with the red, white and King masks
+     * @return boolean - false if the index isn't a valid position
+     */
+    static boolean position(int material, int index, int[] squares) {
+        int[] groups = new int[4];
+        for(int group = 3; group >= 0; group--) {
+            int k = count(material, group);
+            int choices = BINOMIAL[32][k];
+            groups[group] = unrank(index % choices, k);
+            index /= choices;
+        }
+        int redMen = groups[0];
+        int redKings = groups[1];
+        int whiteMen = groups[2];
+        int whiteKings = groups[3];
+        if((redMen & redKings) != 0 || (whiteMen & whiteKings) != 0
+                || ((redMen | redKings) & (whiteMen | whiteKings)) != 0)
+            return false;
+        if((redMen & Bitboards.RED_KING_ROW) != 0 || (whiteMen & Bitboards.WHITE_KING_ROW) != 0)
+            return false;
+        squares[0] = redMen | redKings;
+        squares[1] = whiteMen | whiteKings;
+        squares[2] = redKings | whiteKings;
+        return true;
+    }
+
+    /*
+     * Values
+     */
+
+    /**
+     * Determine if a value is a win for the side to move
+     */
+    public static boolean isWin(int value) {
+        return value > 0 && value != INVALID && value % 2 == 0;
+    }
+
+    /**
+     * Determine if a value is a loss for the side to move
+     */
+    public static boolean isLoss(int value) {
+        return value > 0 && value != INVALID && value % 2 == 1;
+    }
+
+    /**
+     * The plies to the end of a won or lost game
+     */
+    public static int plies(int value) {
+        return value - 1;
+    }
+
+    /**
+     * A value as a search score for the side to move
+     *
+     * @param value - a known value
+     * @return int - Search.WIN less the plies for a win, its negation for
+     *               a loss, 0 for a draw
+     */
+    public static int score(int value) {
+        if(isWin(value))
+            return Search.WIN - plies(value);
+        if(isLoss(value))
+            return -Search.WIN + plies(value);
+        return 0;
+    }
+
+    /*
+     * Probing
+     */
+
+    /**
+     * Retrieve the most Pieces a position can have to be in the tablebase
+     *
+     * @return int
+     */
+    public int getMaxPieces() {
+        return maxPieces;
+    }
+
+    /**
+     * Look a position up
+     *
+     * @param position - the position, with its side to move set
+     * @return int - its value for the side to move, or UNKNOWN if it isn't
+     *               in the tablebase
+     */
+    public int probe(Board position) {
+        int red = position.piecesOf(Piece.PieceColor.RED);
+        int white = position.piecesOf(Piece.PieceColor.WHITE);
+        int kings = position.getKings();
+        if(position.getActiveColor() == Piece.PieceColor.RED)
+            return probe(red, white, kings);
+        return probe(Integer.reverse(white), Integer.reverse(red), Integer.reverse(kings));
+    }
+
+    /**
+     * Look a position with red to move up
+     */
+    int probe(int red, int white, int kings) {
+        if(red == 0)
+            return 1;
+        if(white == 0 || Integer.bitCount(red | white) > maxPieces)
+            return UNKNOWN;
+        int material = material(red, white, kings);
+        int[] table = tables.get(material);
+        if(table == null)
+            return UNKNOWN;
+
+        probes.incrementAndGet();
+        int index = index(material, red, white, kings);
+        int block = table[1] + index / BLOCK_SIZE;
+        int value = block(block)[index % BLOCK_SIZE] & 0xFF;
+        return value == INVALID ? UNKNOWN : value;
+    }
+
+    /**
+     * Retrieve an inflated block, from the cache if it is there
+     */
+    private byte[] block(int block) {
+        synchronized(cache) {
+            byte[] values = cache.get(block);
+            if(values != null)
+                return values;
+        }
+
+        int offsets = offsetsStart(tables.size());
+        int start = (int) file.getLong(offsets + block * 8);
+        int end = (int) file.getLong(offsets + (block + 1) * 8);
+        byte[] compressed = new byte[end - start];
+        ByteBuffer read = file.duplicate();
+        read.position(start);
+        read.get(compressed);
+
+        byte[] values = new byte[BLOCK_SIZE];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            inflater.inflate(values);
+        } catch(DataFormatException e) {
+            throw new IllegalStateException("Tablebase block " + block + " is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+        blockReads.incrementAndGet();
+
+        synchronized(cache) {
+            cache.put(block, values);
+        }
+        return values;
+    }
+
+    /**
+     * Choose the best move of a position in the tablebase: the quickest
+     * win, else a draw, else the slowest loss. Of several drawing moves,
+     * the one leaving the opponent the most losing replies is chosen.
+     *
+     * @param position - the position, with its side to move set
+     * @return SearchResult - a tablebase result, or null if the position
+     *                        isn't in the tablebase or has no move
+     */
+    public SearchResult bestMove(Board position) {
+        long start = System.currentTimeMillis();
+        if(Integer.bitCount(position.piecesOf(Piece.PieceColor.RED) | position.piecesOf(Piece.PieceColor.WHITE))
+                > maxPieces || probe(position) == UNKNOWN)
+            return null;
+
+        Piece.PieceColor side = position.getActiveColor();
+        Piece.PieceColor opponent = Search.opponent(side);
+        MoveList list = moves.get();
+        int count = position.generateMoves(side, list);
+        int best = Move.NONE;
+        int bestScore = -Search.WIN - 1;
+        int bestTraps = -1;
+        for(int i = 0; i < count; i++) {
+            Board child = position.copyBoard();
+            child.makeMove(list.get(i), list.getCaptured(i));
+            child.setActiveColor(opponent);
+            int value = probe(child);
+            if(value == UNKNOWN)
+                return null;
+
+            //a ply further from the end, from this side's point of view
+            int score = -score(value);
+            if(score > 0)
+                score--;
+            else if(score < 0)
+                score++;
+            int traps = score == 0 ? losingReplies(child) : 0;
+            if(score > bestScore || (score == bestScore && traps > bestTraps)) {
+                best = list.get(i);
+                bestScore = score;
+                bestTraps = traps;
+            }
+        }
+        if(best == Move.NONE)
+            return null;
+        return new SearchResult(best, bestScore, 0, 0, System.currentTimeMillis() - start,
+                new int[] {best}, SearchResult.Source.TABLEBASE);
+    }
+
+    /**
+     * Count the replies of a drawn position that lose for the side making them
+     */
+    private int losingReplies(Board position) {
+        Piece.PieceColor side = position.getActiveColor();
+        MoveList list = replies.get();
+        int count = position.generateMoves(side, list);
+        int losing = 0;
+        for(int i = 0; i < count; i++) {
+            Board child = position.copyBoard();
+            child.makeMove(list.get(i), list.getCaptured(i));
+            child.setActiveColor(Search.opponent(side));
+            if(isWin(probe(child)))
+                losing++;
+        }
+        return losing;
+    }
+
+    public long getProbes() {
+        return probes.get();
+    }
+
+    /**
+     * Retrieve the number of blocks inflated, the probes the cache missed
+     *
+     * @return long
+     */
+    public long getBlockReads() {
+        return blockReads.get();
+    }
+
+    /**
+     * ToString method
+     *
+     * @return - the tablebase's size and how often it was used
+     */
+    @Override
+    public String toString() {
+        return String.format("Tablebase{maxPieces=%d, tables=%d, blocks=%d, probes=%d, blockReads=%d}",
+                maxPieces, tables.size(), blocks, getProbes(), getBlockReads());
+    }
+
+}
@@ -0,0 +1,495 @@
+package com.webcheckers.engine;
+
+import com.webcheckers.model.Bitboards;
+import com.webcheckers.model.Board;
+import com.webcheckers.model.Move;
+import com.webcheckers.model.MoveList;
+import com.webcheckers.model.Piece;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.Deflater;
+
+/**
+ * Builds a {@link Tablebase} by retrograde analysis, for every material
+ * of up to a given number of Pieces.
+ *
+ * Materials are solved in levels of the same number of Pieces and men,
+ * fewest first. A capture leads to fewer Pieces and a crowning to fewer
+ * men, so every move out of a level leads to a level already solved;
+ * the only moves within a level are the plain moves that crown nobody.
+ *
+ * Each level is solved in two steps:
+ *   1. Every position's moves are generated, in parallel. A move out of
+ *      the level is looked up; the moves within it are counted.
+ *   2. Positions are resolved in order of distance, like a breadth first
+ *      search. A lost position makes the positions that move into it won
+ *      a ply later, and a won one takes one from the count of unresolved
+ *      moves of each position that moves into it; when the count reaches
+ *      0 with no drawing move, that position is lost. The positions that
+ *      move into one are found by taking back a plain move, and kept only
+ *      if the move was legal there (no jump was forced).
+ * Whatever is left unresolved is a draw.
+ *
+ * Resolving a position only ever queues its parents at a later distance,
+ * so each distance is done in three passes: its positions are resolved,
+ * their parents are found in parallel, and the parents' counts are then
+ * updated on one thread. Finding the parents is the costly part; the
+ * updates are a few array writes each.
+ *
+ * Run with:
+ * mvn compile exec:java -Dexec.mainClass=com.webcheckers.engine.TablebaseGenerator -Dexec.args="[options]"
+ *
+ * Options:
+ *   -pieces N    most Pieces (default 4; 5 needs a few GB of heap and some minutes)
+ *   -threads N   threads used (default: the processor count)
+ *   -out FILE    the tablebase to write (default endgame.tb)
+ *
+ * @authors
+ *      Summer DiStefano
+ *      Frank Abbey
+ *      Raisa Hossain
+ *      Stephen Bosonac
+ *
+ * @version 5/7/2020
+ *
+ */
+public class TablebaseGenerator {
+
+    /** Most Pieces unless told otherwise */
+    public static final int DEFAULT_PIECES = 4;
+
+    private static final int[] MAN_UNMOVES = {Bitboards.SOUTH_WEST, Bitboards.SOUTH_EAST};
+    private static final int[] KING_UNMOVES = {Bitboards.NORTH_WEST, Bitboards.NORTH_EAST,
+            Bitboards.SOUTH_WEST, Bitboards.SOUTH_EAST};
+
+    private final int maxPieces;
+    private final ForkJoinPool pool;
+
+    /** Values of the materials solved, by material */
+    private final Map<Integer, byte[]> solved = new TreeMap<>();
+
+    private final ThreadLocal<MoveList> moves = ThreadLocal.withInitial(MoveList::new);
+
+    /**
+     * A material being solved, with the working state of its positions
+     */
+    private static class Table {
+        private final int material;
+        private final byte[] value;
+
+        /** Moves within the level not yet known to lose */
+        private final byte[] count;
+
+        /** Plies of the quickest win and slowest loss found, or 0 */
+        private final byte[] winPlies;
+        private final byte[] lossPlies;
+
+        /** 1 if a move out of the level draws */
+        private final byte[] drawMove;
+
+        Table(int material) {
+            long size = Tablebase.size(material);
+            if(size > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("Too many positions in material " + Integer.toHexString(material));
+            this.material = material;
+            this.value = new byte[(int) size];
+            this.count = new byte[(int) size];
+            this.winPlies = new byte[(int) size];
+            this.lossPlies = new byte[(int) size];
+            this.drawMove = new byte[(int) size];
+        }
+    }
+
+    /**
+     * Positions to resolve at one distance, as table number and index
+     */
+    private static class Bucket {
+        private long[] entries = new long[64];
+        private int size;
+
+        void add(int table, int index) {
+            if(size == entries.length)
+                entries = Arrays.copyOf(entries, size * 2);
+            entries[size++] = (long) table << 32 | index;
+        }
+    }
+
+    /**
+     * Create a new TablebaseGenerator
+     *
+     * @param maxPieces - most Pieces, at least 2
+     * @param threads - threads to generate moves on
+     */
+    public TablebaseGenerator(int maxPieces, int threads) {
+        if(maxPieces < 2 || maxPieces > Tablebase.MAX_PIECES)
+            throw new IllegalArgumentException("Pieces must be from 2 to " + Tablebase.MAX_PIECES + ": " + maxPieces);
+        this.maxPieces = maxPieces;
+        this.pool = new ForkJoinPool(threads);
+    }
+
+    /**
+     * Solve every material, fewest Pieces first
+     */
+    public void generate() throws InterruptedException, ExecutionException {
+        for(int pieces = 2; pieces <= maxPieces; pieces++) {
+            for(int men = 0; men <= pieces; men++) {
+                long start = System.nanoTime();
+                List<Table> level = new ArrayList<>();
+                for(int redMen = 0; redMen <= men; redMen++) {
+                    for(int redKings = 0; redKings <= pieces - men; redKings++) {
+                        int whiteMen = men - redMen;
+                        int whiteKings = pieces - men - redKings;
+                        if(redMen + redKings > 0 && whiteMen + whiteKings > 0)
+                            level.add(new Table(Tablebase.material(redMen, redKings, whiteMen, whiteKings)));
+                    }
+                }
+                int longest = solve(level);
+                for(Table table : level)
+                    solved.put(table.material, table.value);
+                System.out.printf("%d pieces, %d men: %d materials, longest win %d plies, %.1f s%n", pieces, men,
+                        level.size(), longest, (System.nanoTime() - start) / 1e9);
+            }
+        }
+    }
+
+    /**
+     * Solve the materials of one level
+     *
+     * @return int - plies of the longest win
+     */
+    private int solve(List<Table> level) throws InterruptedException, ExecutionException {
+        Map<Integer, Integer> tableOf = new HashMap<>();
+        for(int t = 0; t < level.size(); t++)
+            tableOf.put(level.get(t).material, t);
+
+        for(Table table : level)
+            pool.submit(() -> IntStream.range(0, table.value.length).parallel()
+                    .forEach(index -> initialize(table, index))).get();
+
+        List<Bucket> buckets = new ArrayList<>();
+        for(int t = 0; t < level.size(); t++) {
+            Table table = level.get(t);
+            for(int index = 0; index < table.value.length; index++) {
+                if(table.value[index] != 0)
+                    continue;
+                if(table.winPlies[index] != 0)
+                    bucket(buckets, table.winPlies[index] & 0xFF).add(t, index);
+                else if(table.count[index] == 0 && table.drawMove[index] == 0)
+                    bucket(buckets, table.lossPlies[index] & 0xFF).add(t, index);
+            }
+        }
+
+        int longest = 0;
+        for(int plies = 0; plies < buckets.size(); plies++) {
+            Bucket bucket = buckets.get(plies);
+            Bucket resolved = new Bucket();
+            for(int e = 0; e < bucket.size; e++) {
+                int t = (int) (bucket.entries[e] >>> 32);
+                Table table = level.get(t);
+                int index = (int) bucket.entries[e];
+                if(table.value[index] != 0)
+                    continue;
+                boolean win = table.winPlies[index] != 0;
+                if(win ? (table.winPlies[index] & 0xFF) != plies
+                        : table.count[index] != 0 || table.drawMove[index] != 0
+                          || (table.lossPlies[index] & 0xFF) != plies)
+                    continue;
+
+                table.value[index] = (byte) (plies + 1);
+                if(win)
+                    longest = Math.max(longest, plies);
+                if(plies + 1 > Tablebase.MAX_PLIES)
+                    throw new IllegalStateException("A win takes more than " + Tablebase.MAX_PLIES + " plies");
+                resolved.add(t, index);
+            }
+
+            List<long[]> parents = pool.submit(() -> IntStream.range(0, resolved.size).parallel()
+                    .mapToObj(e -> parents(level, tableOf, resolved.entries[e]))
+                    .collect(Collectors.toList())).get();
+            for(int e = 0; e < resolved.size; e++) {
+                Table table = level.get((int) (resolved.entries[e] >>> 32));
+                boolean win = table.winPlies[(int) resolved.entries[e]] != 0;
+                for(long parent : parents.get(e))
+                    resolveParent(level, parent, win, plies + 1, buckets);
+            }
+        }
+        return longest;
+    }
+
+    private static Bucket bucket(List<Bucket> buckets, int plies) {
+        while(buckets.size() <= plies)
+            buckets.add(new Bucket());
+        return buckets.get(plies);
+    }
+
+    /**
+     * Generate a position's moves, looking up those that leave the level
+     */
+    private void initialize(Table table, int index) {
+        int[] squares = new int[3];
+        if(!Tablebase.position(table.material, index, squares)) {
+            table.value[index] = (byte) Tablebase.INVALID;
+            return;
+        }
+        Board board = new Board(squares[0], squares[1], squares[2], Piece.PieceColor.RED);
+        MoveList list = moves.get();
+        int count = board.generateMoves(Piece.PieceColor.RED, list);
+        int within = 0;
+        int winPlies = 0;
+        int lossPlies = 0;
+        for(int i = 0; i < count; i++) {
+            int move = list.get(i);
+            int captured = list.getCaptured(i);
+            if(captured == 0 && !Move.isPromotion(move)) {
+                within++;
+                continue;
+            }
+            long undo = board.makeMove(move, captured);
+            //the child with white to move, turned to have red to move
+            int value = lookUp(Integer.reverse(board.piecesOf(Piece.PieceColor.WHITE)),
+                    Integer.reverse(board.piecesOf(Piece.PieceColor.RED)), Integer.reverse(board.getKings()));
+            board.unmakeMove(move, undo);
+
+            if(Tablebase.isLoss(value))
+                winPlies = winPlies == 0 ? value : Math.min(winPlies, value);
+            else if(Tablebase.isWin(value))
+                lossPlies = Math.max(lossPlies, value);
+            else
+                table.drawMove[index] = 1;
+        }
+        //a ply more than the child's plies, which is the child's value
+        table.winPlies[index] = (byte) winPlies;
+        table.lossPlies[index] = (byte) lossPlies;
+        table.count[index] = (byte) within;
+    }
+
+    /**
+     * Value of a position with red to move in a level already solved
+     */
+    private int lookUp(int red, int white, int kings) {
+        if(red == 0)
+            return 1;
+        int material = Tablebase.material(red, white, kings);
+        return solved.get(material)[Tablebase.index(material, red, white, kings)] & 0xFF;
+    }
+
+    /**
+     * Find the positions that move into a resolved position within the
+     * level. The last move was white's, since red is to move.
+     *
+     * @param entry - the position, as table number and index
+     * @return long[] - the parents, as table number and index
+     */
+    private long[] parents(List<Table> level, Map<Integer, Integer> tableOf, long entry) {
+        int[] squares = new int[3];
+        Tablebase.position(level.get((int) (entry >>> 32)).material, (int) entry, squares);
+        int red = squares[0];
+        int white = squares[1];
+        int kings = squares[2];
+        int occupied = red | white;
+        long[] found = new long[Integer.bitCount(white) * KING_UNMOVES.length];
+        int size = 0;
+
+        int pieces = white;
+        while(pieces != 0) {
+            int to = Integer.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            boolean isKing = (kings & (1 << to)) != 0;
+            for(int direction : isKing ? KING_UNMOVES : MAN_UNMOVES) {
+                int from = Bitboards.neighbor(direction, to);
+                if(from < 0 || (occupied & (1 << from)) != 0)
+                    continue;
+                int step = (1 << from) | (1 << to);
+                int parentWhite = white ^ step;
+                int parentKings = isKing ? kings ^ step : kings;
+
+                //a plain move is only legal if no jump was forced
+                if(whiteMustJump(red, parentWhite, parentKings))
+                    continue;
+
+                int turnedRed = Integer.reverse(parentWhite);
+                int turnedWhite = Integer.reverse(red);
+                int turnedKings = Integer.reverse(parentKings);
+                int material = Tablebase.material(turnedRed, turnedWhite, turnedKings);
+                int index = Tablebase.index(material, turnedRed, turnedWhite, turnedKings);
+                found[size++] = (long) tableOf.get(material) << 32 | index;
+            }
+        }
+        return Arrays.copyOf(found, size);
+    }
+
+    /**
+     * Determine if white has a jump, from the masks alone, the way
+     * {@link Board#mustJump} does
+     */
+    private static boolean whiteMustJump(int red, int white, int kings) {
+        int empty = ~(red | white);
+        return (Bitboards.jumpersNorth(white, red, empty)
+                | Bitboards.jumpersSouth(white & kings, red, empty)) != 0;
+    }
+
+    /**
+     * Pass a resolved position's result to one of its parents
+     *
+     * @param parent - the parent, as table number and index
+     * @param win - true: the resolved position is won for red
+     * @param plies - plies for the parent: one more than the position's
+     */
+    private static void resolveParent(List<Table> level, long parent, boolean win, int plies, List<Bucket> buckets) {
+        int t = (int) (parent >>> 32);
+        int index = (int) parent;
+        Table table = level.get(t);
+        if(table.value[index] != 0)
+            return;
+
+        if(!win) {
+            int known = table.winPlies[index] & 0xFF;
+            if(known == 0 || known > plies) {
+                table.winPlies[index] = (byte) plies;
+                bucket(buckets, plies).add(t, index);
+            }
+        }
+        else {
+            table.count[index]--;
+            int lossPlies = Math.max(table.lossPlies[index] & 0xFF, plies);
+            table.lossPlies[index] = (byte) lossPlies;
+            if(table.count[index] == 0 && table.winPlies[index] == 0 && table.drawMove[index] == 0)
+                bucket(buckets, lossPlies).add(t, index);
+        }
+    }
+
+    /**
+     * Write every table solved, each compressed in blocks
+     *
+     * @param file - the file's name
+     * @return long - the bytes written
+     */
+    public long write(String file) throws IOException, InterruptedException, ExecutionException {
+        List<Integer> materials = new ArrayList<>(solved.keySet());
+        List<byte[]> blocks = new ArrayList<>();
+        int[] firstBlock = new int[materials.size()];
+        for(int t = 0; t < materials.size(); t++) {
+            byte[] values = solved.get(materials.get(t));
+            firstBlock[t] = blocks.size();
+            int count = (values.length + Tablebase.BLOCK_SIZE - 1) / Tablebase.BLOCK_SIZE;
+            blocks.addAll(pool.submit(() -> IntStream.range(0, count).parallel()
+                    .mapToObj(block -> deflate(values, block))
+                    .collect(Collectors.toList())).get());
+        }
+
+        long offset = Tablebase.offsetsStart(materials.size()) + (blocks.size() + 1) * 8L;
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(Tablebase.MAGIC);
+            out.writeInt(Tablebase.VERSION);
+            out.writeInt(maxPieces);
+            out.writeInt(materials.size());
+            out.writeInt(Tablebase.BLOCK_SIZE);
+            out.writeInt(blocks.size());
+            for(int t = 0; t < materials.size(); t++) {
+                out.writeInt(materials.get(t));
+                out.writeInt(solved.get(materials.get(t)).length);
+                out.writeInt(firstBlock[t]);
+            }
+            for(byte[] block : blocks) {
+                out.writeLong(offset);
+                offset += block.length;
+            }
+            out.writeLong(offset);
+            for(byte[] block : blocks)
+                out.write(block);
+        }
+        return offset;
+    }
+
+    private static byte[] deflate(byte[] values, int block) {
+        int start = block * Tablebase.BLOCK_SIZE;
+        int length = Math.min(Tablebase.BLOCK_SIZE, values.length - start);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        try {
+            deflater.setInput(values, start, length);
+            deflater.finish();
+            while(!deflater.finished())
+                out.write(buffer, 0, deflater.deflate(buffer));
+        } finally {
+            deflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Count the won, lost and drawn positions of every table
+     *
+     * @return long[] - wins, losses and draws for the side to move
+     */
+    public long[] totals() {
+        long[] totals = new long[3];
+        for(byte[] values : solved.values()) {
+            for(byte value : values) {
+                int v = value & 0xFF;
+                if(Tablebase.isWin(v))
+                    totals[0]++;
+                else if(Tablebase.isLoss(v))
+                    totals[1]++;
+                else if(v == Tablebase.DRAW)
+                    totals[2]++;
+            }
+        }
+        return totals;
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int pieces = DEFAULT_PIECES;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String out = "endgame.tb";
+
+        for(int i = 0; i < args.length; i++) {
+            switch(args[i]) {
+                case "-pieces":
+                    pieces = Integer.parseInt(args[++i]);
+                    break;
+                case "-threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "-out":
+                    out = args[++i];
+                    break;
+                default:
+                    System.err.println("usage: TablebaseGenerator [-pieces N] [-threads N] [-out file]");
+                    System.exit(2);
+            }
+        }
+
+        long start = System.nanoTime();
+        TablebaseGenerator generator = new TablebaseGenerator(pieces, threads);
+        try {
+            generator.generate();
+            long bytes = generator.write(out);
+            long[] totals = generator.totals();
+            System.out.printf("%d wins, %d losses, %d draws; %d bytes written to %s in %.1f s%n",
+                    totals[0], totals[1], totals[2], bytes, out, (System.nanoTime() - start) / 1e9);
+        } finally {
+            generator.shutdown();
+        }
+    }
+
+}
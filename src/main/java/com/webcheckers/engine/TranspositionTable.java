@@ -0,0 +1,276 @@
+package com.webcheckers.engine;
+
+import com.webcheckers.model.Move;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed-size transposition table shared by every Search on the server.
+ *
+ * Entries live in one long[] as (key ^ data, data) pairs, two to a bucket.
+ * Readers and writers never lock: a reader only accepts an entry when
+ * check ^ data gives back its key, so an entry torn by two threads writing
+ * at once simply reads as a miss. The first slot of a bucket keeps the
+ * deepest result (older searches' entries may always be replaced) and the
+ * second slot always takes the newest result. An entry loses one ply of
+ * priority for every second since it was stored, so a busy server's
+ * table keeps turning over to the positions being played now.
+ *
+ * @authors
+ *      Summer DiStefano
+ *      Frank Abbey
+ *      Raisa Hossain
+ *      Stephen Bosonac
+ *
+ * @version 4/24/2020
+ *
+ */
+public class TranspositionTable {
+
+    /** Size used when none is configured */
+    public static final int DEFAULT_SIZE_MB = 16;
+
+    /** Bound types stored with a score */
+    public static final int EXACT = 1;
+    public static final int LOWER_BOUND = 2;
+    public static final int UPPER_BOUND = 3;
+
+    /** Longs per bucket: two slots of (check, data) */
+    private static final int BUCKET_LONGS = 4;
+    private static final int BYTES_PER_BUCKET = BUCKET_LONGS * 8;
+
+    /** Length of one generation used to age entries */
+    private static final long GENERATION_NANOS = 1000000000L;
+
+    /** Buckets sampled when estimating occupancy */
+    private static final int OCCUPANCY_SAMPLE = 1000;
+
+    /*
+     * Data layout: bits 0-16 move, bit 17 move present, bits 18-35 score
+     * (offset to be unsigned), bits 36-43 depth, bits 44-45 bound and
+     * bits 46-53 the generation of the search that stored it.
+     */
+    private static final int MOVE_BITS = 0x1FFFF;
+    private static final long HAS_MOVE = 1L << 17;
+    private static final int SCORE_SHIFT = 18;
+    private static final int SCORE_OFFSET = 1 << 17;
+    private static final long SCORE_MASK = (1L << 18) - 1;
+    private static final int DEPTH_SHIFT = 36;
+    private static final int BOUND_SHIFT = 44;
+    private static final int GENERATION_SHIFT = 46;
+
+    private final long[] table;
+    private final int bucketMask;
+    private final long created = System.nanoTime();
+
+    private final AtomicLong probes = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong collisions = new AtomicLong();
+
+    /**
+     * Create a table using about the given amount of memory
+     *
+     * @param sizeMb - megabytes to use, rounded down to a power of two buckets
+     */
+    public TranspositionTable(int sizeMb) {
+        if(sizeMb < 1)
+            throw new IllegalArgumentException("Transposition table needs at least 1 MB");
+        long buckets = Long.highestOneBit((sizeMb * 1024L * 1024L) / BYTES_PER_BUCKET);
+        buckets = Math.min(buckets, Integer.MAX_VALUE / BUCKET_LONGS + 1);
+        this.table = new long[(int) buckets * BUCKET_LONGS];
+        this.bucketMask = (int) buckets - 1;
+    }
+
+    /**
+     * Retrieve the current generation, used to age entries
+     *
+     * @return int - the generation new entries should be stored with
+     */
+    public int currentGeneration() {
+        return (int) ((System.nanoTime() - created) / GENERATION_NANOS) & 0xFF;
+    }
+
+    /**
+     * Look up a position
+     *
+     * @param key - Zobrist key of the position
+     * @return long - the entry's data, or 0 if the position is not stored
+     */
+    public long probe(long key) {
+        int index = ((int) key & bucketMask) * BUCKET_LONGS;
+        long data = table[index + 1];
+        if((table[index] ^ data) == key && data != 0)
+            return data;
+        data = table[index + 3];
+        if((table[index + 2] ^ data) == key && data != 0)
+            return data;
+        return 0;
+    }
+
+    /**
+     * Determine if the bucket for a key holds any position at all (used to
+     * tell a collision from an empty bucket after a miss)
+     *
+     * @param key - Zobrist key of the position
+     * @return boolean
+     */
+    boolean isOccupied(long key) {
+        int index = ((int) key & bucketMask) * BUCKET_LONGS;
+        return table[index + 1] != 0 || table[index + 3] != 0;
+    }
+
+    /**
+     * Store the result of searching a position
+     *
+     * @param key - Zobrist key of the position
+     * @param move - best encoded move, or Move.NONE
+     * @param score - score, already adjusted for the distance to a win
+     * @param depth - depth the position was searched to
+     * @param bound - EXACT, LOWER_BOUND or UPPER_BOUND
+     * @param searchGeneration - value returned by currentGeneration()
+     */
+    public void store(long key, int move, int score, int depth, int bound, int searchGeneration) {
+        long data = ((move == Move.NONE) ? 0L : ((move & MOVE_BITS) | HAS_MOVE))
+                | (((long) (score + SCORE_OFFSET) & SCORE_MASK) << SCORE_SHIFT)
+                | ((long) Math.max(0, Math.min(depth, 255)) << DEPTH_SHIFT)
+                | ((long) bound << BOUND_SHIFT)
+                | ((long) searchGeneration << GENERATION_SHIFT);
+
+        int index = ((int) key & bucketMask) * BUCKET_LONGS;
+        long deepData = table[index + 1];
+        boolean sameKey = (table[index] ^ deepData) == key;
+
+        //the depth-preferred slot only gives way to the same position or to one
+        //searched at least as deep, allowing for the age of the stored entry
+        int age = (searchGeneration - generation(deepData)) & 0xFF;
+        if(deepData == 0 || sameKey || depth >= depth(deepData) - age) {
+            //keep the known best move when the new result has none
+            if(sameKey && move == Move.NONE && hasMove(deepData))
+                data |= (deepData & MOVE_BITS) | HAS_MOVE;
+            table[index] = key ^ data;
+            table[index + 1] = data;
+        }
+        else {
+            table[index + 2] = key ^ data;
+            table[index + 3] = data;
+        }
+    }
+
+    /**
+     * Add a finished search's counts to the table's statistics
+     *
+     * @param searchProbes - lookups made
+     * @param searchHits - lookups that found their position
+     * @param searchCollisions - lookups that found other positions in the bucket
+     */
+    public void recordStats(long searchProbes, long searchHits, long searchCollisions) {
+        probes.addAndGet(searchProbes);
+        hits.addAndGet(searchHits);
+        collisions.addAndGet(searchCollisions);
+    }
+
+    /**
+     * Empty the table and reset its statistics
+     */
+    public void clear() {
+        Arrays.fill(table, 0L);
+        probes.set(0);
+        hits.set(0);
+        collisions.set(0);
+    }
+
+    static boolean hasMove(long data) {
+        return (data & HAS_MOVE) != 0;
+    }
+
+    static int move(long data) {
+        return hasMove(data) ? (int) (data & MOVE_BITS) : Move.NONE;
+    }
+
+    static int score(long data) {
+        return (int) ((data >>> SCORE_SHIFT) & SCORE_MASK) - SCORE_OFFSET;
+    }
+
+    static int depth(long data) {
+        return (int) ((data >>> DEPTH_SHIFT) & 0xFF);
+    }
+
+    static int bound(long data) {
+        return (int) ((data >>> BOUND_SHIFT) & 0x3);
+    }
+
+    static int generation(long data) {
+        return (int) ((data >>> GENERATION_SHIFT) & 0xFF);
+    }
+
+    /**
+     * Retrieve the memory used by the table
+     *
+     * @return long - bytes
+     */
+    public long getSizeBytes() {
+        return table.length * 8L;
+    }
+
+    public long getProbes() {
+        return probes.get();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getCollisions() {
+        return collisions.get();
+    }
+
+    /**
+     * Fraction of lookups that found their position
+     *
+     * @return double
+     */
+    public double getHitRate() {
+        long total = probes.get();
+        return total == 0 ? 0.0 : (double) hits.get() / total;
+    }
+
+    /**
+     * Fraction of lookups that missed because other positions held the bucket
+     *
+     * @return double
+     */
+    public double getCollisionRate() {
+        long total = probes.get();
+        return total == 0 ? 0.0 : (double) collisions.get() / total;
+    }
+
+    /**
+     * Estimate the fraction of slots in use from a sample of buckets
+     *
+     * @return double
+     */
+    public double getOccupancy() {
+        int buckets = Math.min(OCCUPANCY_SAMPLE, bucketMask + 1);
+        int used = 0;
+        for(int b = 0; b < buckets; b++) {
+            if(table[b * BUCKET_LONGS + 1] != 0)
+                used++;
+            if(table[b * BUCKET_LONGS + 3] != 0)
+                used++;
+        }
+        return (double) used / (buckets * 2);
+    }
+
+    /**
+     * ToString method
+     *
+     * @return - size and statistics displayed
+     */
+    @Override
+    public String toString() {
+        return String.format("TranspositionTable{size=%dMB, probes=%d, hitRate=%.3f, collisionRate=%.3f, occupancy=%.3f}",
+                getSizeBytes() / (1024 * 1024), getProbes(), getHitRate(), getCollisionRate(), getOccupancy());
+    }
+
+}
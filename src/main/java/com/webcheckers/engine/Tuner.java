@@ -0,0 +1,484 @@
+package com.webcheckers.engine;
+
+import com.webcheckers.model.Bitboards;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Fits the weights of the {@link DefaultEvaluator} to the results of
+ * games (Texel's method): the evaluation of each quiet position, passed
+ * through a logistic curve, should predict the result of the game it came
+ * from. The weights are moved down the gradient of the mean squared error
+ * of those predictions until it stops falling.
+ *
+ * The evaluation is a sum of weights times counts (Pieces, Pieces on each
+ * square, Pieces that can move), so the error and its gradient are
+ * worked out exactly in one pass over the positions. Each pass streams
+ * the positions files (see {@link TuningSetBuilder}) in chunks, one chunk
+ * per task on every core, and never holds more than a read buffer of
+ * each chunk on the heap. Steps are taken with Adam, so weights of very
+ * different sizes move at a similar pace.
+ *
+ * Adding the same to every square bonus of a single Piece scores exactly
+ * like adding it to the Piece's worth, and the same goes for Kings. So
+ * the worth of a single Piece is not tuned, and each step of the square
+ * bonuses is centered, keeping their mean (over the squares a Piece of
+ * that kind can stand on) where it started; together these fix the scale
+ * of the others. The curve's steepness K is fitted first, to the starting
+ * weights, and then kept.
+ *
+ * Run with:
+ * mvn compile exec:java -Dexec.mainClass=com.webcheckers.engine.Tuner -Dexec.args="[options] positions..."
+ *
+ * Options:
+ *   -epochs N     passes over the positions (default 200)
+ *   -rate X       largest step of a weight per pass (default 1.0)
+ *   -k X          steepness of the curve, instead of fitting it
+ *   -threads N    passes run at once (default: the processor count)
+ *   -start FILE   weights to start from (default: the built-in ones)
+ *   -out FILE     the weights file to write (default weights.properties)
+ *
+ * @authors
+ *      Summer DiStefano
+ *      Frank Abbey
+ *      Raisa Hossain
+ *      Stephen Bosonac
+ *
+ * @version 5/9/2020
+ *
+ */
+public class Tuner {
+
+    public static final int DEFAULT_EPOCHS = 200;
+    public static final double DEFAULT_RATE = 1.0;
+
+    /** Positions read by one task of a pass */
+    private static final int CHUNK_POSITIONS = 1 << 18;
+
+    /** Positions read from a file at a time */
+    private static final int BUFFER_POSITIONS = 4096;
+
+    /** Index of the single Piece's worth among the weights, which stays fixed */
+    private static final int MAN = 0;
+    private static final int KING = 1;
+    private static final int MOBILITY = 2;
+    private static final int MAN_SQUARES = 3;
+    private static final int KING_SQUARES = 3 + EvaluationWeights.SQUARES;
+
+    /** Squares a single Piece can stand on, from red's side: it is crowned on the last row */
+    private static final int MAN_SQUARES_IN_PLAY = ~Bitboards.RED_KING_ROW;
+    private static final int KING_SQUARES_IN_PLAY = ~0;
+
+    /** Adam's decay rates */
+    private static final double BETA1 = 0.9;
+    private static final double BETA2 = 0.999;
+    private static final double EPSILON = 1e-12;
+
+    /** Range K is fitted in */
+    private static final double MIN_K = 0.01;
+    private static final double MAX_K = 10;
+
+    private final List<Chunk> chunks = new ArrayList<>();
+    private final ExecutorService pool;
+    private long positions;
+
+    /**
+     * Positions of one file read by one task
+     */
+    private static class Chunk {
+        private final Path file;
+        private final long first;
+        private final int count;
+
+        Chunk(Path file, long first, int count) {
+            this.file = file;
+            this.first = first;
+            this.count = count;
+        }
+    }
+
+    /**
+     * The error of one pass, and its gradient if asked for
+     */
+    private static class Pass {
+        private double error;
+        private final double[] gradient = new double[EvaluationWeights.COUNT];
+        private long positions;
+
+        void add(Pass other) {
+            error += other.error;
+            for(int i = 0; i < gradient.length; i++)
+                gradient[i] += other.gradient[i];
+            positions += other.positions;
+        }
+    }
+
+    /**
+     * Create a new Tuner over positions files
+     *
+     * @param files - files written by TuningSetBuilder
+     * @param threads - passes run on this many threads
+     * @throws IOException - if a file can't be read or isn't a positions file
+     */
+    public Tuner(List<Path> files, int threads) throws IOException {
+        if(threads < 1)
+            throw new IllegalArgumentException("Must tune on at least one thread: " + threads);
+        for(Path file : files) {
+            long count = readHeader(file);
+            for(long first = 0; first < count; first += CHUNK_POSITIONS)
+                chunks.add(new Chunk(file, first, (int) Math.min(CHUNK_POSITIONS, count - first)));
+            positions += count;
+        }
+        if(positions == 0)
+            throw new IllegalArgumentException("No positions to tune on");
+        this.pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "Tuner");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Check a positions file's header
+     *
+     * @return long - the number of positions in it
+     */
+    private static long readHeader(Path file) throws IOException {
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(TuningSetBuilder.HEADER_BYTES);
+            while(header.hasRemaining() && channel.read(header) >= 0) {
+                //keep reading
+            }
+            if(header.hasRemaining() || header.getInt(0) != TuningSetBuilder.MAGIC
+                    || header.getInt(4) != TuningSetBuilder.VERSION)
+                throw new IOException("Not a positions file: " + file);
+            long count = header.getLong(8);
+            if(channel.size() != TuningSetBuilder.HEADER_BYTES + count * TuningSetBuilder.POSITION_BYTES)
+                throw new IOException("Positions file is truncated: " + file);
+            return count;
+        }
+    }
+
+    /**
+     * Predicted result of a position, from 0 (red loses) to 1 (red wins)
+     *
+     * @param score - the evaluation from red's side
+     * @param k - steepness of the curve
+     * @return double
+     */
+    static double predict(double score, double k) {
+        return 1 / (1 + Math.pow(10, -k * score / 400));
+    }
+
+    /**
+     * Work out the error of a set of weights over every position, and its
+     * gradient if asked for
+     */
+    private Pass pass(double[] weights, double k, boolean gradient) throws IOException {
+        List<Future<Pass>> tasks = new ArrayList<>();
+        for(Chunk chunk : chunks)
+            tasks.add(pool.submit(() -> pass(chunk, weights, k, gradient)));
+        Pass total = new Pass();
+        try {
+            for(Future<Pass> task : tasks)
+                total.add(task.get());
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        } catch(ExecutionException e) {
+            if(e.getCause() instanceof IOException)
+                throw (IOException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        }
+        return total;
+    }
+
+    private static Pass pass(Chunk chunk, double[] weights, double k, boolean gradient) throws IOException {
+        Pass pass = new Pass();
+        double[] sums = pass.gradient;
+        //d prediction / d score is ln(10) k / 400 times p (1 - p)
+        double slope = Math.log(10) * k / 400;
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_POSITIONS * TuningSetBuilder.POSITION_BYTES);
+
+        try(FileChannel channel = FileChannel.open(chunk.file, StandardOpenOption.READ)) {
+            long offset = TuningSetBuilder.HEADER_BYTES + chunk.first * TuningSetBuilder.POSITION_BYTES;
+            for(int done = 0; done < chunk.count; ) {
+                int count = Math.min(BUFFER_POSITIONS, chunk.count - done);
+                buffer.clear().limit(count * TuningSetBuilder.POSITION_BYTES);
+                while(buffer.hasRemaining()) {
+                    int read = channel.read(buffer, offset + buffer.position());
+                    if(read < 0)
+                        throw new IOException("Positions file is truncated: " + chunk.file);
+                }
+                buffer.flip();
+
+                for(int i = 0; i < count; i++) {
+                    int red = buffer.getInt();
+                    int white = buffer.getInt();
+                    int kings = buffer.getInt();
+                    double result = buffer.get() / 2.0;
+
+                    double score = score(weights, red, white, kings);
+                    double predicted = predict(score, k);
+                    double miss = result - predicted;
+                    pass.error += miss * miss;
+                    if(gradient)
+                        addGradient(sums, -2 * miss * predicted * (1 - predicted) * slope, red, white, kings);
+                }
+                done += count;
+                offset += (long) count * TuningSetBuilder.POSITION_BYTES;
+            }
+        }
+        pass.positions = chunk.count;
+        return pass;
+    }
+
+    /**
+     * Pieces of red that can move less those of white, as the evaluation
+     * counts them (see Board.movers)
+     */
+    private static int mobility(int red, int white, int kings) {
+        int empty = ~(red | white);
+        int redMovers = Bitboards.moversSouth(red, empty) | Bitboards.moversNorth(red & kings, empty);
+        int whiteMovers = Bitboards.moversNorth(white, empty) | Bitboards.moversSouth(white & kings, empty);
+        return Integer.bitCount(redMovers) - Integer.bitCount(whiteMovers);
+    }
+
+    /**
+     * Evaluate a position from red's side, as the DefaultEvaluator does
+     * with these weights
+     */
+    static double score(double[] weights, int red, int white, int kings) {
+        double score = weights[MOBILITY] * mobility(red, white, kings);
+        for(int pieces = red; pieces != 0; pieces &= pieces - 1) {
+            int square = Integer.numberOfTrailingZeros(pieces);
+            score += (kings & (1 << square)) != 0 ? weights[KING] + weights[KING_SQUARES + square]
+                    : weights[MAN] + weights[MAN_SQUARES + square];
+        }
+        for(int pieces = white; pieces != 0; pieces &= pieces - 1) {
+            int square = Integer.numberOfTrailingZeros(pieces);
+            score -= (kings & (1 << square)) != 0 ? weights[KING] + weights[KING_SQUARES + 31 - square]
+                    : weights[MAN] + weights[MAN_SQUARES + 31 - square];
+        }
+        return score;
+    }
+
+    /**
+     * Add the gradient of one position's error: its derivative by the
+     * score times each weight's count in the score
+     */
+    private static void addGradient(double[] sums, double derivative, int red, int white, int kings) {
+        sums[MOBILITY] += derivative * mobility(red, white, kings);
+        for(int pieces = red; pieces != 0; pieces &= pieces - 1) {
+            int square = Integer.numberOfTrailingZeros(pieces);
+            boolean isKing = (kings & (1 << square)) != 0;
+            sums[isKing ? KING : MAN] += derivative;
+            sums[(isKing ? KING_SQUARES : MAN_SQUARES) + square] += derivative;
+        }
+        for(int pieces = white; pieces != 0; pieces &= pieces - 1) {
+            int square = Integer.numberOfTrailingZeros(pieces);
+            boolean isKing = (kings & (1 << square)) != 0;
+            sums[isKing ? KING : MAN] -= derivative;
+            sums[(isKing ? KING_SQUARES : MAN_SQUARES) + 31 - square] -= derivative;
+        }
+    }
+
+    /**
+     * Mean squared error of a set of weights over every position
+     *
+     * @param weights
+     * @param k - steepness of the curve
+     * @return double
+     * @throws IOException - if a positions file can't be read
+     */
+    public double error(EvaluationWeights weights, double k) throws IOException {
+        return pass(toDoubles(weights), k, false).error / positions;
+    }
+
+    /**
+     * Find the steepness of the curve that gives a set of weights the
+     * least error, by golden section search
+     *
+     * @param weights
+     * @return double - K
+     * @throws IOException - if a positions file can't be read
+     */
+    public double fitK(EvaluationWeights weights) throws IOException {
+        double ratio = (Math.sqrt(5) - 1) / 2;
+        double low = MIN_K;
+        double high = MAX_K;
+        double left = high - ratio * (high - low);
+        double right = low + ratio * (high - low);
+        double leftError = error(weights, left);
+        double rightError = error(weights, right);
+        while(high - low > 1e-3) {
+            if(leftError < rightError) {
+                high = right;
+                right = left;
+                rightError = leftError;
+                left = high - ratio * (high - low);
+                leftError = error(weights, left);
+            }
+            else {
+                low = left;
+                left = right;
+                leftError = rightError;
+                right = low + ratio * (high - low);
+                rightError = error(weights, right);
+            }
+        }
+        return (low + high) / 2;
+    }
+
+    /**
+     * Tune a set of weights
+     *
+     * @param start - the weights to start from
+     * @param k - steepness of the curve
+     * @param epochs - passes over the positions
+     * @param rate - largest step of a weight per pass
+     * @return EvaluationWeights - the weights with the least error seen, rounded
+     * @throws IOException - if a positions file can't be read
+     */
+    public EvaluationWeights tune(EvaluationWeights start, double k, int epochs, double rate) throws IOException {
+        double[] weights = toDoubles(start);
+        double[] best = weights.clone();
+        double bestError = Double.MAX_VALUE;
+        double[] mean = new double[weights.length];
+        double[] variance = new double[weights.length];
+        double[] steps = new double[weights.length];
+        long begin = System.nanoTime();
+
+        for(int epoch = 1; epoch <= epochs; epoch++) {
+            Pass pass = pass(weights, k, true);
+            double error = pass.error / positions;
+            if(error < bestError) {
+                bestError = error;
+                best = weights.clone();
+            }
+
+            for(int i = 0; i < weights.length; i++) {
+                if(i == MAN)
+                    continue;
+                double gradient = pass.gradient[i] / positions;
+                mean[i] = BETA1 * mean[i] + (1 - BETA1) * gradient;
+                variance[i] = BETA2 * variance[i] + (1 - BETA2) * gradient * gradient;
+                double meanEstimate = mean[i] / (1 - Math.pow(BETA1, epoch));
+                double varianceEstimate = variance[i] / (1 - Math.pow(BETA2, epoch));
+                steps[i] = rate * meanEstimate / (Math.sqrt(varianceEstimate) + EPSILON);
+            }
+            center(steps, MAN_SQUARES, MAN_SQUARES_IN_PLAY);
+            center(steps, KING_SQUARES, KING_SQUARES_IN_PLAY);
+            for(int i = 0; i < weights.length; i++)
+                weights[i] -= steps[i];
+
+            if(epoch == 1 || epoch % 10 == 0 || epoch == epochs) {
+                double seconds = (System.nanoTime() - begin) / 1e9;
+                System.out.printf("epoch %d: error %.6f, %.0f positions/s%n", epoch, error,
+                        epoch * (double) positions / seconds);
+            }
+        }
+
+        //the last step's weights have not been scored yet
+        if(epochs > 0 && pass(weights, k, false).error / positions < bestError)
+            best = weights;
+
+        int[] rounded = new int[best.length];
+        for(int i = 0; i < best.length; i++)
+            rounded[i] = (int) Math.round(best[i]);
+        return EvaluationWeights.fromArray(rounded);
+    }
+
+    /**
+     * Take the mean of the steps of a set of square bonuses from each of
+     * them, so the mean of the bonuses doesn't move
+     *
+     * @param steps - the steps of every weight
+     * @param first - index of the set's first square
+     * @param squares - the squares of the set to center over
+     */
+    private static void center(double[] steps, int first, int squares) {
+        double sum = 0;
+        for(int rest = squares; rest != 0; rest &= rest - 1)
+            sum += steps[first + Integer.numberOfTrailingZeros(rest)];
+        double mean = sum / Integer.bitCount(squares);
+        for(int rest = squares; rest != 0; rest &= rest - 1)
+            steps[first + Integer.numberOfTrailingZeros(rest)] -= mean;
+    }
+
+    private static double[] toDoubles(EvaluationWeights weights) {
+        int[] values = weights.toArray();
+        double[] doubles = new double[values.length];
+        for(int i = 0; i < values.length; i++)
+            doubles[i] = values[i];
+        return doubles;
+    }
+
+    public long getPositions() {
+        return positions;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int epochs = DEFAULT_EPOCHS;
+        double rate = DEFAULT_RATE;
+        double k = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        EvaluationWeights start = EvaluationWeights.DEFAULT;
+        String out = "weights.properties";
+        List<Path> files = new ArrayList<>();
+
+        for(int i = 0; i < args.length; i++) {
+            switch(args[i]) {
+                case "-epochs":
+                    epochs = Integer.parseInt(args[++i]);
+                    break;
+                case "-rate":
+                    rate = Double.parseDouble(args[++i]);
+                    break;
+                case "-k":
+                    k = Double.parseDouble(args[++i]);
+                    break;
+                case "-threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "-start":
+                    start = EvaluationWeights.load(Paths.get(args[++i]));
+                    break;
+                case "-out":
+                    out = args[++i];
+                    break;
+                default:
+                    files.add(Paths.get(args[i]));
+            }
+        }
+        if(files.isEmpty()) {
+            System.err.println("usage: Tuner [-epochs N] [-rate X] [-k X] [-threads N] [-start file] [-out file]"
+                    + " positions...");
+            System.exit(2);
+        }
+
+        Tuner tuner = new Tuner(files, threads);
+        System.out.printf("%d positions, %d threads%n", tuner.getPositions(), threads);
+        if(k <= 0) {
+            k = tuner.fitK(start);
+            System.out.printf("fitted K = %.3f%n", k);
+        }
+        double startError = tuner.error(start, k);
+        EvaluationWeights tuned = tuner.tune(start, k, epochs, rate);
+        double tunedError = tuner.error(tuned, k);
+        tuned.store(Paths.get(out));
+        System.out.printf("error %.6f -> %.6f; %s written to %s%n", startError, tunedError, tuned, out);
+    }
+
+}
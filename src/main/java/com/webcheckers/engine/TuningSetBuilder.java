@@ -0,0 +1,194 @@
+package com.webcheckers.engine;
+
+import com.webcheckers.model.Board;
+import com.webcheckers.model.Piece;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the positions file {@link Tuner} fits evaluation weights to,
+ * from finished games in the format SelfPlay writes.
+ *
+ * Every quiet position of a game (one where the side to move can move
+ * but has no jump, so the search would score it as it stands) is written
+ * with the game's result. Positions are read back one block at a time,
+ * so a file of tens of millions of them never has to fit on the heap.
+ *
+ * File layout, big-endian:
+ *   header:   MAGIC, VERSION, position count (long)
+ *   position: red (int), white (int), kings (int), red's result (byte:
+ *             2 won, 1 drawn, 0 lost)
+ *
+ * Run with:
+ * mvn compile exec:java -Dexec.mainClass=com.webcheckers.engine.TuningSetBuilder -Dexec.args="[options] games..."
+ *
+ * Options:
+ *   -skipPlies N   plies at the start of each game to leave out (default 8)
+ *   -out FILE      the positions file to write (default positions.bin)
+ *
+ * @authors
+ *      Summer DiStefano
+ *      Frank Abbey
+ *      Raisa Hossain
+ *      Stephen Bosonac
+ *
+ * @version 5/9/2020
+ *
+ */
+public class TuningSetBuilder implements AutoCloseable {
+
+    /** "WCTS" */
+    static final int MAGIC = 0x57435453;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int POSITION_BYTES = 13;
+
+    /**
+     * Plies of each game left out unless told otherwise: SelfPlay's random
+     * opening (4 plies unless told otherwise) and the first moves played
+     * after it, whose positions say little about the result
+     */
+    public static final int DEFAULT_SKIP_PLIES = 8;
+
+    private final int skipPlies;
+    private final RandomAccessFile file;
+    private final DataOutputStream out;
+
+    private long positions;
+    private int games;
+    private int skipped;
+
+    /**
+     * Start a new positions file
+     *
+     * @param file - the file's name
+     * @param skipPlies - plies at the start of each game to leave out
+     * @throws IOException - if the file can't be written
+     */
+    public TuningSetBuilder(String file, int skipPlies) throws IOException {
+        if(skipPlies < 0)
+            throw new IllegalArgumentException("Skipped plies must not be negative: " + skipPlies);
+        this.skipPlies = skipPlies;
+        this.file = new RandomAccessFile(file, "rw");
+        this.file.setLength(0);
+        this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(this.file.getChannel()),
+                1 << 16));
+        //the count is filled in by close()
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(0);
+    }
+
+    /**
+     * Add the quiet positions of a game
+     *
+     * @param game - the game, read from a games file
+     * @throws IOException - if the file can't be written
+     * @throws IllegalArgumentException - if a move can't be read
+     */
+    public void addGame(SelfPlay.GameRecord game) throws IOException {
+        //read every move before writing any position, so a bad game adds nothing
+        int plies = game.getPlies();
+        Board[] boards = new Board[plies + 1];
+        game.replay(plies, boards, new int[plies], new int[plies]);
+
+        int redResult = game.getRedPoints();
+        for(int ply = skipPlies; ply <= plies; ply++) {
+            Board board = boards[ply];
+            Piece.PieceColor side = board.getActiveColor();
+            //a finished game is scored by the search, not the evaluation
+            if(board.mustJump(side) || !board.hasAnyLegalMove(side))
+                continue;
+            out.writeInt(board.piecesOf(Piece.PieceColor.RED));
+            out.writeInt(board.piecesOf(Piece.PieceColor.WHITE));
+            out.writeInt(board.getKings());
+            out.writeByte(redResult);
+            positions++;
+        }
+        games++;
+    }
+
+    /**
+     * Add every game in a file written by SelfPlay, gzipped or not
+     *
+     * @param file - the file's name
+     * @throws IOException - if a file can't be read or written
+     */
+    public void addGames(String file) throws IOException {
+        try(BufferedReader reader = SelfPlay.readGames(file)) {
+            String line;
+            while((line = reader.readLine()) != null) {
+                if(line.isEmpty() || line.startsWith("#"))
+                    continue;
+                try {
+                    addGame(SelfPlay.GameRecord.parse(line));
+                } catch(IllegalArgumentException e) {
+                    skipped++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Finish the file, writing the number of positions into its header
+     *
+     * @throws IOException - if the file can't be written
+     */
+    @Override
+    public void close() throws IOException {
+        out.flush();
+        file.seek(8);
+        file.writeLong(positions);
+        file.close();
+    }
+
+    public long getPositions() {
+        return positions;
+    }
+
+    public int getGames() {
+        return games;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int skipPlies = DEFAULT_SKIP_PLIES;
+        String out = "positions.bin";
+        List<String> files = new ArrayList<>();
+
+        for(int i = 0; i < args.length; i++) {
+            switch(args[i]) {
+                case "-skipPlies":
+                    skipPlies = Integer.parseInt(args[++i]);
+                    break;
+                case "-out":
+                    out = args[++i];
+                    break;
+                default:
+                    files.add(args[i]);
+            }
+        }
+        if(files.isEmpty()) {
+            System.err.println("usage: TuningSetBuilder [-skipPlies N] [-out file] games...");
+            System.exit(2);
+        }
+
+        try(TuningSetBuilder builder = new TuningSetBuilder(out, skipPlies)) {
+            for(String file : files)
+                builder.addGames(file);
+            System.out.printf("%d games (%d skipped): %d quiet positions written to %s%n",
+                    builder.getGames(), builder.getSkipped(), builder.getPositions(), out);
+        }
+    }
+
+}
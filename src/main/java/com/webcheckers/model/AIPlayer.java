@@ -1,9 +1,19 @@
 package com.webcheckers.model;
 
-import com.webcheckers.appl.GameCenter;
+import com.webcheckers.engine.Engine;
+import com.webcheckers.engine.MoveSearch;
+import com.webcheckers.engine.OpeningBook;
+import com.webcheckers.engine.Ponder;
+import com.webcheckers.engine.SearchLimits;
+import com.webcheckers.engine.SearchPool;
+import com.webcheckers.engine.SearchResult;
+import com.webcheckers.engine.Strength;
+import com.webcheckers.engine.Tablebase;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Logger;
 
 /**
@@ -17,7 +27,7 @@ import java.util.logging.Logger;
  *      Raisa Hossain
  *      Stephen Bosonac
  *
- * @version 4/12/2020
+ * @version 5/10/2020
  *
  */
 public class AIPlayer extends Player{
@@ -26,16 +36,78 @@ public class AIPlayer extends Player{
     private final String name;
     private static int id = 1;
 
+    /** Reused buffer for the move generator */
+    private final MoveList moves = new MoveList();
+
+    /** Search engine that chooses this Player's Moves */
+    private final MoveSearch search;
+    private final Engine engine;
+    private final Strength strength;
+    private final SearchLimits limits;
+
+    /** Moves played without searching near the start and the end, or null */
+    private final OpeningBook openingBook;
+    private final Tablebase tablebase;
+
+    /** Searches the opponent's likely replies during their Turn; null for an engine without a table */
+    private final Ponder ponderer;
+    private final Object ponderLock = new Object();
+
+    /** The opponent's reply the last search expected, to ponder first */
+    private volatile int expectedReply = Move.NONE;
+
+    /** Result of the last search, or null before the first */
+    private volatile SearchResult lastSearch;
+
     /**
-     * Constructor used to create a new Player
+     * Constructor used to create a new Player whose search shares a
+     * transposition table and helper threads with other AI Players
      *
      * @param username - String representing the player's
      *                   username
+     * @param searchPool - the shared table and threads
      */
-    public AIPlayer(final String username) {
+    public AIPlayer(final String username, final SearchPool searchPool) {
+        this(username, searchPool, Strength.DEFAULT);
+    }
+
+    /**
+     * Constructor used to create a new Player that plays at a chosen
+     * strength
+     *
+     * @param username - String representing the player's
+     *                   username
+     * @param searchPool - the shared table and threads
+     * @param strength - how deep and how long the Player searches
+     */
+    public AIPlayer(final String username, final SearchPool searchPool, final Strength strength) {
+        this(username, searchPool, strength, strength.getEngine());
+    }
+
+    /**
+     * Constructor used to create a new Player that plays at a chosen
+     * strength with a chosen engine, rather than the strength's own
+     *
+     * @param username - String representing the player's
+     *                   username
+     * @param searchPool - the shared table and threads
+     * @param strength - how deep and how long the Player searches
+     * @param engine - the kind of search that chooses the Player's Moves
+     */
+    public AIPlayer(final String username, final SearchPool searchPool, final Strength strength,
+                    final Engine engine) {
         //static member 'id' used to give each AI player a unique name
         this.name = username + "_" + id;
         id++;
+        this.strength = Objects.requireNonNull(strength, "strength must not be null");
+        this.engine = Objects.requireNonNull(engine, "engine must not be null");
+        this.limits = strength.getLimits();
+        this.search = engine.create(searchPool);
+        this.openingBook = searchPool.getOpeningBook();
+        this.tablebase = searchPool.getTablebase();
+        //pondering fills the transposition table, which only alpha-beta reads
+        this.ponderer = engine == Engine.ALPHA_BETA
+                ? new Ponder(searchPool.getTranspositionTable(), searchPool.newEvaluator()) : null;
         LOG.finer(this + " created.");
     }
 
@@ -49,75 +121,194 @@ public class AIPlayer extends Player{
     }
 
     /**
-     * Contains algorithm for AI Player's Move choice
+     * Get how strongly the AI player plays
      *
-     * @param gameCenter - the current GameCenter
-     * @return Move - the move to be made by the AI Player
+     * @return Strength
      */
-    public void takeAITurn(GameCenter gameCenter) {
-
-        CheckersGame game = gameCenter.getGame(this);
-        Turn turn = game.getTurn();
-        Board board = turn.getCurrentBoard();
+    public Strength getStrength() {
+        return strength;
+    }
 
-        //AI Player will always use White Pieces
-        List<Move> movesAvailable = board.getAvailableMoves(Piece.PieceColor.WHITE);
-        Move moveChoice = null;
+    /**
+     * Get the kind of search that chooses the AI player's Moves
+     *
+     * @return Engine
+     */
+    public Engine getEngine() {
+        return engine;
+    }
 
-        //if there isn't a move available, the end game scenario should catch that
-        if(!movesAvailable.isEmpty()) {
-
-            for (Move current : movesAvailable) {
-                if (current.isJumpType()) {
-                    moveChoice = current;
-                    moveChoice.setType(Move.Type.JUMP);
-                }
-            }
-            //if a Jump move was not found, just make first available Move
-            if(moveChoice == null)
-                moveChoice = movesAvailable.get(0);
+    /**
+     * Get the result of this Player's last search: its depth, nodes and
+     * time, for statistics
+     *
+     * @return SearchResult - the result, or null if it hasn't searched yet
+     */
+    public SearchResult getLastSearch() {
+        return lastSearch;
+    }
 
-        }
+    /**
+     * Contains algorithm for AI Player's Move choice, searching within
+     * the limits of this Player's strength
+     *
+     * @param game - the game, with this Player's Turn active
+     * @return List<Move> - the Moves to make in order, one per hop of a
+     *                      jump sequence; empty if there is no Move
+     */
+    public List<Move> chooseMove(CheckersGame game) {
+        return chooseMove(game, limits);
+    }
 
-        //put the main process to sleep in seconds based on the number of moves before changing
-        // the turn to make the AI experience flow more naturally
-        try {
-            Thread.sleep(800 * movesAvailable.size());
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
+    /**
+     * Contains algorithm for AI Player's Move choice. The search engine
+     * picks the Move, which may be a whole jump sequence. Nothing is
+     * changed in the game; the Moves are returned for the caller to make.
+     *
+     * @param game - the game, with this Player's Turn active
+     * @param limits - how deep and how long to search
+     * @return List<Move> - the Moves to make in order, one per hop of a
+     *                      jump sequence; empty if there is no Move
+     */
+    public List<Move> chooseMove(CheckersGame game, SearchLimits limits) {
+        Turn turn = game.getTurn();
+        return chooseMove(turn.getCurrentBoard(), turn.getPlayerColor(), limits);
+    }
 
-        gameCenter.getTurn(this).makeMove(moveChoice);
+    /**
+     * Choose a Move in a position rather than a game, so the search can
+     * run on a copy of the game's Board without holding the game
+     *
+     * @param board - the position; it is not changed
+     * @param color - the color this Player plays
+     * @param limits - how deep and how long to search
+     * @return List<Move> - the Moves to make in order, one per hop of a
+     *                      jump sequence; empty if there is no Move
+     */
+    public List<Move> chooseMove(Board board, Piece.PieceColor color, SearchLimits limits) {
+        Board position = board.copyBoard();
+        position.setActiveColor(color);
+        SearchResult result = search(position, limits);
+        LOG.fine(this.name + " searched: " + result);
 
-        //update the board
-        turn = game.getTurn();
-        board = turn.getCurrentBoard();
+        int[] line = result.getPrincipalVariation();
+        expectedReply = line.length > 1 ? line[1] : Move.NONE;
+        lastSearch = result;
 
-        //if the move was a jump, determine if AI should make another jump
-        if(moveChoice != null && moveChoice.isJumpType()) {
+        List<Move> hops = new ArrayList<>();
 
-            while(board.jumpMoveAvailable(Piece.PieceColor.WHITE, moveChoice.getEnd())) {
+        //if there isn't a move available, the end game scenario should catch that
+        if(!result.hasMove())
+            return hops;
 
-                movesAvailable = board.getAvailableMoves(Piece.PieceColor.WHITE);
+        board.generateMoves(color, moves);
+        int index = moves.indexOf(result.getBestMove());
+        if(index < 0)
+            return hops;
 
-                //search for the jump move that can be taken
-                if(!movesAvailable.isEmpty()) {
+        //a jump sequence is made one hop at a time, the way a Player makes it
+        int moveChoice = moves.get(index);
+        if(!Move.isCapture(moveChoice)) {
+            hops.add(Move.decode(moveChoice, color));
+            return hops;
+        }
+        int jumped = moves.getCaptured(index);
+        long path = moves.getPath(index);
+        int from = Move.startSquare(moveChoice);
+        for(int hop = 0; hop < Integer.bitCount(jumped); hop++) {
+            int to = Move.pathSquare(path, hop);
+            hops.add(Move.decode(Move.encode(from, to, Bitboards.between(from, to), Move.CAPTURE), color));
+            from = to;
+        }
+        return hops;
+    }
 
-                    for (Move current : movesAvailable) {
+    /**
+     * Play a position from the opening book or the endgame tablebase if
+     * either has it. Otherwise search it, starting from what pondering
+     * found if the opponent played a predicted reply. A pondered result
+     * that searched as deep or as long as the limits allow is used as it
+     * is; otherwise the search gets the rest of the time, with the table
+     * already filled.
+     */
+    private SearchResult search(Board position, SearchLimits limits) {
+        if(openingBook != null) {
+            SearchResult book = openingBook.probe(position);
+            if(book != null)
+                return book;
+        }
+        if(tablebase != null) {
+            SearchResult known = tablebase.bestMove(position);
+            if(known != null)
+                return known;
+        }
 
-                        if (current.isJumpType() && current.getStart().equals(moveChoice.getEnd())) {
-                            moveChoice = current;
-                            gameCenter.getTurn(this).makeMove(moveChoice);
-                            //update the board
-                            board = game.getTurn().getCurrentBoard();
-                        }
+        if(ponderer == null)
+            return search.search(position, limits);
+        SearchResult pondered = ponderer.resultFor(position);
+        if(pondered == null)
+            return search.search(position, limits);
 
-                    }
+        long millis = limits.getMaxMillis();
+        if(pondered.getDepth() >= limits.getMaxDepth()
+                || (millis > 0 && pondered.getElapsedMillis() >= millis)) {
+            LOG.finer(this.name + " answered from pondering");
+            return pondered;
+        }
+        long remaining = millis == 0 ? 0 : Math.max(1, millis - pondered.getElapsedMillis());
+        return search.search(position, new SearchLimits(limits.getMaxDepth(), limits.getMaxNodes(), remaining));
+    }
 
-                }
-            }
+    /**
+     * Think about the opponent's likely replies during their Turn, so the
+     * next chooseMove() finds its work done if they play one of them.
+     * Runs until each reply has been searched within the limits or the
+     * stop flag is set.
+     *
+     * @param position - the game's Board, with the opponent to move
+     * @param limits - budget for each reply
+     * @param stop - flag that ends pondering when set, from any thread
+     * @return int - the number of replies pondered to the end
+     */
+    public int ponder(Board position, SearchLimits limits, AtomicBoolean stop) {
+        if(ponderer == null)
+            return 0;
+        //a stopped ponder may still be unwinding when the next one starts
+        synchronized(ponderLock) {
+            return ponderer.ponder(position, expectedReply, Ponder.DEFAULT_REPLIES, limits, stop);
         }
+    }
+
+    /**
+     * Count the Moves this Player could make in its Turn, which sets how
+     * long it appears to think
+     *
+     * @param game - the game, with this Player's Turn active
+     * @return int
+     */
+    public int countMoves(CheckersGame game) {
+        Turn turn = game.getTurn();
+        return countMoves(turn.getCurrentBoard(), turn.getPlayerColor());
+    }
 
+    /**
+     * Count the Moves this Player could make in a position
+     *
+     * @param board - the position
+     * @param color - the color this Player plays
+     * @return int
+     */
+    public int countMoves(Board board, Piece.PieceColor color) {
+        return board.generateMoves(color, moves);
+    }
+
+    /**
+     * Stop a search running in chooseMove() early; it still returns the
+     * best Move found so far. If none is running, the next one stops as
+     * soon as it starts.
+     */
+    public void stopThinking() {
+        search.stop();
     }
 
     @Override
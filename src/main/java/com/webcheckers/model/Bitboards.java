@@ -0,0 +1,282 @@
+package com.webcheckers.model;
+
+/**
+ * Constants and shift-and-mask helpers for the 32 playable squares of
+ * a Checkers board packed into a single int.
+ *
+ * Square numbering follows the Board's row/cell layout: square
+ * (row * 4) + (cell / 2), so bits 0-3 are row 0 and bits 28-31 are row 7.
+ * "South" is toward row 7 (the direction Red Pieces move) and "north" is
+ * toward row 0 (the direction White Pieces move).
+ *
+ * @authors
+ *      Summer DiStefano
+ *      Frank Abbey
+ *      Raisa Hossain
+ *      Stephen Bosonac
+ *
+ * @version 4/20/2020
+ *
+ */
+public final class Bitboards {
+
+    /** Number of playable squares on the board. */
+    public static final int SQUARES = 32;
+
+    /** Number of rows (and cells per row) on the board. */
+    public static final int DIM = 8;
+
+    /** Squares on rows 0, 2, 4 and 6. */
+    public static final int EVEN_ROWS = 0x0F0F0F0F;
+
+    /** Squares on rows 1, 3, 5 and 7. */
+    public static final int ODD_ROWS = 0xF0F0F0F0;
+
+    /** The first playable square of every row. */
+    public static final int FIRST_COLUMN = 0x11111111;
+
+    /** The last playable square of every row. */
+    public static final int LAST_COLUMN = 0x88888888;
+
+    /** Row 7, where Red Pieces are Kinged. */
+    public static final int RED_KING_ROW = 0xF0000000;
+
+    /** Row 0, where White Pieces are Kinged. */
+    public static final int WHITE_KING_ROW = 0x0000000F;
+
+    /** Rows 0-2, where Red Pieces start. */
+    public static final int RED_START = 0x00000FFF;
+
+    /** Rows 5-7, where White Pieces start. */
+    public static final int WHITE_START = 0xFFF00000;
+
+    /** Direction indexes used by the neighbor tables. */
+    public static final int NORTH_WEST = 0;
+    public static final int NORTH_EAST = 1;
+    public static final int SOUTH_WEST = 2;
+    public static final int SOUTH_EAST = 3;
+
+    /** Neighboring square in each direction, or -1 when off the board. */
+    private static final int[][] NEIGHBORS = new int[4][SQUARES];
+
+    /** Squares whose jumps can change when a given square changes. */
+    private static final int[] JUMP_AREA = new int[SQUARES];
+
+    static {
+        for(int sq = 0; sq < SQUARES; sq++) {
+            int bit = 1 << sq;
+            NEIGHBORS[NORTH_WEST][sq] = first(northWest(bit));
+            NEIGHBORS[NORTH_EAST][sq] = first(northEast(bit));
+            NEIGHBORS[SOUTH_WEST][sq] = first(southWest(bit));
+            NEIGHBORS[SOUTH_EAST][sq] = first(southEast(bit));
+        }
+        for(int sq = 0; sq < SQUARES; sq++) {
+            int area = 1 << sq;
+            for(int direction = 0; direction < 4; direction++) {
+                int step = shift(direction, 1 << sq);
+                area |= step | shift(direction, step);
+            }
+            JUMP_AREA[sq] = area;
+        }
+    }
+
+    private Bitboards() {
+    }
+
+    /**
+     * Convert a row and cell into a square index
+     *
+     * @param row - row index (0-7)
+     * @param cell - cell index (0-7)
+     * @return int - the square index, or -1 if the space is off the board
+     *               or can never hold a Piece
+     */
+    public static int square(int row, int cell) {
+        if(row < 0 || row >= DIM || cell < 0 || cell >= DIM || ((row + cell) & 1) == 0)
+            return -1;
+        return (row << 2) | (cell >> 1);
+    }
+
+    /**
+     * Convert a Position into a square index
+     *
+     * @param position
+     * @return int - the square index, or -1 if the Position is not playable
+     */
+    public static int square(Position position) {
+        return square(position.getRow(), position.getCell());
+    }
+
+    /**
+     * Retrieve the row index of a square
+     *
+     * @param square
+     * @return int
+     */
+    public static int row(int square) {
+        return square >> 2;
+    }
+
+    /**
+     * Retrieve the cell index of a square
+     *
+     * @param square
+     * @return int
+     */
+    public static int cell(int square) {
+        return ((square & 3) << 1) | (~(square >> 2) & 1);
+    }
+
+    /**
+     * Create a Position for a square index
+     *
+     * @param square
+     * @return Position
+     */
+    public static Position position(int square) {
+        return new Position(row(square), cell(square));
+    }
+
+    /**
+     * Retrieve the neighboring square in a given direction
+     *
+     * @param direction - one of NORTH_WEST, NORTH_EAST, SOUTH_WEST, SOUTH_EAST
+     * @param square
+     * @return int - the neighboring square, or -1 when off the board
+     */
+    public static int neighbor(int direction, int square) {
+        return NEIGHBORS[direction][square];
+    }
+
+    /**
+     * Retrieve the squares whose Pieces may gain or lose a jump when a
+     * square changes: the square itself and every square one or two
+     * diagonal steps away, where a jump over it or onto it would start
+     *
+     * @param square
+     * @return int - mask of the squares
+     */
+    public static int jumpArea(int square) {
+        return JUMP_AREA[square];
+    }
+
+    /**
+     * Retrieve the square a jump between two squares passes over
+     *
+     * @param from - start square of the jump
+     * @param to - end square of the jump
+     * @return int
+     */
+    public static int between(int from, int to) {
+        return square((row(from) + row(to)) / 2, (cell(from) + cell(to)) / 2);
+    }
+
+    /**
+     * Index of the lowest square in a mask
+     *
+     * @param mask
+     * @return int - the square index, or -1 if the mask is empty
+     */
+    public static int first(int mask) {
+        return mask == 0 ? -1 : Integer.numberOfTrailingZeros(mask);
+    }
+
+    /**
+     * Retrieve the direction opposite to a given direction
+     *
+     * @param direction
+     * @return int
+     */
+    public static int opposite(int direction) {
+        return 3 - direction;
+    }
+
+    /**
+     * Shift every square of a mask one step in a given direction
+     *
+     * @param direction - one of NORTH_WEST, NORTH_EAST, SOUTH_WEST, SOUTH_EAST
+     * @param mask
+     * @return int
+     */
+    public static int shift(int direction, int mask) {
+        switch(direction) {
+            case NORTH_WEST:
+                return northWest(mask);
+            case NORTH_EAST:
+                return northEast(mask);
+            case SOUTH_WEST:
+                return southWest(mask);
+            default:
+                return southEast(mask);
+        }
+    }
+
+    /** Shift every square one step toward row 0 and cell 0. */
+    public static int northWest(int mask) {
+        return ((mask & EVEN_ROWS) >>> 4) | ((mask & ODD_ROWS & ~FIRST_COLUMN) >>> 5);
+    }
+
+    /** Shift every square one step toward row 0 and cell 7. */
+    public static int northEast(int mask) {
+        return ((mask & EVEN_ROWS & ~LAST_COLUMN) >>> 3) | ((mask & ODD_ROWS) >>> 4);
+    }
+
+    /** Shift every square one step toward row 7 and cell 0. */
+    public static int southWest(int mask) {
+        return ((mask & EVEN_ROWS) << 4) | ((mask & ODD_ROWS & ~FIRST_COLUMN) << 3);
+    }
+
+    /** Shift every square one step toward row 7 and cell 7. */
+    public static int southEast(int mask) {
+        return ((mask & EVEN_ROWS & ~LAST_COLUMN) << 5) | ((mask & ODD_ROWS) << 4);
+    }
+
+    /**
+     * Pieces that can make a single move toward row 7
+     *
+     * @param pieces - the Pieces to test
+     * @param empty - the empty squares
+     * @return int - mask of the Pieces with a move
+     */
+    public static int moversSouth(int pieces, int empty) {
+        return pieces & (northWest(empty) | northEast(empty));
+    }
+
+    /**
+     * Pieces that can make a single move toward row 0
+     *
+     * @param pieces - the Pieces to test
+     * @param empty - the empty squares
+     * @return int - mask of the Pieces with a move
+     */
+    public static int moversNorth(int pieces, int empty) {
+        return pieces & (southWest(empty) | southEast(empty));
+    }
+
+    /**
+     * Pieces that can jump an opponent Piece toward row 7
+     *
+     * @param pieces - the Pieces to test
+     * @param opponents - the Pieces that may be jumped
+     * @param empty - the squares that may be landed on
+     * @return int - mask of the Pieces with a jump
+     */
+    public static int jumpersSouth(int pieces, int opponents, int empty) {
+        return pieces & (northWest(northWest(empty) & opponents)
+                | northEast(northEast(empty) & opponents));
+    }
+
+    /**
+     * Pieces that can jump an opponent Piece toward row 0
+     *
+     * @param pieces - the Pieces to test
+     * @param opponents - the Pieces that may be jumped
+     * @param empty - the squares that may be landed on
+     * @return int - mask of the Pieces with a jump
+     */
+    public static int jumpersNorth(int pieces, int opponents, int empty) {
+        return pieces & (southWest(southWest(empty) & opponents)
+                | southEast(southEast(empty) & opponents));
+    }
+
+}
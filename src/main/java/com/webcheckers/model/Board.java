@@ -8,38 +8,53 @@ import java.util.List;
  * Board represents the status of the Checkers
  * game board
  *
+ * The 32 playable squares are packed into three masks (red Pieces,
+ * white Pieces and Kings), see {@link Bitboards} for the square layout.
+ * Rows and Spaces are only built on request for the game view.
+ *
  * @authors
  *      Summer DiStefano
  *      Frank Abbey
  *      Raisa Hossain
  *      Stephen Bosonac
  *
- * @version 4/1/2020
+ * @version 4/20/2020
  *
  */
 public class Board {
 
     /** Number of rows on the board. */
-    private int dim = 8;
+    private int dim = Bitboards.DIM;
+
+    /** Squares holding a red Piece. */
+    private int red;
+
+    /** Squares holding a white Piece. */
+    private int white;
+
+    /** Squares holding a King of either color. */
+    private int kings;
 
-    /** Array of rows on this board. */
-    private Row[] rows;
+    /** The color whose Turn it is on this board. */
+    private Piece.PieceColor activeColor;
 
-    /** Iterator for iterating through the rows on this board. */
-    private Iterator<Row> board;
+    /** Zobrist key of this position, kept up to date by every change. */
+    private long key;
 
-    private int redPieces;
-    private int whitePieces;
+    /**
+     * Pieces of each color that can jump. Every change marks the squares
+     * within jumping distance of it as stale, and only the Pieces on stale
+     * squares are looked at again the next time the masks are read.
+     */
+    private int redJumpers;
+    private int whiteJumpers;
+    private int staleJumpers;
 
     /**
      * Default Constructor for a Checkers board.
      */
     public Board() {
-        this.rows = createBoard();
-        this.board = iterator();
-        redPieces = 0;
-        whitePieces = 0;
-        initialPieces();
+        this(true);
     }
 
     /**
@@ -48,70 +63,198 @@ public class Board {
      *                 false: the board will be blank, with no pieces
      */
     public Board(boolean pieces) {
-        this.rows = createBoard();
-        this.board = iterator();
-        redPieces = 0;
-        whitePieces = 0;
+        red = 0;
+        white = 0;
+        kings = 0;
+        activeColor = Piece.PieceColor.RED;
+        key = 0L;
+        redJumpers = 0;
+        whiteJumpers = 0;
+        staleJumpers = 0;
         if(pieces)
             initialPieces();
     }
 
+    /**
+     * Constructor for a position given by its masks, as the engine's
+     * tables store it
+     *
+     * @param red - squares holding a red Piece
+     * @param white - squares holding a white Piece
+     * @param kings - squares holding a King of either color
+     * @param activeColor - the color to move
+     */
+    public Board(int red, int white, int kings, Piece.PieceColor activeColor) {
+        if((red & white) != 0 || (kings & ~(red | white)) != 0)
+            throw new IllegalArgumentException("Pieces overlap or Kings without Pieces");
+        this.red = red;
+        this.white = white;
+        this.kings = kings;
+        this.activeColor = activeColor;
+        this.key = Zobrist.hash(red, white, kings, activeColor == Piece.PieceColor.WHITE);
+        this.redJumpers = 0;
+        this.whiteJumpers = 0;
+        this.staleJumpers = ~0;
+    }
+
+    /**
+     * Copy constructor
+     *
+     * @param other - the Board to be copied
+     */
+    private Board(Board other) {
+        this.red = other.red;
+        this.white = other.white;
+        this.kings = other.kings;
+        this.activeColor = other.activeColor;
+        this.key = other.key;
+        this.redJumpers = other.redJumpers;
+        this.whiteJumpers = other.whiteJumpers;
+        this.staleJumpers = other.staleJumpers;
+    }
+
     //TODO - remove test functions when done
 
     public static Board testInabilityBoard() {
         Board testBoard = new Board(false);
 
         // Test setup for victory/defeat by inability to move (white player loses).
-        testBoard.spaceAt(new Position(5,4)).placePiece(new Piece(Piece.PieceColor.WHITE));
-        testBoard.spaceAt(new Position(2,3)).placePiece(new Piece(Piece.PieceColor.RED));
-        testBoard.spaceAt(new Position(4,3)).placePiece(new Piece(Piece.PieceColor.RED));
-        testBoard.spaceAt(new Position(3,2)).placePiece(new Piece(Piece.PieceColor.RED));
-        testBoard.spaceAt(new Position(4,5)).placePiece(new Piece(Piece.PieceColor.RED));
-        testBoard.spaceAt(new Position(3,6)).placePiece(new Piece(Piece.PieceColor.RED));
-        testBoard.spaceAt(new Position(6,3)).placePiece(new Piece(Piece.PieceColor.RED));
-        testBoard.spaceAt(new Position(7,2)).placePiece(new Piece(Piece.PieceColor.RED));
-        testBoard.spaceAt(new Position(6,5)).placePiece(new Piece(Piece.PieceColor.RED));
-        testBoard.spaceAt(new Position(7,6)).placePiece(new Piece(Piece.PieceColor.RED));
-
-    return testBoard;
-}
+        testBoard.placePiece(new Position(5,4), new Piece(Piece.PieceColor.WHITE));
+        testBoard.placePiece(new Position(2,3), new Piece(Piece.PieceColor.RED));
+        testBoard.placePiece(new Position(4,3), new Piece(Piece.PieceColor.RED));
+        testBoard.placePiece(new Position(3,2), new Piece(Piece.PieceColor.RED));
+        testBoard.placePiece(new Position(4,5), new Piece(Piece.PieceColor.RED));
+        testBoard.placePiece(new Position(3,6), new Piece(Piece.PieceColor.RED));
+        testBoard.placePiece(new Position(6,3), new Piece(Piece.PieceColor.RED));
+        testBoard.placePiece(new Position(7,2), new Piece(Piece.PieceColor.RED));
+        testBoard.placePiece(new Position(6,5), new Piece(Piece.PieceColor.RED));
+        testBoard.placePiece(new Position(7,6), new Piece(Piece.PieceColor.RED));
+
+        return testBoard;
+    }
 
     public static Board testAIMultiJumpBoard() {
         Board testBoard = new Board(false);
-        testBoard.spaceAt(new Position(3,4)).placePiece(new Piece(Piece.PieceColor.RED));
-        testBoard.spaceAt(new Position(2,5)).placePiece(new Piece(Piece.PieceColor.RED));
+        testBoard.placePiece(new Position(3,4), new Piece(Piece.PieceColor.RED));
+        testBoard.placePiece(new Position(2,5), new Piece(Piece.PieceColor.RED));
 
-        testBoard.spaceAt(new Position(5,4)).placePiece(new Piece(Piece.PieceColor.WHITE));
-        testBoard.spaceAt(new Position(6,1)).placePiece(new Piece(Piece.PieceColor.WHITE));
+        testBoard.placePiece(new Position(5,4), new Piece(Piece.PieceColor.WHITE));
+        testBoard.placePiece(new Position(6,1), new Piece(Piece.PieceColor.WHITE));
         return testBoard;
     }
 
     public static Board testMultipleJumpBoard() {
         Board testBoard = new Board(false);
-        testBoard.spaceAt(new Position(3,4)).placePiece(new Piece(Piece.PieceColor.WHITE));
-        testBoard.spaceAt(new Position(3,0)).placePiece(new Piece(Piece.PieceColor.WHITE));
-        testBoard.spaceAt(new Position(5,4)).placePiece(new Piece(Piece.PieceColor.WHITE));
+        testBoard.placePiece(new Position(3,4), new Piece(Piece.PieceColor.WHITE));
+        testBoard.placePiece(new Position(3,0), new Piece(Piece.PieceColor.WHITE));
+        testBoard.placePiece(new Position(5,4), new Piece(Piece.PieceColor.WHITE));
 
-        testBoard.spaceAt(new Position(2,3)).placePiece(new Piece(Piece.PieceColor.RED));
-        testBoard.spaceAt(new Position(0,5)).placePiece(new Piece(Piece.PieceColor.RED));
+        testBoard.placePiece(new Position(2,3), new Piece(Piece.PieceColor.RED));
+        testBoard.placePiece(new Position(0,5), new Piece(Piece.PieceColor.RED));
         return testBoard;
     }
 
     public static Board testKingBoard() {
         Board testBoard = new Board(false);
-        testBoard.spaceAt(new Position(1,4)).placePiece(new Piece(Piece.PieceColor.WHITE));
+        testBoard.placePiece(new Position(1,4), new Piece(Piece.PieceColor.WHITE));
 
-        testBoard.spaceAt(new Position(6,3)).placePiece(new Piece(Piece.PieceColor.RED));
+        testBoard.placePiece(new Position(6,3), new Piece(Piece.PieceColor.RED));
         return testBoard;
     }
 
+    /**
+     * Build a Board from a position in the FEN notation used for
+     * checkers, for example "B:W21-32:B1-12" for the starting position.
+     * Black is this game's Red: Black moves first and starts on squares
+     * 1-12, which are rows 0-2 here. Squares are numbered 1-32 in the
+     * usual way, so square n is Bitboards square n - 1. A "K" before a
+     * square marks a King, and "a-b" is a range of squares.
+     *
+     * @param fen - side to move, then the White and Black Pieces
+     * @return Board - with the side to move set as its active color
+     */
+    public static Board fromFen(String fen) {
+        Board board = new Board(false);
+        String[] fields = fen.trim().replace(".", "").split(":");
+        if(fields.length != 3)
+            throw new IllegalArgumentException("Not a FEN position: " + fen);
+
+        board.setActiveColor(fenColor(fields[0], fen));
+        for(int f = 1; f < fields.length; f++) {
+            String field = fields[f].trim();
+            if(field.isEmpty())
+                throw new IllegalArgumentException("Not a FEN position: " + fen);
+            Piece.PieceColor color = fenColor(field.substring(0, 1), fen);
+            for(String item : field.substring(1).split(",")) {
+                item = item.trim();
+                if(item.isEmpty())
+                    continue;
+                boolean isKing = item.charAt(0) == 'K';
+                String[] range = (isKing ? item.substring(1) : item).split("-");
+                try {
+                    int first = Integer.parseInt(range[0]);
+                    int last = range.length > 1 ? Integer.parseInt(range[1]) : first;
+                    for(int number = first; number <= last; number++) {
+                        if(number < 1 || number > Bitboards.SQUARES)
+                            throw new IllegalArgumentException("Bad square " + number + " in " + fen);
+                        board.removePieces(1 << (number - 1));
+                        board.addPiece(number - 1, color == Piece.PieceColor.RED, isKing);
+                    }
+                } catch(NumberFormatException e) {
+                    throw new IllegalArgumentException("Bad square " + item + " in " + fen);
+                }
+            }
+        }
+        return board;
+    }
+
+    private static Piece.PieceColor fenColor(String field, String fen) {
+        switch(field.trim()) {
+            case "B":
+                return Piece.PieceColor.RED;
+            case "W":
+                return Piece.PieceColor.WHITE;
+            default:
+                throw new IllegalArgumentException("Bad color " + field + " in " + fen);
+        }
+    }
 
     /**
-     * Used by the constructor to create the rows contained on this board.
+     * Write this Board in the FEN notation read by {@link #fromFen}
+     *
+     * @return String
+     */
+    public String toFen() {
+        StringBuilder fen = new StringBuilder(activeColor == Piece.PieceColor.RED ? "B" : "W");
+        fen.append(":W");
+        appendFenSquares(fen, white);
+        fen.append(":B");
+        appendFenSquares(fen, red);
+        return fen.toString();
+    }
+
+    private void appendFenSquares(StringBuilder fen, int pieces) {
+        boolean first = true;
+        while(pieces != 0) {
+            int square = Integer.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            if(!first)
+                fen.append(',');
+            if((kings & (1 << square)) != 0)
+                fen.append('K');
+            fen.append(square + 1);
+            first = false;
+        }
+    }
+
+    /**
+     * Build the rows of Spaces for this board. The Spaces are a snapshot
+     * of the board used by the game view; changing them does not change
+     * the Board.
      *
      * @return Array of rows
      */
-    private Row[] createBoard() {
+    public Row[] getRows() {
         Row[] rows = new Row[dim];
         for (int r = 0; r < this.dim; ++r) {
             if (r % 2 == 0) {
@@ -120,6 +263,13 @@ public class Board {
                 rows[r] = new Row(r, Space.SpaceColor.WHITE);
             }
         }
+
+        int occupied = red | white;
+        while(occupied != 0) {
+            int square = Integer.numberOfTrailingZeros(occupied);
+            occupied &= occupied - 1;
+            rows[Bitboards.row(square)].getSpace(Bitboards.cell(square)).placePiece(pieceOn(square));
+        }
         return rows;
     }
 
@@ -129,6 +279,7 @@ public class Board {
      * @return Board iterator
      */
     public Iterator<Row> iterator() {
+        final Row[] rows = getRows();
         Iterator<Row> board = new Iterator<Row>() {
             private int currentIndex = 0;
 
@@ -151,37 +302,21 @@ public class Board {
      * @return Board board
      */
     public Board copyBoard() {
-
-        Board boardCopy = new Board(false);
-        Row[] originalRows = this.getRows();
-
-        for(int i = 0; i < dim; i++) {
-
-            for(int j = 0; j < dim; j++) {
-                Space spaceCopy = boardCopy.getRows()[i].getSpace(j);
-                Piece originalPiece = originalRows[i].getSpace(j).getPiece();
-                spaceCopy.placePiece(originalPiece);
-                if(originalPiece != null) {
-                    if(originalPiece.isRed())
-                        boardCopy.redPieces++;
-                    else {
-                        boardCopy.whitePieces++;
-                    }
-                }
-            }
-        }
-
-        return boardCopy;
+        return new Board(this);
     }
 
     /**
-     * Access a Space object by index
+     * Access a Space object by index. The Space is a snapshot; use
+     * {@link #placePiece}, {@link #movePiece} and {@link #removePiece}
+     * to change the Board.
      *
      * @param position a Position object
      * @return Space space
      */
     public Space spaceAt(Position position) {
-        return rows[position.getRow()].getSpace(position.getCell());
+        Space.SpaceColor color = ((position.getRow() + position.getCell()) % 2 == 0) ?
+                Space.SpaceColor.BLACK : Space.SpaceColor.WHITE;
+        return new Space(position.getCell(), color, getPiece(position));
     }
 
     /**
@@ -189,10 +324,263 @@ public class Board {
      * particular Position
      *
      * @param position
-     * @return Piece
+     * @return Piece - the Piece, or null if the Position is empty
      */
     public Piece getPiece(Position position) {
-        return this.spaceAt(position).getPiece();
+        int square = Bitboards.square(position);
+        if(square < 0)
+            return null;
+        return pieceOn(square);
+    }
+
+    /**
+     * Build a Piece for whatever occupies a square
+     *
+     * @param square
+     * @return Piece - the Piece, or null if the square is empty
+     */
+    private Piece pieceOn(int square) {
+        int bit = 1 << square;
+        Piece piece;
+        if((red & bit) != 0)
+            piece = new Piece(Piece.PieceColor.RED);
+        else if((white & bit) != 0)
+            piece = new Piece(Piece.PieceColor.WHITE);
+        else
+            return null;
+
+        if((kings & bit) != 0)
+            piece.setToKing();
+        return piece;
+    }
+
+    /**
+     * Place a Piece on the Board, replacing anything already there
+     *
+     * @param position - where the Piece is placed
+     * @param piece - the Piece to place
+     */
+    public void placePiece(Position position, Piece piece) {
+        removePiece(position);
+        addPiece(Integer.numberOfTrailingZeros(bitAt(position)), piece.isRed(), piece.isKing());
+    }
+
+    /**
+     * Put a Piece on an empty square
+     *
+     * @param square
+     * @param isRed - true: the Piece is red
+     * @param isKing - true: the Piece is a King
+     */
+    private void addPiece(int square, boolean isRed, boolean isKing) {
+        int bit = 1 << square;
+        if(isRed)
+            red |= bit;
+        else
+            white |= bit;
+        if(isKing)
+            kings |= bit;
+        key ^= Zobrist.piece(isRed, isKing, square);
+        staleJumpers |= Bitboards.jumpArea(square);
+    }
+
+    /**
+     * Remove whatever Piece occupies a Position
+     *
+     * @param position
+     */
+    public void removePiece(Position position) {
+        int square = Bitboards.square(position);
+        if(square >= 0)
+            removePieces(1 << square);
+    }
+
+    /**
+     * Move the Piece on one Position to another, empty Position
+     *
+     * @param start - the Position of the Piece being moved
+     * @param end - the Position it is moved to
+     */
+    public void movePiece(Position start, Position end) {
+        movePiece(Integer.numberOfTrailingZeros(bitAt(start)),
+                Integer.numberOfTrailingZeros(bitAt(end)));
+    }
+
+    /**
+     * Move the Piece on one square to another, empty square
+     *
+     * @param from - the square of the Piece being moved
+     * @param to - the square it is moved to
+     */
+    public void movePiece(int from, int to) {
+        //a King's jump sequence can end where it started
+        if(from == to)
+            return;
+        int fromBit = 1 << from;
+        int both = fromBit | (1 << to);
+        boolean isRed = (red & fromBit) != 0;
+        boolean isKing = (kings & fromBit) != 0;
+
+        if(isRed)
+            red ^= both;
+        else if((white & fromBit) != 0)
+            white ^= both;
+        else
+            return;
+        if(isKing)
+            kings ^= both;
+        key ^= Zobrist.piece(isRed, isKing, from) ^ Zobrist.piece(isRed, isKing, to);
+        staleJumpers |= Bitboards.jumpArea(from) | Bitboards.jumpArea(to);
+    }
+
+    /**
+     * Turn the Piece on a Position into a King
+     *
+     * @param position
+     */
+    public void crownPiece(Position position) {
+        crownPiece(Integer.numberOfTrailingZeros(bitAt(position)));
+    }
+
+    /**
+     * Turn the Piece on a square into a King
+     *
+     * @param square
+     */
+    public void crownPiece(int square) {
+        int bit = 1 << square;
+        if(((red | white) & bit) != 0 && (kings & bit) == 0) {
+            boolean isRed = (red & bit) != 0;
+            kings |= bit;
+            key ^= Zobrist.piece(isRed, false, square) ^ Zobrist.piece(isRed, true, square);
+            //only this Piece's own jumps change
+            staleJumpers |= bit;
+        }
+    }
+
+    /**
+     * Turn the King on a square back into a single Piece (used when a
+     * crowning Move is taken back)
+     *
+     * @param square
+     */
+    public void uncrownPiece(int square) {
+        int bit = 1 << square;
+        if((kings & bit) != 0) {
+            boolean isRed = (red & bit) != 0;
+            kings &= ~bit;
+            key ^= Zobrist.piece(isRed, true, square) ^ Zobrist.piece(isRed, false, square);
+            staleJumpers |= bit;
+        }
+    }
+
+    /**
+     * Mask bit for a playable Position
+     *
+     * @param position
+     * @return int
+     */
+    private static int bitAt(Position position) {
+        int square = Bitboards.square(position);
+        if(square < 0)
+            throw new IllegalArgumentException("Not a playable space: " + position);
+        return 1 << square;
+    }
+
+    /**
+     * Mask of the squares holding Pieces of a given color
+     *
+     * @param pieceColor
+     * @return int
+     */
+    public int piecesOf(Piece.PieceColor pieceColor) {
+        return pieceColor == Piece.PieceColor.RED ? red : white;
+    }
+
+    /**
+     * Mask of the squares holding Kings of either color
+     *
+     * @return int
+     */
+    public int getKings() {
+        return kings;
+    }
+
+    /**
+     * Mask of the squares that are not occupied
+     *
+     * @return int
+     */
+    public int getEmpty() {
+        return ~(red | white);
+    }
+
+    /**
+     * Mask of the Pieces of a given color that can jump an opponent Piece
+     *
+     * @param pieceColor
+     * @return int
+     */
+    public int jumpers(Piece.PieceColor pieceColor) {
+        if(staleJumpers != 0)
+            refreshJumpers();
+        return pieceColor == Piece.PieceColor.RED ? redJumpers : whiteJumpers;
+    }
+
+    /**
+     * Determine if a color must jump this Turn
+     *
+     * @param pieceColor
+     * @return boolean - true: at least one of the color's Pieces can jump
+     */
+    public boolean mustJump(Piece.PieceColor pieceColor) {
+        return jumpers(pieceColor) != 0;
+    }
+
+    /**
+     * Determine if a color has any legal move at all. This is a couple of
+     * mask tests; no moves are generated.
+     *
+     * @param pieceColor
+     * @return boolean - false: the color is blocked (or has no Pieces) and
+     *                   loses the game
+     */
+    public boolean hasAnyLegalMove(Piece.PieceColor pieceColor) {
+        return movers(pieceColor) != 0 || jumpers(pieceColor) != 0;
+    }
+
+    /**
+     * Work out again which of the Pieces on stale squares can jump
+     */
+    private void refreshJumpers() {
+        int empty = ~(red | white);
+        int redStale = red & staleJumpers;
+        int whiteStale = white & staleJumpers;
+        int keep = ~staleJumpers;
+
+        redJumpers = (redJumpers & keep)
+                | Bitboards.jumpersSouth(redStale, white, empty)
+                | Bitboards.jumpersNorth(redStale & kings, white, empty);
+        whiteJumpers = (whiteJumpers & keep)
+                | Bitboards.jumpersNorth(whiteStale, red, empty)
+                | Bitboards.jumpersSouth(whiteStale & kings, red, empty);
+        staleJumpers = 0;
+    }
+
+    /**
+     * Mask of the Pieces of a given color that can make a single move
+     *
+     * @param pieceColor
+     * @return int
+     */
+    public int movers(Piece.PieceColor pieceColor) {
+        int empty = ~(red | white);
+        if(pieceColor == Piece.PieceColor.RED) {
+            return Bitboards.moversSouth(red, empty)
+                    | Bitboards.moversNorth(red & kings, empty);
+        }
+        return Bitboards.moversNorth(white, empty)
+                | Bitboards.moversSouth(white & kings, empty);
     }
 
     /**
@@ -217,71 +605,15 @@ public class Board {
                 pieceColor = Piece.PieceColor.WHITE;
         }
 
-        Move[] possibleJumpMoves;
+        int jumpers = jumpers((Piece.PieceColor) pieceColor);
 
         //searching entire board
-        if(givenPosition == null) {
-
-            this.board = iterator();
-            while (this.board.hasNext()) {
-                Row row = this.board.next();
-
-                Iterator<Space> rowIterator = row.iterator();
-                while (rowIterator.hasNext()) {
-                    Space space = rowIterator.next();
-
-                    if (space.getPiece() != null) {
-
-                        Position currentPosition = new Position(row.getIndex(), space.getCellIdx());
-                        possibleJumpMoves = createMovesByType(currentPosition, false);
-
-                        Piece currentPiece = this.getPiece(currentPosition);
-
-                        //go through the four possible jump moves returned
-                        for (Move possibleJumpMove : possibleJumpMoves) {
-                            possibleJumpMove.setPieceColor((Piece.PieceColor) pieceColor);
-                            //'isJumpMove()' will make sure there is a Piece to be jumped
-                            if(possibleJumpMove.onBoard() && possibleJumpMove.isJumpMove(this)) {
-                                //if the piece is not a King, the move must also be forward
-                                if(!currentPiece.isKing() && possibleJumpMove.isForward()) {
-                                    return true;
-                                }
-                                //otherwise, the Piece is a King and the Move doesn't have to be forward
-                                if(currentPiece.isKing())
-                                    return true;
-                            }
-
-                        }
-                    }
+        if(givenPosition == null)
+            return jumpers != 0;
 
-                }
-            }
-        }
         //only searching a specific Position
-        else {
-            possibleJumpMoves = createMovesByType(givenPosition, false);
-
-            Piece currentPiece = this.getPiece(givenPosition);
-
-            //go through the four possible jump moves returned
-            for(Move possibleJumpMove : possibleJumpMoves) {
-                possibleJumpMove.setPieceColor((Piece.PieceColor) pieceColor);
-
-                //'isJumpMove()' will make sure there is a Piece to be jumped
-                if(possibleJumpMove.onBoard() && possibleJumpMove.isJumpMove(this)) {
-                    //if the piece is not a King, the move must also be forward
-                    if(!currentPiece.isKing() && possibleJumpMove.isForward()) {
-                        return true;
-                    }
-                    //otherwise, the Piece is a King and the Move doesn't have to be forward
-                    if(currentPiece.isKing())
-                        return true;
-                }
-
-            }
-        }
-
-        return false;
+        int square = Bitboards.square(givenPosition);
+        return square >= 0 && (jumpers & (1 << square)) != 0;
     }
 
     /**
@@ -293,173 +625,344 @@ public class Board {
     public List<Move> getAvailableMoves(Piece.PieceColor givenPieceColor) {
         List<Move> allMoves = new ArrayList<>();
 
-        this.board = iterator();
-        while(board.hasNext()) {
-            Row row = board.next();
-
-            Iterator<Space> rowIterator = row.iterator();
-            while(rowIterator.hasNext()) {
-
-                Space space = rowIterator.next();
-                Position currentPosition = new Position(row.getIndex(), space.getCellIdx());
-                Piece currentPiece = space.getPiece();
-
-                Move[] possibleSingleMoves;
-                Move[] possibleJumpMoves;
-
-                if(currentPiece != null && currentPiece.getColor() == givenPieceColor) {
-
-                    //find and add all valid SINGLE MOVEs available for this space
-                    possibleSingleMoves = createMovesByType(currentPosition, true);
-                    for(Move singleMove: possibleSingleMoves) {
-                        singleMove.setPieceColor(givenPieceColor);
-                        //check the validity of the single Move and add it to the List if valid
-                        if(singleMove.onBoard()) {
-                            //since the Javascript normally handles a Player moving their Piece to an occupied
-                            //space, here we must determine that
-                            if(this.spaceAt(singleMove.getEnd()).getPiece() == null) {
-                                if(!currentPiece.isKing()) {
-                                    if(singleMove.isForward()) {
-                                        allMoves.add(singleMove);
-                                    }
-                                }
-                                else
-                                    allMoves.add(singleMove);
-                            }
-                        }
-
-                    }
-
-                    //find and add all valid JUMP MOVEs available for this space
-                    possibleJumpMoves = createMovesByType(currentPosition, false);
-
-                    //go through the four possible jump moves returned
-                    for (Move jumpMove : possibleJumpMoves) {
-                        jumpMove.setPieceColor(givenPieceColor);
-                        //giving the move its type allows for faster identification later
-                        jumpMove.setType(Move.Type.JUMP);
-                        //'isJumpMove()' will make sure there is a Piece to be jumped
-                        if (jumpMove.onBoard() && jumpMove.isJumpMove(this)) {
-                            //if the piece is not a King, the move must also be forward
-                            if(!currentPiece.isKing()) {
-                                if(jumpMove.isForward()) {
-                                    allMoves.add(jumpMove);
-                                }
-                            }
-                            //otherwise, the Piece is a King and the Move doesn't have to be forward
-                            else
-                                allMoves.add(jumpMove);
-                        }
-                    }
-
+        boolean isRed = givenPieceColor == Piece.PieceColor.RED;
+        int opponents = isRed ? white : red;
+        int empty = ~(red | white);
+        int pieces = movers(givenPieceColor) | jumpers(givenPieceColor);
+
+        while(pieces != 0) {
+            int from = Integer.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+
+            boolean king = (kings & (1 << from)) != 0;
+            Position start = Bitboards.position(from);
+
+            //find and add all valid SINGLE MOVEs available for this space
+            for(int direction = 0; direction < 4; direction++) {
+                if(!king && !isForward(direction, isRed))
+                    continue;
+                int to = Bitboards.neighbor(direction, from);
+                if(to >= 0 && (empty & (1 << to)) != 0) {
+                    Move singleMove = new Move(start, Bitboards.position(to));
+                    singleMove.setPieceColor(givenPieceColor);
+                    allMoves.add(singleMove);
                 }
+            }
 
+            //find and add all valid JUMP MOVEs available for this space
+            for(int direction = 0; direction < 4; direction++) {
+                if(!king && !isForward(direction, isRed))
+                    continue;
+                int over = Bitboards.neighbor(direction, from);
+                if(over < 0 || (opponents & (1 << over)) == 0)
+                    continue;
+                int to = Bitboards.neighbor(direction, over);
+                if(to >= 0 && (empty & (1 << to)) != 0) {
+                    Move jumpMove = new Move(start, Bitboards.position(to));
+                    jumpMove.setPieceColor(givenPieceColor);
+                    //giving the move its type allows for faster identification later
+                    jumpMove.setType(Move.Type.JUMP);
+                    allMoves.add(jumpMove);
+                }
             }
         }
 
         return allMoves;
     }
 
-    public Row[] getRows() {
-        return rows;
+    /**
+     * Fill a MoveList with every legal move for a color. Jumps are forced,
+     * so when any jump is available only the jumps are generated.
+     *
+     * @param pieceColor - the color to move
+     * @param moves - buffer that is cleared and filled with encoded moves
+     * @return int - the number of moves generated
+     */
+    public int generateMoves(Piece.PieceColor pieceColor, MoveList moves) {
+        if(generateJumps(pieceColor, moves) == 0)
+            generateSingleMoves(pieceColor, moves);
+        return moves.size();
     }
 
-    public int getRedPieces() {
-        return redPieces;
+    /**
+     * Fill a MoveList with every complete jump sequence for a color. A
+     * sequence goes on for as long as the same Piece can keep jumping, and
+     * ends when a single Piece reaches its King row. Jumped Pieces stay on
+     * the Board until the sequence is over, so none can be jumped twice or
+     * landed on.
+     *
+     * @param pieceColor - the color to move
+     * @param moves - buffer that is cleared and filled with encoded moves
+     * @return int - the number of moves generated
+     */
+    public int generateJumps(Piece.PieceColor pieceColor, MoveList moves) {
+        moves.clear();
+        boolean isRed = pieceColor == Piece.PieceColor.RED;
+        int opponents = isRed ? white : red;
+        int promotionRow = isRed ? Bitboards.RED_KING_ROW : Bitboards.WHITE_KING_ROW;
+
+        int pieces = jumpers(pieceColor);
+        while(pieces != 0) {
+            int start = Integer.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            //the jumping Piece leaves its square free to pass through again
+            int empty = ~(red | white) | (1 << start);
+            addJumps(start, start, (kings & (1 << start)) != 0, isRed, opponents, empty,
+                    promotionRow, 0, 0, 0L, 0, moves);
+        }
+        return moves.size();
     }
 
-    public int getWhitePieces() {
-        return whitePieces;
-    }
+    /**
+     * Extend a jump sequence by every possible next hop, adding the
+     * sequence to the MoveList once it cannot go on
+     *
+     * @param start - square the sequence started from
+     * @param square - square the Piece has reached
+     * @param isKing - true: the jumping Piece is a King
+     * @param isRed - true: the jumping Piece is red
+     * @param opponents - the Pieces that may be jumped
+     * @param empty - the squares that may be landed on
+     * @param promotionRow - King row of the jumping color
+     * @param first - the first square jumped
+     * @param jumped - squares jumped so far
+     * @param path - squares landed on so far, five bits per hop
+     * @param hops - number of hops so far
+     * @param moves - buffer the sequences are added to
+     */
+    private void addJumps(int start, int square, boolean isKing, boolean isRed, int opponents,
+                          int empty, int promotionRow, int first, int jumped, long path, int hops,
+                          MoveList moves) {
+        boolean extended = false;
+        for(int direction = 0; direction < 4; direction++) {
+            if(!isKing && !isForward(direction, isRed))
+                continue;
+            int over = Bitboards.neighbor(direction, square);
+            if(over < 0 || ((opponents & ~jumped) & (1 << over)) == 0)
+                continue;
+            int to = Bitboards.neighbor(direction, over);
+            if(to < 0 || (empty & (1 << to)) == 0)
+                continue;
+
+            extended = true;
+            if(hops == 0)
+                first = over;
+            int nowJumped = jumped | (1 << over);
+            long nowPath = path | ((long) to << (hops * 5));
+            if(!isKing && (promotionRow & (1 << to)) != 0) {
+                //being crowned ends the Turn
+                moves.add(Move.encode(start, to, first, Move.CAPTURE | Move.PROMOTION), nowJumped, nowPath);
+            }
+            else {
+                addJumps(start, to, isKing, isRed, opponents, empty, promotionRow, first,
+                        nowJumped, nowPath, hops + 1, moves);
+            }
+        }
 
-    public void removeRedPiece() {
-        redPieces--;
+        if(!extended && hops > 0) {
+            moves.add(Move.encode(start, square, first, Move.CAPTURE), jumped, path);
+        }
     }
 
-    public void removeWhitePiece() {
-        whitePieces--;
+    /**
+     * Fill a MoveList with every single (non-jump) move for a color
+     *
+     * @param pieceColor - the color to move
+     * @param moves - buffer that is cleared and filled with encoded moves
+     * @return int - the number of moves generated
+     */
+    public int generateSingleMoves(Piece.PieceColor pieceColor, MoveList moves) {
+        moves.clear();
+        boolean isRed = pieceColor == Piece.PieceColor.RED;
+        int pieces = piecesOf(pieceColor);
+        int empty = ~(red | white);
+        int promotionRow = isRed ? Bitboards.RED_KING_ROW : Bitboards.WHITE_KING_ROW;
+
+        for(int direction = 0; direction < 4; direction++) {
+            int movers = isForward(direction, isRed) ? pieces : pieces & kings;
+            int targets = Bitboards.shift(direction, movers) & empty;
+            int back = Bitboards.opposite(direction);
+
+            while(targets != 0) {
+                int to = Integer.numberOfTrailingZeros(targets);
+                targets &= targets - 1;
+                int start = Bitboards.neighbor(back, to);
+                moves.add(Move.encode(start, to, 0, promotionFlag(start, to, promotionRow)));
+            }
+        }
+        return moves.size();
     }
 
     /**
-     * Iterate through an array of Spaces where Pieces must be removed
-     * (primarily used for multiple jump moves)
+     * PROMOTION flag for a move that brings a non-King Piece to its King row
      *
-     * @param positions - the spaces with Pieces that must be removed
+     * @param from - start square
+     * @param to - end square
+     * @param promotionRow - King row of the moving color
+     * @return int - Move.PROMOTION or 0
      */
-    public void removePieces(List<Position> positions) {
-        //System.out.println("removePieces, 'spaces' = " + spaces);
+    private int promotionFlag(int from, int to, int promotionRow) {
+        if((kings & (1 << from)) == 0 && (promotionRow & (1 << to)) != 0)
+            return Move.PROMOTION;
+        return 0;
+    }
 
-        if(!positions.isEmpty()) {
-            for (Position current : positions) {
-                if (this.spaceAt(current).getPiece().isRed())
-                    removeRedPiece();
-                else
-                    removeWhitePiece();
+    /**
+     * Determine if a direction is forward for a non-King Piece
+     *
+     * @param direction - one of the Bitboards direction indexes
+     * @param isRed - true: the Piece is red
+     * @return boolean
+     */
+    private static boolean isForward(int direction, boolean isRed) {
+        boolean south = direction == Bitboards.SOUTH_WEST || direction == Bitboards.SOUTH_EAST;
+        return south == isRed;
+    }
 
-                //System.out.println("removePieces, 'current piece' = " + current.getPiece());
+    public int getRedPieces() {
+        return Integer.bitCount(red);
+    }
 
-                this.spaceAt(current).removePiece();
+    public int getWhitePieces() {
+        return Integer.bitCount(white);
+    }
 
-            }
+    /**
+     * Remove the Pieces on a set of squares
+     * (primarily used for multiple jump moves)
+     *
+     * @param squares - mask of the squares with Pieces that must be removed
+     */
+    public void removePieces(int squares) {
+        int removed = squares & (red | white);
+        while(removed != 0) {
+            int square = Integer.numberOfTrailingZeros(removed);
+            removed &= removed - 1;
+            int bit = 1 << square;
+            key ^= Zobrist.piece((red & bit) != 0, (kings & bit) != 0, square);
+            staleJumpers |= Bitboards.jumpArea(square);
         }
 
+        int keep = ~squares;
+        red &= keep;
+        white &= keep;
+        kings &= keep;
     }
 
     /**
-     * Create an array of all possible Moves for a given Position on the
-     * Board. These Moves may not be valid.
+     * Make a generated move for the search engine. Unlike a Turn, a whole
+     * jump sequence is made at once and the jumped Pieces are removed right
+     * away. The side to move is not changed.
      *
-     * @param currentPosition - the position to be analyzed
-     * @param single - true: search for all single Moves for a position
-     *                 false: search for all jump moves for a position
-     * @return Move[] - an array with four possible moves
+     * @param move - the encoded move
+     * @param captured - mask of the squares it jumps (see {@link MoveList#getCaptured})
+     * @return long - undo record to hand back to {@link #unmakeMove}
      */
-    public Move[] createMovesByType(Position currentPosition, boolean single) {
-        int rowIndex = currentPosition.getRow();
-        int cellIndex = currentPosition.getCell();
-        int modifier;
+    public long makeMove(int move, int captured) {
+        int to = Move.endSquare(move);
+        //low half: the jumped squares; high half: which of them held Kings
+        long undo = (captured & 0xFFFFFFFFL) | ((long) (captured & kings) << 32);
+
+        movePiece(Move.startSquare(move), to);
+        if(captured != 0)
+            removePieces(captured);
+        if(Move.isPromotion(move))
+            crownPiece(to);
+        return undo;
+    }
 
-        if(single)
-            modifier = 1;
-        else
-            modifier = 2;
+    /**
+     * Take back a move made with {@link #makeMove}
+     *
+     * @param move - the encoded move
+     * @param undo - the undo record returned by makeMove
+     */
+    public void unmakeMove(int move, long undo) {
+        int from = Move.startSquare(move);
+        int to = Move.endSquare(move);
+
+        if(Move.isPromotion(move))
+            uncrownPiece(to);
+        movePiece(to, from);
+
+        int captured = (int) undo;
+        int capturedKings = (int) (undo >>> 32);
+        boolean moverIsRed = (red & (1 << from)) != 0;
+        while(captured != 0) {
+            int square = Integer.numberOfTrailingZeros(captured);
+            captured &= captured - 1;
+            addPiece(square, !moverIsRed, (capturedKings & (1 << square)) != 0);
+        }
+    }
 
-        Move[] possibleMoves = {
-                new Move(currentPosition, new Position(rowIndex + modifier, cellIndex + modifier)),
-                new Move(currentPosition, new Position(rowIndex + modifier, cellIndex - modifier)),
-                new Move(currentPosition, new Position(rowIndex - modifier, cellIndex + modifier)),
-                new Move(currentPosition, new Position(rowIndex - modifier, cellIndex - modifier)),
-        };
-        return possibleMoves;
+    /**
+     * Retrieve the color whose Turn it is on this board
+     *
+     * @return Piece.PieceColor
+     */
+    public Piece.PieceColor getActiveColor() {
+        return activeColor;
     }
 
+    /**
+     * Set the color whose Turn it is on this board
+     *
+     * @param activeColor
+     */
+    public void setActiveColor(Piece.PieceColor activeColor) {
+        if(this.activeColor != activeColor) {
+            this.activeColor = activeColor;
+            key ^= Zobrist.WHITE_TO_MOVE;
+        }
+    }
 
+    /**
+     * Retrieve the Zobrist key of this position, including the side to move
+     *
+     * @return long
+     */
+    public long getKey() {
+        return key;
+    }
 
     /**
      * Set up initial placement of the pieces in the top
      * and bottom 3 rows
      */
     public void initialPieces() {
-        while(board.hasNext()) {
-            Row row = board.next();
-
-            Iterator<Space> rowIterator = row.iterator();
-            while(rowIterator.hasNext()) {
-                Space space = rowIterator.next();
-
-                if(space.isValid()) {
-                    //determine if on redPlayer side of the board or whitePlayer side
-                    if(row.getIndex() <= 2) {
-                        space.placePiece(new Piece(Piece.PieceColor.RED));
-                        redPieces++;
-                    } else if(row.getIndex() <= 7 && row.getIndex() >= 5) {
-                        space.placePiece(new Piece(Piece.PieceColor.WHITE));
-                        whitePieces++;
-                    }
-                }
-            }
-        }
+        red = Bitboards.RED_START;
+        white = Bitboards.WHITE_START;
+        kings = 0;
+        key = Zobrist.hash(red, white, kings, activeColor == Piece.PieceColor.WHITE);
+        staleJumpers = ~0;
+    }
 
+    /**
+     * Equals method
+     *
+     * @param o - object to be tested for equality against called object
+     * @return boolean
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Board other = (Board) o;
+        return key == other.key &&
+                red == other.red &&
+                white == other.white &&
+                kings == other.kings &&
+                activeColor == other.activeColor;
+    }
+
+    /**
+     * HashCode method, taken from the Zobrist key
+     *
+     * @return int
+     */
+    @Override
+    public int hashCode() {
+        return (int) (key ^ (key >>> 32));
     }
 
 }
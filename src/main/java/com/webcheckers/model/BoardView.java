@@ -3,7 +3,8 @@ package com.webcheckers.model;
 import java.util.Iterator;
 
 /**
- * BoardView used by GUI to display a Board
+ * BoardView used by GUI to display a Board. The Rows and Spaces are
+ * built from the Board once, so flipping the view never touches the Board.
  *
  * @authors
  *      Frank Abbey
@@ -11,7 +12,7 @@ import java.util.Iterator;
  *      Raisa Hossain
  *      Stephen Bosonac
  *
- * @version 4/1/2020
+ * @version 4/20/2020
  *
  */
 public class BoardView {
@@ -52,27 +53,28 @@ public class BoardView {
      * pieces at the bottom of the board
      */
     public void flip() {
-        //create a Board without any Pieces on it initially
-        Board flippedBoard = new Board(false);
+        Row[] flippedRows = new Row[dim];
 
         for(int i = 0; i < this.rows.length; i++) {
 
             Row row = this.rows[(dim - 1) - i];
+            flippedRows[i] = new Row(i, row.getSpaces()[dim - 1].getColor());
 
             for(int k = 0; k < row.getSpaces().length; k++) {
 
                 //swap the spaces based on their position
                 Space space = row.getSpaces()[(dim - 1) - k];
-                flippedBoard.getRows()[i].getSpaces()[k] = space;
+                flippedRows[i].getSpaces()[k] = space;
 
             }
         }
 
-        this.board = flippedBoard;
+        this.rows = flippedRows;
     }
 
     /**
-     * Retrieve the Board object stored within the BoardView
+     * Retrieve the Board object this BoardView was built from
+     * (the Board itself is never flipped)
      *
      * @return Board
      */
@@ -55,21 +55,33 @@ public class CheckersGame {
      * @param whitePlayer Player two, was redirected into game
      */
     public CheckersGame(Player redPlayer, Player whitePlayer) {
+        //Red Player starts as active Player
+        //TODO - remove testing board
+        //(pass Board.testInabilityBoard(), Board.testAIMultiJumpBoard(),
+        // Board.testKingBoard() or Board.testMultipleJumpBoard() instead)
+        this(redPlayer, whitePlayer, new Board());
+    }
+
+    /**
+     * Constructor for a CheckersGame that starts from a given position
+     *
+     * @param redPlayer - Player one, initiated game
+     * @param whitePlayer Player two, was redirected into game
+     * @param board - the starting position; the color set as its active
+     *                color moves first
+     */
+    public CheckersGame(Player redPlayer, Player whitePlayer, Board board) {
         addPlayers(redPlayer, whitePlayer);
         this.state = State.PLAY;
         this.winner = null;
         this.loser = null;
         gameOver = false;
         isResigned = false;
-        //Red Player starts as active Player
-        board = new Board();
-        //TODO - remove testing board
-        //board = Board.testInabilityBoard();
-        //board = Board.testAIMultiJumpBoard();
-        //board = Board.testKingBoard();
-        //board = Board.testMultipleJumpBoard();
+        this.board = board;
         lastMoves = new Stack<>();
-        this.activeTurn = new Turn(this, redPlayer, Piece.PieceColor.RED);
+        Piece.PieceColor firstColor = board.getActiveColor();
+        this.activeTurn = new Turn(this,
+                firstColor == Piece.PieceColor.RED ? redPlayer : whitePlayer, firstColor);
         id++;
     }
 
@@ -252,13 +264,14 @@ public class CheckersGame {
         }
 
         // If the new player has no available moves, they win and the other player loses.
-        if(board.getAvailableMoves(newPieceColor).isEmpty())
+        if(!board.hasAnyLegalMove(newPieceColor))
         {
             this.winner = activePlayer;
             this.loser = newPlayer;
             this.gameOver = true;
         }
 
+        board.setActiveColor(newPieceColor);
         activeTurn = new Turn(this, newPlayer, newPieceColor);
     }
 
@@ -273,7 +286,7 @@ public class CheckersGame {
 
         board = getTurn().getCurrentBoard();
         //remove all pieces that may have been jumped from the board
-        board.removePieces(getTurn().positionsTakenThisTurn);
+        board.removePieces(getTurn().getCapturedSquares());
 
         lastMoves.clear();
         this.changeTurn();
@@ -31,6 +31,27 @@ public class Move {
     private Type type;
     private final int BOARD_DIM = 8;
 
+    /*
+     * Int encoding used by the move generator: bits 0-4 hold the start
+     * square, bits 5-9 the end square, bits 10-14 the jumped square and
+     * the bits above that the flags below. Squares are Bitboards indexes.
+     * For a jump sequence the end square is where the last hop lands and
+     * the jumped square is the first one jumped; the whole sequence is
+     * kept by the MoveList it was generated into.
+     */
+    private static final int SQUARE_MASK = 0x1F;
+    private static final int END_SHIFT = 5;
+    private static final int CAPTURED_SHIFT = 10;
+
+    /** Flag for an encoded move that jumps an opponent Piece. */
+    public static final int CAPTURE = 1 << 15;
+
+    /** Flag for an encoded move that turns a Piece into a King. */
+    public static final int PROMOTION = 1 << 16;
+
+    /** Value used where there is no encoded move. */
+    public static final int NONE = -1;
+
     /**
      * Create a new Move. This requires a Start and End Position object
      *
@@ -46,6 +67,113 @@ public class Move {
 
     }
 
+    /**
+     * Pack a move into an int
+     *
+     * @param from - start square
+     * @param to - end square
+     * @param captured - jumped square (ignored unless CAPTURE is set)
+     * @param flags - CAPTURE and/or PROMOTION
+     * @return int - the encoded move
+     */
+    public static int encode(int from, int to, int captured, int flags) {
+        return from | (to << END_SHIFT) | (captured << CAPTURED_SHIFT) | flags;
+    }
+
+    /**
+     * Retrieve the start square of an encoded move
+     *
+     * @param move - the encoded move
+     * @return int
+     */
+    public static int startSquare(int move) {
+        return move & SQUARE_MASK;
+    }
+
+    /**
+     * Retrieve the end square of an encoded move
+     *
+     * @param move - the encoded move
+     * @return int
+     */
+    public static int endSquare(int move) {
+        return (move >>> END_SHIFT) & SQUARE_MASK;
+    }
+
+    /**
+     * Retrieve the jumped square of an encoded move
+     *
+     * @param move - the encoded move
+     * @return int - the jumped square, only meaningful for captures
+     */
+    public static int capturedSquare(int move) {
+        return (move >>> CAPTURED_SHIFT) & SQUARE_MASK;
+    }
+
+    /**
+     * Determine if an encoded move jumps an opponent Piece
+     *
+     * @param move - the encoded move
+     * @return boolean
+     */
+    public static boolean isCapture(int move) {
+        return (move & CAPTURE) != 0;
+    }
+
+    /**
+     * Determine if an encoded move turns a Piece into a King
+     *
+     * @param move - the encoded move
+     * @return boolean
+     */
+    public static boolean isPromotion(int move) {
+        return (move & PROMOTION) != 0;
+    }
+
+    /**
+     * Retrieve the square landed on by one hop of a jump sequence's path
+     *
+     * @param path - the path kept by the MoveList
+     * @param hop - index of the hop, starting from 0
+     * @return int
+     */
+    public static int pathSquare(long path, int hop) {
+        return (int) (path >>> (hop * END_SHIFT)) & SQUARE_MASK;
+    }
+
+    /**
+     * Build a Move object for an encoded move
+     *
+     * @param move - the encoded move
+     * @param pieceColor - color of the Piece being moved
+     * @return Move
+     */
+    public static Move decode(int move, Piece.PieceColor pieceColor) {
+        Move decoded = new Move(Bitboards.position(startSquare(move)),
+                Bitboards.position(endSquare(move)));
+        decoded.setPieceColor(pieceColor);
+        if(isCapture(move))
+            decoded.setType(Type.JUMP);
+        return decoded;
+    }
+
+    /**
+     * Pack this Move into an int. A Move spanning two spaces is encoded
+     * as a capture of the space between them.
+     *
+     * @return int - the encoded move
+     */
+    public int encode() {
+        int from = Bitboards.square(start);
+        int to = Bitboards.square(end);
+        if(isSingleMove())
+            return encode(from, to, 0, 0);
+
+        int jumped = Bitboards.square((start.getRow() + end.getRow()) / 2,
+                (start.getCell() + end.getCell()) / 2);
+        return encode(from, to, jumped, CAPTURE);
+    }
+
     /**
      * Retrieve the starting position of a Move
      *
@@ -123,23 +251,26 @@ public class Move {
         int rowDiff = (this.getStart().getRow() - this.getEnd().getRow());
         int cellDiff = (this.getStart().getCell() - this.getEnd().getCell());
 
+        if(!((rowDiff == -2 || rowDiff == 2) && ((cellDiff == -2 || cellDiff == 2))))
+            return false;
+
+        Piece startPiece = board.getPiece(this.getStart());
+        Piece jumpedPiece = board.getPiece(this.getJumpedPosition());
+
         //make sure the Piece making the possible move is the color of the Turn
-        if(board.spaceAt(this.getStart()).getPiece() != null) {
-            if (board.spaceAt(this.getStart()).getPiece().getColor() != (this.pieceColor))
-                return false;
-        }
+        if(startPiece != null && startPiece.getColor() != this.pieceColor)
+            return false;
         //make sure the Space being landed in is empty
-        if(board.spaceAt(this.getEnd()).getPiece() != null)
+        if(board.getPiece(this.getEnd()) != null)
             return false;
         //make sure the Space being jumped actually had a Piece in it
-        if(board.spaceAt(this.getJumpedPosition()).getPiece() == null)
+        if(jumpedPiece == null)
             return false;
         //make sure the Space being jumped is an opponent Piece
-        if(board.spaceAt(this.getJumpedPosition()).getPiece().equals(
-                board.spaceAt(this.getStart()).getPiece()))
+        if(jumpedPiece.equals(startPiece))
             return false;
 
-        return ((rowDiff == -2 || rowDiff == 2) && ((cellDiff == -2 || cellDiff == 2)));
+        return true;
     }
 
     /**
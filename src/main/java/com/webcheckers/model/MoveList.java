@@ -0,0 +1,177 @@
+package com.webcheckers.model;
+
+/**
+ * Reusable buffer of int-encoded Moves (see {@link Move#encode}) filled
+ * by the Board's move generator. Callers keep one MoveList and hand it to
+ * the generator again and again, so generating moves creates no garbage.
+ *
+ * A capture is a whole jump sequence, so alongside each encoded move the
+ * list keeps the mask of every square it jumps and its path: the square
+ * landed on after each hop, five bits per hop starting from the low bits
+ * (see {@link Move#pathSquare}).
+ *
+ * @authors
+ *      Summer DiStefano
+ *      Frank Abbey
+ *      Raisa Hossain
+ *      Stephen Bosonac
+ *
+ * @version 4/27/2020
+ *
+ */
+public class MoveList {
+
+    /** Enough room for every legal move of any reachable position. */
+    public static final int DEFAULT_CAPACITY = 128;
+
+    private final int[] moves;
+    private final int[] captured;
+    private final long[] paths;
+    private int size;
+
+    /**
+     * Create a MoveList with the default capacity
+     */
+    public MoveList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a MoveList with a given capacity
+     *
+     * @param capacity - the most moves the list can hold
+     */
+    public MoveList(int capacity) {
+        this.moves = new int[capacity];
+        this.captured = new int[capacity];
+        this.paths = new long[capacity];
+        this.size = 0;
+    }
+
+    /**
+     * Empty the list so it can be filled again
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Add a single move or a one hop jump to the end of the list
+     *
+     * @param move - the encoded move
+     */
+    public void add(int move) {
+        int jumped = Move.isCapture(move) ? 1 << Move.capturedSquare(move) : 0;
+        add(move, jumped, Move.endSquare(move));
+    }
+
+    /**
+     * Add a jump sequence to the end of the list
+     *
+     * @param move - the encoded move
+     * @param jumped - mask of every square jumped
+     * @param path - the squares landed on, five bits per hop
+     */
+    public void add(int move, int jumped, long path) {
+        moves[size] = move;
+        captured[size] = jumped;
+        paths[size] = path;
+        size++;
+    }
+
+    /**
+     * Retrieve an encoded move
+     *
+     * @param index
+     * @return int
+     */
+    public int get(int index) {
+        return moves[index];
+    }
+
+    /**
+     * Retrieve the mask of the squares a move jumps
+     *
+     * @param index
+     * @return int - 0 for a move that is not a capture
+     */
+    public int getCaptured(int index) {
+        return captured[index];
+    }
+
+    /**
+     * Retrieve the squares a move lands on, five bits per hop
+     *
+     * @param index
+     * @return long
+     */
+    public long getPath(int index) {
+        return paths[index];
+    }
+
+    /**
+     * Exchange two moves (used when ordering moves in place)
+     *
+     * @param i
+     * @param j
+     */
+    public void swap(int i, int j) {
+        int move = moves[i];
+        moves[i] = moves[j];
+        moves[j] = move;
+        int jumped = captured[i];
+        captured[i] = captured[j];
+        captured[j] = jumped;
+        long path = paths[i];
+        paths[i] = paths[j];
+        paths[j] = path;
+    }
+
+    /**
+     * Find a move by its encoding
+     *
+     * @param move - the encoded move
+     * @return int - index of the move, or -1 if it is not in the list
+     */
+    public int indexOf(int move) {
+        for(int i = 0; i < size; i++) {
+            if(moves[i] == move)
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Retrieve the number of moves in the list
+     *
+     * @return int
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Determine if the list is empty
+     *
+     * @return boolean
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Find a move by its start and end squares
+     *
+     * @param from - start square
+     * @param to - end square
+     * @return int - index of the move, or -1 if it is not in the list
+     */
+    public int indexOf(int from, int to) {
+        for(int i = 0; i < size; i++) {
+            if(Move.startSquare(moves[i]) == from && Move.endSquare(moves[i]) == to)
+                return i;
+        }
+        return -1;
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.webcheckers.model;
+
+import java.util.Arrays;
+
+/**
+ * Small open-addressing hash set of int-encoded Moves (see
+ * {@link Move#encode}). A Turn keeps its legal Moves in one so that
+ * validating a Move is a single lookup.
+ *
+ * @authors
+ *      Summer DiStefano
+ *      Frank Abbey
+ *      Raisa Hossain
+ *      Stephen Bosonac
+ *
+ * @version 4/28/2020
+ *
+ */
+public class MoveSet {
+
+    /** Twice the capacity of a MoveList, so the table is never more than half full. */
+    private static final int SLOTS = 2 * MoveList.DEFAULT_CAPACITY;
+
+    /** Encoded moves are never negative, so this marks an empty slot. */
+    private static final int EMPTY = Move.NONE;
+
+    private final int[] slots = new int[SLOTS];
+    private int size;
+
+    /**
+     * Create an empty MoveSet
+     */
+    public MoveSet() {
+        clear();
+    }
+
+    /**
+     * Remove every move from the set
+     */
+    public void clear() {
+        Arrays.fill(slots, EMPTY);
+        size = 0;
+    }
+
+    /**
+     * Add an encoded move to the set
+     *
+     * @param move - the encoded move
+     */
+    public void add(int move) {
+        int slot = slotOf(move);
+        while(slots[slot] != EMPTY) {
+            if(slots[slot] == move)
+                return;
+            slot = (slot + 1) & (SLOTS - 1);
+        }
+        if(size == SLOTS / 2)
+            throw new IllegalStateException("MoveSet is full");
+        slots[slot] = move;
+        size++;
+    }
+
+    /**
+     * Determine if an encoded move is in the set
+     *
+     * @param move - the encoded move
+     * @return boolean
+     */
+    public boolean contains(int move) {
+        if(move < 0)
+            return false;
+        int slot = slotOf(move);
+        while(slots[slot] != EMPTY) {
+            if(slots[slot] == move)
+                return true;
+            slot = (slot + 1) & (SLOTS - 1);
+        }
+        return false;
+    }
+
+    /**
+     * Retrieve the number of moves in the set
+     *
+     * @return int
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Determine if the set is empty
+     *
+     * @return boolean
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private static int slotOf(int move) {
+        return (move * 0x9E3779B9) >>> (32 - Integer.numberOfTrailingZeros(SLOTS));
+    }
+
+}
@@ -3,10 +3,6 @@ package com.webcheckers.model;
 import com.webcheckers.ui.PostSubmitTurnRoute;
 import com.webcheckers.util.Message;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Stack;
-
 /**
  * Keeps trck of all items needed during a Player's Turn
  *
@@ -16,7 +12,7 @@ import java.util.Stack;
  *      Raisa Hossain
  *      Stephen Bosonac
  *
- * @version 4/1/2020
+ * @version 4/28/2020
  *
  */
 public class Turn {
@@ -28,19 +24,45 @@ public class Turn {
         EMPTY_TURN
     }
 
+    /** A Turn can jump each of the opponent's 12 Pieces at most once */
+    private static final int MAX_MOVES = 12;
+
     private CheckersGame game;
     private Board board;
     private Player player;
-    public Stack<Board> boardVersions;
-    public List<Position> positionsTakenThisTurn;
     private State state;
 
+    /**
+     * Undo records for the Moves made this Turn: the encoded Move plus the
+     * PROMOTION flag if that Move crowned the Piece
+     */
+    private final int[] undoLog = new int[MAX_MOVES];
+    private int movesMade;
+
+    /** Squares jumped this Turn, removed from the Board on submit */
+    private int capturedThisTurn;
+
+    /**
+     * Every legal Move of the whole Turn (jump sequences are complete),
+     * generated from the position the Turn started in the first time the
+     * legal Moves are needed
+     */
+    private MoveList turnMoves;
+
+    /** The Moves that may be made next, one hop at a time */
+    private final MoveSet legalMoves = new MoveSet();
+    private boolean legalMovesStale = true;
+
     private Piece.PieceColor pieceColor;
     private final String VALID_MOVE = "Valid move";
     private final String MORE_THAN_ONE_SPACE_MOVE = "Invalid move: Can only move one space";
     private final String NOT_FORWARD_MOVE = "Invalid move: Incorrect move direction";
     private final String MUST_MAKE_JUMP_MOVE = "Invalid move: must make jump move";
     private final String MUST_SAME_PIECE_MOVE = "Invalid move: must jump with same Piece";
+    private final String ALREADY_MOVED = "Invalid move: only one single move per Turn";
+    private final String ALREADY_JUMPED = "Invalid move: Piece has already been jumped";
+    private final String CROWNED = "Invalid move: being Kinged ends the Turn";
+    private final String NOT_LEGAL = "Invalid move: that Move is not allowed";
     public final String FINALIZED = "Turn has been finalized";
     public final String PLAY_AGAIN = "You may play again";
 
@@ -53,13 +75,13 @@ public class Turn {
      */
     public Turn(CheckersGame game, Player player, Piece.PieceColor pieceColor) {
         this.game = game;
-        this.board = game.getBoard();
-        this.boardVersions = new Stack<>();
-        boardVersions.push(board);
+        //Moves are made and taken back in place on this copy
+        this.board = game.getBoard().copyBoard();
         this.player = player;
         this.pieceColor = pieceColor;
         this.state = State.EMPTY_TURN;
-        this.positionsTakenThisTurn = new ArrayList<>();
+        this.movesMade = 0;
+        this.capturedThisTurn = 0;
     }
 
     /**
@@ -85,108 +107,157 @@ public class Turn {
     }
 
     /**
-     * Determine if a Move is valid
+     * Determine if a Move is valid. A Move is valid if it is one of the
+     * legal Moves worked out for this point of the Turn; only an invalid
+     * Move needs any further checks, to explain what was wrong with it.
      *
      * @param move
      * @return Message - INFO: move is valid and has been made
      *                   ERROR: move is invalid and cannot be made
      */
     public Message validateMove(Move move) {
-        Message resultMessage;
-
         move.setPieceColor(pieceColor);
         move.setPlayer(player);
 
-        Piece pieceMoved = getCurrentBoard().getPiece(move.getStart());
-
-        boolean emptyMoveStack = game.getLastMoves().empty();
-
-        if(!pieceMoved.isKing() && !move.isForward()) {
-            resultMessage = Message.error(NOT_FORWARD_MOVE);
+        if(Bitboards.square(move.getStart()) >= 0 && Bitboards.square(move.getEnd()) >= 0
+                && getLegalMoves().contains(move.encode())) {
+            this.makeMove(move);
+            return new Message(VALID_MOVE, Message.Type.INFO);
         }
-        //IF Player tries to make a SINGLE move
-        else if(move.isSingleMove()) {
-            //Player tries to make a single move after having made a jump move
-            if(!emptyMoveStack && game.getLastMoves().peek().isJumpType()) {
-                resultMessage = Message.error(MUST_MAKE_JUMP_MOVE);
-            }
-            //Player tries to make a first Single Move when there are any Jump Moves available
-            else if(getCurrentBoard().jumpMoveAvailable(this.pieceColor, null)) {
-                resultMessage = Message.error(MUST_MAKE_JUMP_MOVE);
-            }
-            else {
-                resultMessage = new Message(VALID_MOVE, Message.Type.INFO);
-                this.makeMove(move);
+        return Message.error(whyInvalid(move));
+    }
+
+    /**
+     * Retrieve the Moves that may be made next, working them out again
+     * if a Move has been made or taken back since they were last needed
+     *
+     * @return MoveSet - encoded Moves (see {@link Move#encode()})
+     */
+    public MoveSet getLegalMoves() {
+        if(legalMovesStale) {
+            if(turnMoves == null) {
+                //Moves may already have been made on the Turn's Board; the game's is still the start
+                turnMoves = new MoveList();
+                game.getBoard().generateMoves(pieceColor, turnMoves);
             }
+            updateLegalMoves();
+            legalMovesStale = false;
         }
-        //If the Player is making a JUMP move:
-        //  1. Check if this is their first move this Turn
-        //  2. If not, then it must be a jump move with a Piece they already made a Jump with
-        else if(move.isJumpMove(board)) {
-            //If the last Move was a jump, make sure the Player is using the same Piece
-            if(!emptyMoveStack && game.getLastMoves().peek().isJumpType()) {
-                if(move.getStart().equals(game.getLastMoves().peek().getEnd())) {
-                    resultMessage = new Message(VALID_MOVE, Message.Type.INFO);
-                    this.makeMove(move);
-                }
-                else {
-                    resultMessage = Message.error(MUST_SAME_PIECE_MOVE);
-                }
-            }
-            else {
-                resultMessage = new Message(VALID_MOVE, Message.Type.INFO);
-                this.makeMove(move);
+        return legalMoves;
+    }
+
+    /**
+     * Fill the legal Move set with the next hop of every jump sequence
+     * that starts with the hops made so far, or with every Move of the
+     * Turn if none has been made yet
+     */
+    private void updateLegalMoves() {
+        legalMoves.clear();
+        if(movesMade > 0 && !Move.isCapture(undoLog[movesMade - 1]))
+            return;
+
+        for(int i = 0; i < turnMoves.size(); i++) {
+            int turnMove = turnMoves.get(i);
+            if(!Move.isCapture(turnMove)) {
+                legalMoves.add(turnMove & ~Move.PROMOTION);
+                continue;
             }
 
+            int hops = Integer.bitCount(turnMoves.getCaptured(i));
+            long path = turnMoves.getPath(i);
+            boolean followed = movesMade < hops;
+            for(int hop = 0; followed && hop < movesMade; hop++)
+                followed = (undoLog[hop] & ~Move.PROMOTION) == hopOf(turnMove, path, hop);
+            if(followed)
+                legalMoves.add(hopOf(turnMove, path, movesMade));
         }
-        //IF the Player tried something that wasn't a jump and wasn't a single move
-        else if(!move.isJumpMove(board)) {
-            resultMessage = Message.error(MORE_THAN_ONE_SPACE_MOVE);
-        }
-        //otherwise the Move is valid
-        else {
-            resultMessage = new Message(VALID_MOVE, Message.Type.INFO);
-            this.makeMove(move);
+    }
+
+    /**
+     * Encode one hop of a jump sequence the way {@link Move#encode()} would
+     */
+    private static int hopOf(int sequence, long path, int hop) {
+        int from = hop == 0 ? Move.startSquare(sequence) : Move.pathSquare(path, hop - 1);
+        int to = Move.pathSquare(path, hop);
+        return Move.encode(from, to, Bitboards.between(from, to), Move.CAPTURE);
+    }
+
+    /**
+     * Explain why a Move is not one of the legal Moves
+     *
+     * @param move
+     * @return String - the error message
+     */
+    private String whyInvalid(Move move) {
+        Piece pieceMoved = board.getPiece(move.getStart());
+        boolean jumping = movesMade > 0 && Move.isCapture(undoLog[movesMade - 1]);
+
+        if(pieceMoved != null && !pieceMoved.isKing() && !move.isForward())
+            return NOT_FORWARD_MOVE;
+        //a single move ends the Turn
+        if(state == State.SINGLE_MOVE)
+            return ALREADY_MOVED;
+        if(move.isSingleMove()) {
+            //jumps are forced, and a jump must be continued while it can be
+            if(jumping || board.mustJump(pieceColor))
+                return MUST_MAKE_JUMP_MOVE;
+            return NOT_LEGAL;
         }
+        if(!move.isJumpMove(board))
+            return MORE_THAN_ONE_SPACE_MOVE;
 
-        return resultMessage;
+        //Pieces jumped this Turn stay on the Board until it is submitted
+        int jumped = Bitboards.square(move.getJumpedPosition());
+        if((capturedThisTurn & (1 << jumped)) != 0)
+            return ALREADY_JUMPED;
+        if(jumping) {
+            int lastMove = undoLog[movesMade - 1];
+            if(Move.isPromotion(lastMove))
+                return CROWNED;
+            if(Move.endSquare(lastMove) != Bitboards.square(move.getStart()))
+                return MUST_SAME_PIECE_MOVE;
+        }
+        return NOT_LEGAL;
     }
 
     /**
      * If is it determined to be valid with 'validateMove()', the Move
-     * is made here
+     * is made here, in place on the Turn's Board
      *
      * @param move
      */
     public void makeMove(Move move) {
-        //make the Move on a copy of the current Board
-        Board boardCopy = getCurrentBoard().copyBoard();
-        boardCopy.spaceAt(move.getStart()).movePiece(boardCopy.spaceAt(move.getEnd()));
+        if(movesMade == MAX_MOVES)
+            throw new IllegalStateException("Too many moves in one Turn");
 
-        //if the Piece is not a King, and it was not forward
-        if(move.isSingleMove()) {
-            setState(State.SINGLE_MOVE);
-            game.addMove(move, Move.Type.SINGLE);
-        }
+        int record = move.encode();
+        int from = Move.startSquare(record);
+        int to = Move.endSquare(record);
+
+        //only remember the promotion if this Move is what crowned the Piece
+        if(move.endsOnKingRow() && (board.getKings() & (1 << from)) == 0)
+            record |= Move.PROMOTION;
 
-        if(move.isJumpMove(getCurrentBoard())) {
+        board.movePiece(from, to);
+        if(Move.isPromotion(record))
+            board.crownPiece(to);
+
+        if(Move.isCapture(record)) {
             setState(State.JUMP_MOVE);
 
-            //when the turn is submitted, this list will be gone through, and the
-            //Pieces on the spaces will be removed
-            positionsTakenThisTurn.add(move.getJumpedPosition());
+            //when the turn is submitted, these squares will have their
+            //Pieces removed
+            capturedThisTurn |= 1 << Move.capturedSquare(record);
 
             game.addMove(move, Move.Type.JUMP);
         }
-
-        if(move.endsOnKingRow()) {
-            //if the Piece is not already a King
-            boardCopy.spaceAt(move.getEnd()).getPiece().setToKing();
+        else {
+            setState(State.SINGLE_MOVE);
+            game.addMove(move, Move.Type.SINGLE);
         }
 
-        //save this Board as the latest version
-        boardVersions.push(boardCopy);
-
+        undoLog[movesMade++] = record;
+        legalMovesStale = true;
     }
 
     /**
@@ -194,12 +265,30 @@ public class Turn {
      * the "Back Up" button
      */
     public void backUpMove() {
-        Move lastMove = game.getLastMoves().pop();
-        //reversing start/end
-        Move backupMove = new Move(lastMove.getEnd(), lastMove.getStart());
-        //this new Move is made
-        this.makeMove(backupMove);
-        this.state = State.EMPTY_TURN;
+        if(movesMade == 0)
+            return;
+
+        int record = undoLog[--movesMade];
+        int from = Move.startSquare(record);
+        int to = Move.endSquare(record);
+
+        board.movePiece(to, from);
+        if(Move.isPromotion(record))
+            board.uncrownPiece(from);
+        if(Move.isCapture(record))
+            capturedThisTurn &= ~(1 << Move.capturedSquare(record));
+
+        if(!game.getLastMoves().empty())
+            game.getLastMoves().pop();
+        legalMovesStale = true;
+
+        //the Turn goes back to the state of the Move before this one
+        if(movesMade == 0)
+            this.state = State.EMPTY_TURN;
+        else if(Move.isCapture(undoLog[movesMade - 1]))
+            this.state = State.JUMP_MOVE;
+        else
+            this.state = State.SINGLE_MOVE;
     }
 
     /**
@@ -208,10 +297,16 @@ public class Turn {
      * @return Board
      */
     public Board getCurrentBoard() {
-        if(boardVersions.empty())
-            return board;
-        else
-            return boardVersions.peek();
+        return board;
+    }
+
+    /**
+     * Retrieve the squares jumped this Turn
+     *
+     * @return int - mask of the jumped squares
+     */
+    public int getCapturedSquares() {
+        return capturedThisTurn;
     }
 
     /**
@@ -0,0 +1,91 @@
+package com.webcheckers.model;
+
+/**
+ * Zobrist keys used to give every Board a 64-bit hash that is updated
+ * incrementally as Pieces move.
+ *
+ * The keys come from a fixed seed so a position hashes the same way in
+ * every run (stored files such as an opening book depend on that).
+ *
+ * @authors
+ *      Summer DiStefano
+ *      Frank Abbey
+ *      Raisa Hossain
+ *      Stephen Bosonac
+ *
+ * @version 4/20/2020
+ *
+ */
+public final class Zobrist {
+
+    private static final long SEED = 0x5DEECE66DL;
+
+    /** Indexes into the piece key table */
+    private static final int RED_SINGLE = 0;
+    private static final int RED_KING = 1;
+    private static final int WHITE_SINGLE = 2;
+    private static final int WHITE_KING = 3;
+
+    private static final long[][] PIECE_KEYS = new long[4][Bitboards.SQUARES];
+
+    /** Folded into the key when White is the side to move */
+    public static final long WHITE_TO_MOVE;
+
+    static {
+        long state = SEED;
+        for(int type = 0; type < PIECE_KEYS.length; type++) {
+            for(int sq = 0; sq < Bitboards.SQUARES; sq++) {
+                state += 0x9E3779B97F4A7C15L;
+                PIECE_KEYS[type][sq] = mix(state);
+            }
+        }
+        state += 0x9E3779B97F4A7C15L;
+        WHITE_TO_MOVE = mix(state);
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * SplitMix64 finalizer, used to turn a counter into random-looking keys
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Key for one Piece on one square
+     *
+     * @param red - true: the Piece is red
+     * @param king - true: the Piece is a King
+     * @param square - Bitboards square index
+     * @return long
+     */
+    public static long piece(boolean red, boolean king, int square) {
+        int type = red ? (king ? RED_KING : RED_SINGLE) : (king ? WHITE_KING : WHITE_SINGLE);
+        return PIECE_KEYS[type][square];
+    }
+
+    /**
+     * Compute the key of a position from scratch
+     *
+     * @param red - mask of red Pieces
+     * @param white - mask of white Pieces
+     * @param kings - mask of Kings
+     * @param whiteToMove - true: White is the side to move
+     * @return long
+     */
+    public static long hash(int red, int white, int kings, boolean whiteToMove) {
+        long key = whiteToMove ? WHITE_TO_MOVE : 0L;
+        int occupied = red | white;
+        while(occupied != 0) {
+            int square = Integer.numberOfTrailingZeros(occupied);
+            occupied &= occupied - 1;
+            key ^= piece((red & (1 << square)) != 0, (kings & (1 << square)) != 0, square);
+        }
+        return key;
+    }
+
+}
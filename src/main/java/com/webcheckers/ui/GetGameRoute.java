@@ -1,6 +1,7 @@
 package com.webcheckers.ui;
 import com.google.gson.Gson;
 import com.webcheckers.appl.GameCenter;
+import com.webcheckers.engine.Strength;
 import com.webcheckers.model.*;
 import com.webcheckers.util.Message;
 import spark.*;
@@ -29,11 +30,10 @@ public class GetGameRoute implements Route {
     private static final String BOARD_ATTR = "board";
 
     static final String PLAYER_IN_GAME_KEY = "playerInGameKey";
+    static final String AI_LEVEL_PARAM = "aiLevel";
 
     private final TemplateEngine templateEngine;
-    private CheckersGame game;
     private GameCenter gameCenter;
-    private Board gameBoard;
     private final Map<String, Object> modeOptions;
     private Gson gson;
 
@@ -41,6 +41,7 @@ public class GetGameRoute implements Route {
 
     static final Message GAME_MSG = Message.info("Welcome to the Game!");
     static final Message PLAYER_IN_GAME_MSG = Message.error("That player is already in a game!");
+    static final Message AI_BUSY_MSG = Message.error("The AI players are busy right now, try again soon!");
 
     /**
      * Create the Spark Route (UI controller) to handle all GET /game HTTP requests.
@@ -76,6 +77,7 @@ public class GetGameRoute implements Route {
         Player player = httpSession.attribute((GetHomeRoute.PLAYER_KEY));
         Player opponentPlayer;
         String opponentName;
+        CheckersGame game;
 
         Map<String, Object> vm = new HashMap<>();
         vm.put(GetHomeRoute.TITLE_ATTR, "Web Checkers");
@@ -84,26 +86,29 @@ public class GetGameRoute implements Route {
         //OR is in a Game that is being refreshed
         if(gameCenter.playerInAnyGame(player)) {
             game = gameCenter.getGame(player);
-            gameBoard = game.getTurn().getCurrentBoard();
 
-            //have the AI player take their Turn
-            if(game.getTurn().getPlayer() instanceof AIPlayer && !game.isOver()) {
-
-                AIPlayer activePlayer = (AIPlayer)game.getTurn().getPlayer();
-                activePlayer.takeAITurn(gameCenter);
-
-                gameBoard = game.getTurn().getCurrentBoard();
-                game.submitTurn();
-
-            }
+            //have the AI player take their Turn in the background; the page
+            //picks it up through /checkTurn
+            gameCenter.requestAITurn(game);
 
         }
         else {
             opponentName = request.queryParams("opponentPlayer");
 
+            //a busy server turns away new AI games rather than slow down every game
+            if(opponentName.equals("AI") && !gameCenter.acceptsAIGames()) {
+                httpSession.attribute(GetHomeRoute.AI_BUSY_KEY, true);
+                response.redirect(WebServer.HOME_URL);
+                return null;
+            }
+
             //determine if the opponent selected needs to be created as an AI or Human Player
-            if(opponentName.equals("AI"))
-                opponentPlayer = new AIPlayer(opponentName);
+            //the Player picks the AI's strength; a missing or unknown one gets the default
+            if(opponentName.equals("AI")) {
+                Strength strength = Strength.fromName(request.queryParams(AI_LEVEL_PARAM));
+                opponentPlayer = new AIPlayer(opponentName, gameCenter.getSearchPool(), strength,
+                        gameCenter.getAIEngine(strength));
+            }
             else
                 opponentPlayer = new Player(request.queryParams("opponentPlayer"));
 
@@ -111,63 +116,64 @@ public class GetGameRoute implements Route {
             if(gameCenter.playerInAnyGame(opponentPlayer)) {
                 httpSession.attribute(GetHomeRoute.OPPONENT_PLAYER_KEY, opponentPlayer);
                 response.redirect(WebServer.HOME_URL);
+                return null;
             }
             //if they weren't move forward with adding them to the game
             else {
                 //game being created for both Players
                 game = new CheckersGame(player, opponentPlayer);
-                gameBoard = game.getTurn().getCurrentBoard();
                 gameCenter.addGame(game);
             }
         }
 
-        //page attributes to be added
-        vm.put(VIEW_MODE_ATTR, game.getState());
-        vm.put(ACTIVE_COLOR_ATTR, game.getActiveColor());
+        //an AI thread may be making its Moves; the view is built from the
+        //game as it is between them
+        synchronized(game) {
+            //page attributes to be added
+            vm.put(VIEW_MODE_ATTR, game.getState());
+            vm.put(ACTIVE_COLOR_ATTR, game.getActiveColor());
 
-        vm.put(GetHomeRoute.MESSAGE_ATTR, GAME_MSG);
+            vm.put(GetHomeRoute.MESSAGE_ATTR, GAME_MSG);
 
-        //page variables to be added
-        vm.put("title", GAME_TITLE);
-        vm.put("currentUser", player);
-        vm.put("redPlayer", game.getRedPlayer());
-        vm.put("whitePlayer", game.getWhitePlayer());
+            //page variables to be added
+            vm.put("title", GAME_TITLE);
+            vm.put("currentUser", player);
+            vm.put("redPlayer", game.getRedPlayer());
+            vm.put("whitePlayer", game.getWhitePlayer());
 
-        BoardView boardView = new BoardView(gameBoard);
+            BoardView boardView = new BoardView(game.getTurn().getCurrentBoard());
 
-        //orient the Board correctly based on Player
-        if(player.equals(game.getRedPlayer())) {
-            boardView.flip();
-            vm.put(BOARD_ATTR, boardView.getBoard());
-        }
-        else {
-            vm.put(BOARD_ATTR, boardView.getBoard());
-        }
-        // Check for Win State
-        if(game.isOver()) {
-            modeOptions.put("isGameOver", true);
-            if(game.isResigned())
-                modeOptions.put("gameOverMessage", game.getLoser().getName() + " resigned");
-            else
-                modeOptions.put("gameOverMessage", game.getWinner().getName() + " has Won");
-
-            vm.put("modeOptionsAsJSON", gson.toJson(modeOptions));
-            vm.put(VIEW_MODE_ATTR, game.getState());
-
-            //'closedGames' is used to only remove the game when both players have
-            //refreshed their pages
-            if(game.getLoser() instanceof AIPlayer || game.getWinner() instanceof AIPlayer)
-                closedGames = 2;
-            else
-                closedGames++;
-            if(closedGames == 2) {
-                gameCenter.removeGame(game);
-                closedGames = 0;
+            //orient the Board correctly based on Player
+            if(player.equals(game.getRedPlayer())) {
+                boardView.flip();
             }
+            vm.put(BOARD_ATTR, boardView);
+            // Check for Win State
+            if(game.isOver()) {
+                modeOptions.put("isGameOver", true);
+                if(game.isResigned())
+                    modeOptions.put("gameOverMessage", game.getLoser().getName() + " resigned");
+                else
+                    modeOptions.put("gameOverMessage", game.getWinner().getName() + " has Won");
+
+                vm.put("modeOptionsAsJSON", gson.toJson(modeOptions));
+                vm.put(VIEW_MODE_ATTR, game.getState());
+
+                //'closedGames' is used to only remove the game when both players have
+                //refreshed their pages
+                if(game.getLoser() instanceof AIPlayer || game.getWinner() instanceof AIPlayer)
+                    closedGames = 2;
+                else
+                    closedGames++;
+                if(closedGames == 2) {
+                    gameCenter.removeGame(game);
+                    closedGames = 0;
+                }
 
-        }
-        else {
-            vm.put(VIEW_MODE_ATTR, game.getState());
+            }
+            else {
+                vm.put(VIEW_MODE_ATTR, game.getState());
+            }
         }
 
         return templateEngine.render(new ModelAndView(vm, GAME_VIEW_NAME));
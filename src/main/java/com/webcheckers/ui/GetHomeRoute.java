@@ -3,6 +3,7 @@ package com.webcheckers.ui;
 import com.webcheckers.appl.GameCenter;
 import com.webcheckers.util.Message;
 import com.webcheckers.appl.PlayerLobby;
+import com.webcheckers.engine.Strength;
 import com.webcheckers.model.Player;
 import spark.*;
 
@@ -31,10 +32,12 @@ public class GetHomeRoute implements Route {
   static final String CURRENT_USER_ATTR = "currentUser";
   static final String PLAYER_LIST_ATTR = "playerList";
   public static final String PLAYERS_SIGNED_IN_ATTR = "playersSignedIn";
+  static final String AI_LEVELS_ATTR = "aiLevels";
 
   //key values used for http session storage
   static final String PLAYER_KEY = "playerKey";
   static final String OPPONENT_PLAYER_KEY = "opponentPlayerKey";
+  static final String AI_BUSY_KEY = "aiBusyKey";
   static final String PLAYER_LOBBY_KEY = "playerLobbyKey";
   static final String GAME_KEY = "gameKey";
   static final String TITLE = "Home";
@@ -116,12 +119,18 @@ public class GetHomeRoute implements Route {
       if(opponentPlayer != null && gameCenter.playerInAnyGame(opponentPlayer)) {
         //Displays "That player is already in a game!"
         vm.put(MESSAGE_ATTR, GetGameRoute.PLAYER_IN_GAME_MSG);
+      }
+      //or asked for an AI game while the server was too busy to start one
+      else if(httpSession.attribute(AI_BUSY_KEY) != null) {
+        httpSession.removeAttribute(AI_BUSY_KEY);
+        vm.put(MESSAGE_ATTR, GetGameRoute.AI_BUSY_MSG);
       }else {
         //Displays "Select a Player below to start a game:"
         vm.put(MESSAGE_ATTR, SELECT_PLAYER_MSG);
       }
 
       vm.put(CURRENT_USER_ATTR, player);
+      vm.put(AI_LEVELS_ATTR, Strength.values());
 
       //retrieve the current player lobby from the http session
       playerLobby = httpSession.attribute(PLAYER_LOBBY_KEY);
@@ -2,6 +2,7 @@ package com.webcheckers.ui;
 
 import com.google.gson.Gson;
 import com.webcheckers.appl.GameCenter;
+import com.webcheckers.model.CheckersGame;
 import com.webcheckers.model.Player;
 import com.webcheckers.model.Position;
 import com.webcheckers.model.Turn;
@@ -49,12 +50,16 @@ public class PostBackupMoveRoute implements Route {
     public Object handle(Request request, Response response) {
 
         Player player = request.session().attribute(GetHomeRoute.PLAYER_KEY);
-        Player activePlayer = gameCenter.getGame(player).getActivePlayer();
+        CheckersGame game = gameCenter.getGame(player);
 
-        Turn turn = gameCenter.getTurn(activePlayer);
+        synchronized(game) {
+            Player activePlayer = game.getActivePlayer();
 
-        //logic is passed off to Turn object
-        turn.backUpMove();
+            Turn turn = gameCenter.getTurn(activePlayer);
+
+            //logic is passed off to Turn object
+            turn.backUpMove();
+        }
 
         return new Gson().toJson(new Message(BACKUP_SUCCESS, Message.Type.INFO));
     }
@@ -49,25 +49,28 @@ public class PostCheckTurnRoute implements Route {
     @Override
     public Object handle(Request request, Response response) {
         Player player = request.session().attribute(GetHomeRoute.PLAYER_KEY);
-        Player activePlayer = null;
         CheckersGame game = gameCenter.getGame(player);
 
-        if(game != null)
-            activePlayer = game.getActivePlayer();
-
         String playersTurn;
 
         if(game == null) {
             return gson.toJson(new Message(GAME_END_MSG, Message.Type.INFO));
         }
 
-        if(activePlayer != null && activePlayer.equals(game.getActivePlayer())) {
-            playersTurn = "true";
-            return gson.toJson(new Message(playersTurn, Message.Type.INFO));
-        }
-        else {
-            playersTurn = "false";
-            return gson.toJson(new Message(playersTurn, Message.Type.INFO));
+        //an AI opponent's Turn is started here too, in case it couldn't be
+        //started when the Player submitted
+        gameCenter.requestAITurn(game);
+
+        //refreshing shows the Player their Turn, or how the game ended
+        synchronized(game) {
+            if(game.isOver() || player.equals(game.getActivePlayer())) {
+                playersTurn = "true";
+                return gson.toJson(new Message(playersTurn, Message.Type.INFO));
+            }
+            else {
+                playersTurn = "false";
+                return gson.toJson(new Message(playersTurn, Message.Type.INFO));
+            }
         }
 
     }
@@ -60,7 +60,7 @@ public class PostSignOutRoute implements Route{
 
         CheckersGame game = gameCenter.getGame(player);
         if(gameCenter.getGame(player) != null) {
-            game.resignGame(player);
+            gameCenter.resignGame(player);
         }
 
         httpSession.attribute(GetHomeRoute.PLAYER_KEY, null);
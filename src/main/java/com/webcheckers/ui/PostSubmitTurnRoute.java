@@ -4,6 +4,7 @@ import com.google.gson.Gson;
 import com.webcheckers.appl.GameCenter;
 import com.webcheckers.model.CheckersGame;
 import com.webcheckers.model.Player;
+import com.webcheckers.util.Message;
 import spark.Request;
 import spark.Response;
 import spark.Route;
@@ -49,6 +50,13 @@ public class PostSubmitTurnRoute implements Route {
         CheckersGame game = gameCenter.getGame(player);
 
         //CheckersGame handles game logic
-        return new Gson().toJson(game.submitTurn());
+        Message message;
+        synchronized(game) {
+            message = game.submitTurn();
+        }
+
+        //an AI opponent starts thinking right away
+        gameCenter.requestAITurn(game);
+        return new Gson().toJson(message);
     }
 }
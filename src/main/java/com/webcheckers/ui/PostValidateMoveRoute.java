@@ -53,7 +53,6 @@ public class PostValidateMoveRoute implements Route {
 
         Player player = request.session().attribute(GetHomeRoute.PLAYER_KEY);
         CheckersGame game = gameCenter.getGame(player);
-        Player activePlayer = game.getActivePlayer();
         Move move;
 
         //the actionData parameter contains the Move made as a String
@@ -61,13 +60,17 @@ public class PostValidateMoveRoute implements Route {
         //build a Move using the String
         move = gson.fromJson(moveAsJsonString, Move.class);
 
-        //Move must be oriented correctly if it was made on a flipped board
-        if(activePlayer.equals(gameCenter.getGame(player).getRedPlayer())) {
-            move = move.flipMove();
-        }
+        synchronized(game) {
+            Player activePlayer = game.getActivePlayer();
+
+            //Move must be oriented correctly if it was made on a flipped board
+            if(activePlayer.equals(game.getRedPlayer())) {
+                move = move.flipMove();
+            }
 
-        //game logic handed off to Turn class
-        return (new Gson()).toJson(gameCenter.getTurn(activePlayer).validateMove(move));
+            //game logic handed off to Turn class
+            return (new Gson()).toJson(gameCenter.getTurn(activePlayer).validateMove(move));
+        }
     }
 
 }
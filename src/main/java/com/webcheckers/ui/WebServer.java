@@ -61,7 +61,7 @@ public class WebServer {
   public static final String RESIGN_URL = "/resignGame";
   public static final String EXIT_URL = "/exitGame";
 
-  public GameCenter gameCenter = new GameCenter();
+  public GameCenter gameCenter;
   public PlayerLobby playerLobby = new PlayerLobby();
   private final TemplateEngine templateEngine;
   private final Gson gson;
@@ -79,12 +79,31 @@ public class WebServer {
    *    If any of the parameters are null.
    */
   public WebServer(final TemplateEngine templateEngine, final Gson gson) {
+    this(templateEngine, gson, new GameCenter());
+  }
+
+  /**
+   * The constructor for the Web Server.
+   *
+   * @param templateEngine
+   *    The default TemplateEngine to render page-level HTML views.
+   * @param gson
+   *    The Google JSON parser object used to render Ajax responses.
+   * @param gameCenter
+   *    The shared checkers Game Center.
+   *
+   * @throws NullPointerException
+   *    If any of the parameters are null.
+   */
+  public WebServer(final TemplateEngine templateEngine, final Gson gson, final GameCenter gameCenter) {
     // validation
     Objects.requireNonNull(templateEngine, "templateEngine must not be null");
     Objects.requireNonNull(gson, "gson must not be null");
+    Objects.requireNonNull(gameCenter, "gameCenter must not be null");
 
     this.templateEngine = templateEngine;
     this.gson = gson;
+    this.gameCenter = gameCenter;
   }
 
   /**
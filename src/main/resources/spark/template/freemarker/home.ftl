@@ -36,7 +36,12 @@
             </#if>
 
             </br>
-            <li><a href="/game?opponentPlayer=AI">Play against an AI opponent</a></br></li>
+            Play against an AI opponent:
+            <ul>
+            <#list aiLevels as level>
+                <li><a href="/game?opponentPlayer=AI&aiLevel=${level.name()}">${level.displayName}</a></li>
+            </#list>
+            </ul>
 
     <#else>
         <#if playersSignedIn??>
@@ -0,0 +1,94 @@
+package com.webcheckers.engine;
+
+import com.webcheckers.model.Board;
+import com.webcheckers.model.MoveList;
+import com.webcheckers.model.Piece;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit tests for DefaultEvaluator: the totals it keeps move by move must
+ * always be the ones worked out from scratch
+ *
+ * @authors
+ *      Summer DiStefano
+ *      Frank Abbey
+ *      Raisa Hossain
+ *      Stephen Bosonac
+ *
+ * @version 5/11/2020
+ *
+ */
+@Tag("Model-tier")
+public class DefaultEvaluatorTest {
+
+    private static final int GAMES = 1000;
+
+    /** Plies of each random game, short of Search.MAX_PLY */
+    private static final int PLIES = Search.MAX_PLY - 8;
+
+    /**
+     * Test the default weights over random games
+     */
+    @Test
+    public void defaultWeights() {
+        checkRandomGames(new DefaultEvaluator(), new Random(1));
+    }
+
+    /**
+     * Test weights with a different bonus on every square, so a Piece
+     * followed to the wrong square or as the wrong kind shows
+     */
+    @Test
+    public void everySquareDifferent() {
+        Random random = new Random(2);
+        int[] manSquares = new int[EvaluationWeights.SQUARES];
+        int[] kingSquares = new int[EvaluationWeights.SQUARES];
+        for(int square = 0; square < EvaluationWeights.SQUARES; square++) {
+            manSquares[square] = random.nextInt(1000);
+            kingSquares[square] = random.nextInt(1000);
+        }
+        checkRandomGames(new DefaultEvaluator(new EvaluationWeights(100, 170, 0, manSquares, kingSquares)), random);
+    }
+
+    /**
+     * Play random games, checking the followed total against total() after
+     * every move and again while taking the moves back
+     */
+    private static void checkRandomGames(DefaultEvaluator evaluator, Random random) {
+        MoveList moves = new MoveList();
+        int[] expected = new int[PLIES + 1];
+        for(int game = 0; game < GAMES; game++) {
+            Board board = Board.fromFen(Perft.START);
+            evaluator.reset(board);
+            expected[0] = evaluator.total(board);
+            int plies = 0;
+            while(plies < PLIES) {
+                Piece.PieceColor side = board.getActiveColor();
+                int count = board.generateMoves(side, moves);
+                if(count == 0)
+                    break;
+                int pick = random.nextInt(count);
+                evaluator.makeMove(board, moves.get(pick), moves.getCaptured(pick));
+                board.makeMove(moves.get(pick), moves.getCaptured(pick));
+                board.setActiveColor(Search.opponent(side));
+                plies++;
+
+                expected[plies] = evaluator.total(board);
+                assertEquals(expected[plies], evaluator.evaluate(board, Piece.PieceColor.RED),
+                        "game " + game + ", ply " + plies);
+                assertEquals(-expected[plies], evaluator.evaluate(board, Piece.PieceColor.WHITE));
+            }
+            for(; plies > 0; plies--) {
+                evaluator.unmakeMove();
+                assertEquals(expected[plies - 1], evaluator.evaluate(board, Piece.PieceColor.RED),
+                        "game " + game + ", back to ply " + (plies - 1));
+            }
+        }
+    }
+
+}
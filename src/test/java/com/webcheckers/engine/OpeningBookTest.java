@@ -0,0 +1,131 @@
+package com.webcheckers.engine;
+
+import com.webcheckers.model.Board;
+import com.webcheckers.model.Move;
+import com.webcheckers.model.MoveList;
+import com.webcheckers.model.Piece;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for how the opening book stores a position and its moves:
+ * a position and the same position turned half a turn, colors swapped,
+ * share one key, and a move turned with it is legal there
+ *
+ * @authors
+ *      Summer DiStefano
+ *      Frank Abbey
+ *      Raisa Hossain
+ *      Stephen Bosonac
+ *
+ * @version 5/11/2020
+ *
+ */
+@Tag("Model-tier")
+public class OpeningBookTest {
+
+    private static final int GAMES = 200;
+    private static final int PLIES = 40;
+
+    /**
+     * The position turned half a turn with the colors swapped
+     */
+    private static Board turned(Board board) {
+        return new Board(Integer.reverse(board.piecesOf(Piece.PieceColor.WHITE)),
+                Integer.reverse(board.piecesOf(Piece.PieceColor.RED)), Integer.reverse(board.getKings()),
+                Search.opponent(board.getActiveColor()));
+    }
+
+    private static long key(Board board, boolean[] turned) {
+        return OpeningBook.canonicalKey(board.piecesOf(Piece.PieceColor.RED),
+                board.piecesOf(Piece.PieceColor.WHITE), board.getKings(),
+                board.getActiveColor() == Piece.PieceColor.WHITE, turned);
+    }
+
+    /**
+     * Test that turning the starting position leaves every Piece where it
+     * was and gives the move to the other side
+     */
+    @Test
+    public void startIsSymmetric() {
+        Board start = Board.fromFen(Perft.START);
+        Board other = turned(start);
+        assertEquals(start.piecesOf(Piece.PieceColor.RED), other.piecesOf(Piece.PieceColor.RED));
+        assertEquals(start.piecesOf(Piece.PieceColor.WHITE), other.piecesOf(Piece.PieceColor.WHITE));
+        assertEquals(Search.opponent(start.getActiveColor()), other.getActiveColor());
+    }
+
+    /**
+     * Test over random games that a position and its turned position
+     * share a key, stored turned for exactly one of them, and that every
+     * move turned is a legal move of the turned position, jumping the
+     * turned squares
+     */
+    @Test
+    public void turnedPositionsShareKeyAndMoves() {
+        Random random = new Random(1);
+        MoveList moves = new MoveList();
+        MoveList turnedMoves = new MoveList();
+        boolean[] flag = new boolean[1];
+        boolean[] turnedFlag = new boolean[1];
+        for(int game = 0; game < GAMES; game++) {
+            Board board = Board.fromFen(Perft.START);
+            for(int ply = 0; ply < PLIES; ply++) {
+                Piece.PieceColor side = board.getActiveColor();
+                Board other = turned(board);
+
+                //the side to move differs, so the two are never the same position
+                assertEquals(key(board, flag), key(other, turnedFlag), board.toFen());
+                assertNotEquals(flag[0], turnedFlag[0], board.toFen());
+
+                int count = board.generateMoves(side, moves);
+                int turnedCount = other.generateMoves(other.getActiveColor(), turnedMoves);
+                assertEquals(count, turnedCount, board.toFen());
+                for(int i = 0; i < count; i++)
+                    assertTrue(contains(turnedMoves, OpeningBook.turn(moves.get(i)),
+                            Integer.reverse(moves.getCaptured(i))), board.toFen() + " move " + i);
+
+                if(count == 0)
+                    break;
+                int pick = random.nextInt(count);
+                board.makeMove(moves.get(pick), moves.getCaptured(pick));
+                board.setActiveColor(Search.opponent(side));
+            }
+        }
+    }
+
+    /**
+     * Test that turning a move twice gives it back
+     */
+    @Test
+    public void turnTwice() {
+        MoveList moves = new MoveList();
+        Board board = Board.fromFen(Perft.START);
+        int count = board.generateMoves(board.getActiveColor(), moves);
+        for(int i = 0; i < count; i++) {
+            int move = moves.get(i);
+            int twice = OpeningBook.turn(OpeningBook.turn(move));
+            assertEquals(Move.startSquare(move), Move.startSquare(twice));
+            assertEquals(Move.endSquare(move), Move.endSquare(twice));
+            assertEquals(move & (Move.CAPTURE | Move.PROMOTION), twice & (Move.CAPTURE | Move.PROMOTION));
+        }
+    }
+
+    private static boolean contains(MoveList moves, int move, int captured) {
+        for(int i = 0; i < moves.size(); i++) {
+            if(Move.startSquare(moves.get(i)) == Move.startSquare(move)
+                    && Move.endSquare(moves.get(i)) == Move.endSquare(move)
+                    && (moves.get(i) & (Move.CAPTURE | Move.PROMOTION)) == (move & (Move.CAPTURE | Move.PROMOTION))
+                    && moves.getCaptured(i) == captured)
+                return true;
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.webcheckers.engine;
+
+import com.webcheckers.model.Board;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit tests for the move generator and make/unmake, through the known
+ * perft counts from the starting position
+ *
+ * @authors
+ *      Summer DiStefano
+ *      Frank Abbey
+ *      Raisa Hossain
+ *      Stephen Bosonac
+ *
+ * @version 5/11/2020
+ *
+ */
+@Tag("Model-tier")
+public class PerftTest {
+
+    private static final int DEPTH = 7;
+
+    /**
+     * Test that every count up to DEPTH matches the known one
+     */
+    @Test
+    public void knownCounts() {
+        Perft perft = new Perft();
+        Board board = Board.fromFen(Perft.START);
+        for(int depth = 0; depth <= DEPTH; depth++)
+            assertEquals(Perft.knownStartCount(depth), perft.count(board, depth), "depth " + depth);
+    }
+
+    /**
+     * Test that counting puts the Board back the way it was
+     */
+    @Test
+    public void countRestoresBoard() {
+        Board board = Board.fromFen(Perft.START);
+        Board before = board.copyBoard();
+        new Perft().count(board, DEPTH);
+        assertEquals(before, board);
+        assertEquals(before.toFen(), board.toFen());
+    }
+
+    /**
+     * Test that the parallel count matches the known one
+     */
+    @Test
+    public void parallelCount() {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            assertEquals(Perft.knownStartCount(DEPTH), Perft.parallelCount(Board.fromFen(Perft.START), DEPTH, pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.webcheckers.engine;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for Sprt's log-likelihood ratio and its decisions
+ *
+ * @authors
+ *      Summer DiStefano
+ *      Frank Abbey
+ *      Raisa Hossain
+ *      Stephen Bosonac
+ *
+ * @version 5/11/2020
+ *
+ */
+@Tag("Model-tier")
+public class SprtTest {
+
+    private static final double EPSILON = 1e-9;
+
+    /**
+     * Test that nothing is known before a pair is counted
+     */
+    @Test
+    public void noPairs() {
+        Sprt sprt = new Sprt(0, 5, 0.05, 0.05);
+        assertEquals(0, sprt.llr(), EPSILON);
+        assertEquals(Sprt.Decision.CONTINUE, sprt.decision());
+    }
+
+    /**
+     * Test the ratio of a few pairs against the normal approximation
+     * worked out by hand: pair scores 3/4, 3/4, 1/2 and 1/4
+     */
+    @Test
+    public void knownRatio() {
+        Sprt sprt = new Sprt(0, 5, 0.05, 0.05);
+        sprt.add(SelfPlay.Outcome.A_WINS, SelfPlay.Outcome.DRAW);
+        sprt.add(SelfPlay.Outcome.DRAW, SelfPlay.Outcome.A_WINS);
+        sprt.add(SelfPlay.Outcome.A_WINS, SelfPlay.Outcome.B_WINS);
+        sprt.add(SelfPlay.Outcome.B_WINS, SelfPlay.Outcome.DRAW);
+
+        double mean = (0.75 + 0.75 + 0.5 + 0.25) / 4;
+        double variance = (0.75 * 0.75 * 2 + 0.5 * 0.5 + 0.25 * 0.25) / 4 - mean * mean;
+        double score0 = 0.5;
+        double score1 = 1 / (1 + Math.pow(10, -5 / 400.0));
+        double expected = 4 * (score1 - score0) * (2 * mean - score0 - score1) / (2 * variance);
+
+        assertEquals(8, sprt.getGames());
+        assertEquals(expected, sprt.llr(), EPSILON);
+    }
+
+    /**
+     * Test that with hypotheses either side of 0, the same pairs with the
+     * results swapped give the opposite ratio
+     */
+    @Test
+    public void swappedResultsNegate() {
+        Sprt sprt = new Sprt(-5, 5, 0.05, 0.05);
+        Sprt swapped = new Sprt(-5, 5, 0.05, 0.05);
+        for(int pair = 0; pair < 30; pair++) {
+            sprt.add(SelfPlay.Outcome.A_WINS, pair % 3 == 0 ? SelfPlay.Outcome.B_WINS : SelfPlay.Outcome.DRAW);
+            swapped.add(SelfPlay.Outcome.B_WINS, pair % 3 == 0 ? SelfPlay.Outcome.A_WINS : SelfPlay.Outcome.DRAW);
+        }
+        assertTrue(sprt.llr() > 0);
+        assertEquals(-sprt.llr(), swapped.llr(), EPSILON);
+    }
+
+    /**
+     * Test that one-sided results end the test the right way
+     */
+    @Test
+    public void decisions() {
+        Sprt stronger = new Sprt(0, 5, 0.05, 0.05);
+        Sprt weaker = new Sprt(0, 5, 0.05, 0.05);
+        for(int pair = 0; pair < 2000 && stronger.decision() == Sprt.Decision.CONTINUE; pair++)
+            stronger.add(SelfPlay.Outcome.A_WINS, pair % 2 == 0 ? SelfPlay.Outcome.DRAW : SelfPlay.Outcome.B_WINS);
+        for(int pair = 0; pair < 2000 && weaker.decision() == Sprt.Decision.CONTINUE; pair++)
+            weaker.add(SelfPlay.Outcome.B_WINS, pair % 2 == 0 ? SelfPlay.Outcome.DRAW : SelfPlay.Outcome.A_WINS);
+
+        assertEquals(Sprt.Decision.ACCEPT_H1, stronger.decision());
+        assertEquals(Sprt.Decision.ACCEPT_H0, weaker.decision());
+        assertTrue(stronger.llr() >= stronger.getUpperBound());
+        assertTrue(weaker.llr() <= weaker.getLowerBound());
+    }
+
+    /**
+     * Test that hypotheses in the wrong order are refused
+     */
+    @Test
+    public void badHypotheses() {
+        assertThrows(IllegalArgumentException.class, () -> new Sprt(5, 0, 0.05, 0.05));
+        assertThrows(IllegalArgumentException.class, () -> new Sprt(0, 5, 0, 0.05));
+    }
+
+}
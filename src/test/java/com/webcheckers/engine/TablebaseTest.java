@@ -0,0 +1,214 @@
+package com.webcheckers.engine;
+
+import com.webcheckers.model.Board;
+import com.webcheckers.model.MoveList;
+import com.webcheckers.model.Piece;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the endgame tablebase and its generator, on a table of
+ * up to 3 Pieces generated into a temporary file
+ *
+ * @authors
+ *      Summer DiStefano
+ *      Frank Abbey
+ *      Raisa Hossain
+ *      Stephen Bosonac
+ *
+ * @version 5/11/2020
+ *
+ */
+@Tag("Model-tier")
+public class TablebaseTest {
+
+    private static final int PIECES = 3;
+
+    /** Longest win or loss checked against a search without the tablebase */
+    private static final int BRUTE_FORCE_PLIES = 5;
+
+    private static Path file;
+    private static Tablebase tablebase;
+
+    @BeforeAll
+    public static void generate() throws Exception {
+        file = Files.createTempFile("endgame", ".tb");
+        TablebaseGenerator generator = new TablebaseGenerator(PIECES, 2);
+        try {
+            generator.generate();
+            generator.write(file.toString());
+        } finally {
+            generator.shutdown();
+        }
+        tablebase = new Tablebase(file);
+    }
+
+    @AfterAll
+    public static void delete() throws Exception {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Every material of 2 to PIECES Pieces
+     */
+    private static List<Integer> materials(int most) {
+        List<Integer> materials = new ArrayList<>();
+        for(int redMen = 0; redMen <= most; redMen++)
+            for(int redKings = 0; redMen + redKings <= most; redKings++)
+                for(int whiteMen = 0; redMen + redKings + whiteMen <= most; whiteMen++)
+                    for(int whiteKings = 0; redMen + redKings + whiteMen + whiteKings <= most; whiteKings++)
+                        if(redMen + redKings > 0 && whiteMen + whiteKings > 0)
+                            materials.add(Tablebase.material(redMen, redKings, whiteMen, whiteKings));
+        return materials;
+    }
+
+    /**
+     * Test that every valid index of every material of up to 4 Pieces
+     * gives back a position with that index and material
+     */
+    @Test
+    public void indexRoundTrip() {
+        int[] squares = new int[3];
+        for(int material : materials(4)) {
+            int valid = 0;
+            for(int index = 0; index < Tablebase.size(material); index++) {
+                if(!Tablebase.position(material, index, squares))
+                    continue;
+                valid++;
+                assertEquals(material, Tablebase.material(squares[0], squares[1], squares[2]));
+                assertEquals(index, Tablebase.index(material, squares[0], squares[1], squares[2]));
+            }
+            assertTrue(valid > 0, "no valid position in material " + Integer.toHexString(material));
+        }
+    }
+
+    /**
+     * Test that every position's value is the best of its moves' values:
+     * the quickest win, else a draw, else the slowest loss
+     */
+    @Test
+    public void valuesAreMinimaxOfChildren() {
+        int[] squares = new int[3];
+        MoveList moves = new MoveList();
+        for(int material : materials(PIECES)) {
+            for(int index = 0; index < Tablebase.size(material); index++) {
+                if(!Tablebase.position(material, index, squares))
+                    continue;
+                Board board = new Board(squares[0], squares[1], squares[2], Piece.PieceColor.RED);
+                int value = tablebase.probe(board);
+                assertNotEquals(Tablebase.UNKNOWN, value);
+                assertEquals(expectedValue(board, moves), value, board.toFen());
+            }
+        }
+    }
+
+    /**
+     * Work a position's value out from the tablebase values of its moves
+     */
+    private static int expectedValue(Board board, MoveList moves) {
+        int count = board.generateMoves(Piece.PieceColor.RED, moves);
+        int quickestWin = 0;
+        int slowestLoss = 1;
+        boolean draw = false;
+        for(int i = 0; i < count; i++) {
+            Board child = board.copyBoard();
+            child.makeMove(moves.get(i), moves.getCaptured(i));
+            child.setActiveColor(Piece.PieceColor.WHITE);
+            int value = tablebase.probe(child);
+            if(Tablebase.isLoss(value))
+                quickestWin = quickestWin == 0 ? value + 1 : Math.min(quickestWin, value + 1);
+            else if(Tablebase.isWin(value))
+                slowestLoss = Math.max(slowestLoss, value + 1);
+            else
+                draw = true;
+        }
+        if(quickestWin != 0)
+            return quickestWin;
+        return draw ? Tablebase.DRAW : slowestLoss;
+    }
+
+    /**
+     * Test that short wins and losses are found by a plain search without
+     * the tablebase, taking exactly as many plies
+     */
+    @Test
+    public void shortResultsMatchSearch() {
+        int[] squares = new int[3];
+        int checked = 0;
+        for(int material : materials(PIECES)) {
+            for(int index = 0; index < Tablebase.size(material); index++) {
+                if(!Tablebase.position(material, index, squares))
+                    continue;
+                Board board = new Board(squares[0], squares[1], squares[2], Piece.PieceColor.RED);
+                int value = tablebase.probe(board);
+                if(value == Tablebase.DRAW || Tablebase.plies(value) > BRUTE_FORCE_PLIES)
+                    continue;
+                int plies = Tablebase.plies(value);
+                if(Tablebase.isWin(value)) {
+                    assertTrue(wins(board, plies), board.toFen());
+                    assertFalse(wins(board, plies - 2), board.toFen());
+                }
+                else {
+                    assertTrue(loses(board, plies), board.toFen());
+                    assertFalse(plies >= 2 && loses(board, plies - 2), board.toFen());
+                }
+                checked++;
+            }
+        }
+        assertTrue(checked > 0);
+    }
+
+    /**
+     * Determine if the side to move can win within a number of plies
+     */
+    private static boolean wins(Board board, int plies) {
+        if(plies < 1)
+            return false;
+        Piece.PieceColor side = board.getActiveColor();
+        MoveList moves = new MoveList();
+        int count = board.generateMoves(side, moves);
+        for(int i = 0; i < count; i++) {
+            Board child = board.copyBoard();
+            child.makeMove(moves.get(i), moves.getCaptured(i));
+            child.setActiveColor(Search.opponent(side));
+            if(loses(child, plies - 1))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Determine if the side to move loses within a number of plies
+     * whatever it plays
+     */
+    private static boolean loses(Board board, int plies) {
+        Piece.PieceColor side = board.getActiveColor();
+        MoveList moves = new MoveList();
+        int count = board.generateMoves(side, moves);
+        if(count == 0)
+            return true;
+        if(plies < 2)
+            return false;
+        for(int i = 0; i < count; i++) {
+            Board child = board.copyBoard();
+            child.makeMove(moves.get(i), moves.getCaptured(i));
+            child.setActiveColor(Search.opponent(side));
+            if(!wins(child, plies - 1))
+                return false;
+        }
+        return true;
+    }
+
+}
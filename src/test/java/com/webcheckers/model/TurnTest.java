@@ -0,0 +1,133 @@
+package com.webcheckers.model;
+
+import com.webcheckers.util.Message;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for Turn: forced jumps and jump sequences made one hop at a
+ * time
+ *
+ * @authors
+ *      Summer DiStefano
+ *      Frank Abbey
+ *      Raisa Hossain
+ *      Stephen Bosonac
+ *
+ * @version 5/11/2020
+ *
+ */
+@Tag("Model-tier")
+public class TurnTest {
+
+    /**
+     * Red to move. The red single Piece at (2,1) can jump (3,2) and then
+     * (5,4), landing on (6,5); the one at (0,7) could step to (1,6) if
+     * there were no jump.
+     */
+    private static final String DOUBLE_JUMP = "B:W14,23,29:B4,9";
+
+    private static final Position JUMPER = new Position(2, 1);
+    private static final Position FIRST_LANDING = new Position(4, 3);
+    private static final Position SECOND_LANDING = new Position(6, 5);
+    private static final Position STEPPER = new Position(0, 7);
+
+    private CheckersGame game;
+    private Turn CuT;
+
+    @BeforeEach
+    public void setup() {
+        game = new CheckersGame(new Player("red"), new Player("white"), Board.fromFen(DOUBLE_JUMP));
+        CuT = game.getTurn();
+    }
+
+    /**
+     * Test that a single move is refused while a jump can be made
+     */
+    @Test
+    public void jumpIsForced() {
+        Message message = CuT.validateMove(new Move(STEPPER, new Position(1, 6)));
+
+        assertEquals(Message.Type.ERROR, message.getType());
+        assertEquals(Turn.State.EMPTY_TURN, CuT.getState());
+        assertNotNull(CuT.getCurrentBoard().getPiece(STEPPER));
+    }
+
+    /**
+     * Test that the jump is accepted and leaves only its next hop legal
+     */
+    @Test
+    public void firstHop() {
+        Message message = CuT.validateMove(new Move(JUMPER, FIRST_LANDING));
+
+        assertEquals(Message.Type.INFO, message.getType());
+        assertEquals(Turn.State.JUMP_MOVE, CuT.getState());
+        assertEquals(1 << 13, CuT.getCapturedSquares());
+        assertEquals(1, CuT.getLegalMoves().size());
+        assertTrue(CuT.getLegalMoves().contains(new Move(FIRST_LANDING, SECOND_LANDING).encode()));
+    }
+
+    /**
+     * Test that in the middle of a jump sequence only the jumping Piece
+     * may move, and that the sequence can be finished and submitted
+     */
+    @Test
+    public void midSequenceHop() {
+        CuT.validateMove(new Move(JUMPER, FIRST_LANDING));
+
+        Message other = CuT.validateMove(new Move(STEPPER, new Position(1, 6)));
+        assertEquals(Message.Type.ERROR, other.getType());
+
+        Message second = CuT.validateMove(new Move(FIRST_LANDING, SECOND_LANDING));
+        assertEquals(Message.Type.INFO, second.getType());
+        assertTrue(CuT.getLegalMoves().isEmpty());
+
+        game.submitTurn();
+        Board board = game.getBoard();
+        assertNull(board.getPiece(JUMPER));
+        assertNotNull(board.getPiece(SECOND_LANDING));
+        assertEquals(1, board.getWhitePieces());
+        assertEquals(Piece.PieceColor.WHITE, game.getTurn().getPlayerColor());
+    }
+
+    /**
+     * Test that a hop made without being validated first, as the AI makes
+     * its Moves, still leaves the next hop of its sequence legal
+     */
+    @Test
+    public void hopMadeBeforeLegalMovesAreNeeded() {
+        Move hop = new Move(JUMPER, FIRST_LANDING);
+        hop.setPieceColor(Piece.PieceColor.RED);
+        CuT.makeMove(hop);
+
+        assertEquals(1, CuT.getLegalMoves().size());
+        assertTrue(CuT.getLegalMoves().contains(new Move(FIRST_LANDING, SECOND_LANDING).encode()));
+    }
+
+    /**
+     * Test that backing up a hop in the middle of a sequence puts the
+     * Board and the legal Moves back
+     */
+    @Test
+    public void backUpMidSequence() {
+        Board before = CuT.getCurrentBoard().copyBoard();
+        CuT.validateMove(new Move(JUMPER, FIRST_LANDING));
+        CuT.validateMove(new Move(FIRST_LANDING, SECOND_LANDING));
+
+        CuT.backUpMove();
+        assertEquals(Turn.State.JUMP_MOVE, CuT.getState());
+        assertTrue(CuT.getLegalMoves().contains(new Move(FIRST_LANDING, SECOND_LANDING).encode()));
+
+        CuT.backUpMove();
+        assertEquals(Turn.State.EMPTY_TURN, CuT.getState());
+        assertEquals(0, CuT.getCapturedSquares());
+        assertEquals(before, CuT.getCurrentBoard());
+    }
+
+}